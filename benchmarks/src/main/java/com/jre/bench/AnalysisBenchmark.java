@@ -0,0 +1,73 @@
+/**
+ * AnalysisBenchmark.java
+ * Burnout scoring and weekly report generation at different history sizes
+ */
+package com.jre.bench;
+
+import com.jre.service.BurnoutAnalyzer;
+import com.jre.service.MoodTracker;
+import com.jre.service.ReportGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The history ends at setup time, so the analysis window (which is relative to now) is
+ * full for the whole run. The cold report clears the section cache before every call;
+ * the cached one measures the path taken when nothing changed since the last report.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx6g"})
+public class AnalysisBenchmark {
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int size;
+
+    private BurnoutAnalyzer analyzer;
+    private ReportGenerator reportGenerator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MoodTracker tracker = new MoodTracker();
+        tracker.setMoodLogs(BenchmarkData.history(size, BenchmarkData.now()));
+        analyzer = new BurnoutAnalyzer(tracker);
+        reportGenerator = new ReportGenerator(tracker, analyzer);
+    }
+
+    @State(Scope.Thread)
+    public static class ColdCache {
+        @Setup(Level.Invocation)
+        public void clear(AnalysisBenchmark benchmark) {
+            benchmark.reportGenerator.getCache().clear();
+        }
+    }
+
+    @Benchmark
+    public int calculateBurnoutScore() {
+        return analyzer.calculateBurnoutScore();
+    }
+
+    @Benchmark
+    public String generateWeeklyReport(ColdCache cold) {
+        return reportGenerator.generateWeeklyReport();
+    }
+
+    @Benchmark
+    public String generateWeeklyReportCached() {
+        return reportGenerator.generateWeeklyReport();
+    }
+}
@@ -0,0 +1,43 @@
+/**
+ * BenchmarkData.java
+ * Deterministic mood histories shared by the benchmarks
+ */
+package com.jre.bench;
+
+import com.jre.model.MoodLog;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+final class BenchmarkData {
+    static final long SEED = 20240901L;
+    // One entry every 30 minutes, so a 7-day window always holds 336 entries
+    static final int MINUTES_BETWEEN_LOGS = 30;
+
+    private static final String[] NOTES = {
+            "", "Exam stress", "Good day", "Tired after labs", "Group project meeting",
+            "Slept badly | coffee", "Gym in the morning", "Deadline tomorrow"
+    };
+
+    private BenchmarkData() {
+    }
+
+    /** {@code size} logs in date order, the last one at {@code end}; the same seed gives the same history. */
+    static List<MoodLog> history(int size, LocalDateTime end) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        LocalDateTime start = end.minusMinutes((long) (size - 1) * MINUTES_BETWEEN_LOGS);
+        List<MoodLog> logs = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            logs.add(new MoodLog(String.format("%08X", i), start.plusMinutes((long) i * MINUTES_BETWEEN_LOGS),
+                    1 + random.nextInt(10), 1 + random.nextInt(10), NOTES[random.nextInt(NOTES.length)]));
+        }
+        return logs;
+    }
+
+    /** A whole-second timestamp, so the stored lines use the plain ISO form. */
+    static LocalDateTime now() {
+        return LocalDateTime.now().withNano(0);
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * BenchmarkRunner.java
+ * Runs the suite with the GC profiler and writes a CSV result file for comparison
+ */
+package com.jre.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Accepts the usual JMH command line (benchmark regex, -p size=..., -f, -i, ...) and adds
+ * the GC profiler plus a CSV result file under results/, which CompareResults reads.
+ *
+ * Usage: java -cp target/benchmarks.jar com.jre.bench.BenchmarkRunner [jmh options]
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        String resultFile = commandLine.getResult().orElse("results/jmh-"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".csv");
+        File parent = new File(resultFile).getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(commandLine);
+        // Includes from the command line are merged in; without any, run the whole suite
+        if (commandLine.getIncludes().isEmpty()) {
+            builder.include("com\\.jre\\.bench\\..*");
+        }
+        Options options = builder
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.CSV)
+                .result(resultFile)
+                .build();
+        new Runner(options).run();
+        System.out.println("Results written to " + resultFile);
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * BurnoutRuleSetBenchmark.java
+ * Cost of evaluating and parsing the burnout rule engine
+ */
+package com.jre.bench;
+
+import com.jre.service.BurnoutRuleSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scoring does not depend on the history size, so like the codec benchmark this cycles
+ * through a fixed set of 1,024 inputs spread over every rule group's branches.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BurnoutRuleSetBenchmark {
+    private static final int INPUTS = 1024;
+
+    private static final List<String> RULES = List.of(
+            "SET|WINDOW_DAYS|7",
+            "SET|HIGH_STRESS|7",
+            "RULE|stress|AVG_STRESS|>=|8|3",
+            "RULE|stress|AVG_STRESS|>=|7|2",
+            "RULE|stress|AVG_STRESS|>=|6|1",
+            "RULE|mood|AVG_MOOD|<=|3|3",
+            "RULE|mood|AVG_MOOD|<=|4|2",
+            "RULE|mood|AVG_MOOD|<=|5|1",
+            "RULE|streak|HIGH_STRESS_STREAK|>=|3|2",
+            "RULE|streak|HIGH_STRESS_STREAK|>=|2|1");
+
+    private BurnoutRuleSet rules;
+    private double[] stress;
+    private double[] mood;
+    private int[] streak;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        rules = BurnoutRuleSet.parse(RULES);
+        Random random = new Random(42);
+        stress = new double[INPUTS];
+        mood = new double[INPUTS];
+        streak = new int[INPUTS];
+        for (int i = 0; i < INPUTS; i++) {
+            stress[i] = 1 + random.nextDouble() * 9;
+            mood[i] = 1 + random.nextDouble() * 9;
+            streak[i] = random.nextInt(5);
+        }
+    }
+
+    @Benchmark
+    public int score() {
+        next = (next + 1) & (INPUTS - 1);
+        return rules.score(stress[next], mood[next], streak[next]);
+    }
+
+    @Benchmark
+    public BurnoutRuleSet parse() {
+        return BurnoutRuleSet.parse(RULES);
+    }
+}
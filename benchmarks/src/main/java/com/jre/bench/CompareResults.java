@@ -0,0 +1,114 @@
+/**
+ * CompareResults.java
+ * Compares two JMH CSV result files and flags regressions
+ */
+package com.jre.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matches rows by benchmark name and parameters, and reports the change in score for the
+ * primary metric and the allocation rate per operation (gc.alloc.rate.norm). A row is a
+ * regression when it is worse than the baseline by more than the threshold; for time and
+ * bytes per operation higher is worse, for throughput lower is worse.
+ *
+ * Usage: java -cp target/benchmarks.jar com.jre.bench.CompareResults baseline.csv current.csv [thresholdPercent]
+ * Exits with status 1 if any regression was found.
+ */
+public class CompareResults {
+    private static class Row {
+        String key;
+        String mode;
+        String unit;
+        double score;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: CompareResults baseline.csv current.csv [thresholdPercent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        Map<String, Row> baseline = read(args[0]);
+        Map<String, Row> current = read(args[1]);
+
+        int regressions = 0;
+        System.out.printf("%-78s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Row row : current.values()) {
+            Row base = baseline.get(row.key);
+            if (base == null || !base.unit.equals(row.unit)) {
+                System.out.printf("%-78s %14s %14.3f %9s  %s%n", row.key, "-", row.score, "new", row.unit);
+                continue;
+            }
+            double change = base.score == 0 ? 0 : (row.score - base.score) / base.score * 100.0;
+            boolean higherIsWorse = !row.mode.equals("thrpt") || row.key.contains(":");
+            boolean regression = higherIsWorse ? change > threshold : change < -threshold;
+            if (regression) regressions++;
+            System.out.printf("%-78s %14.3f %14.3f %+8.1f%%  %s%s%n", row.key, base.score, row.score, change,
+                    row.unit, regression ? "  REGRESSION" : "");
+        }
+        System.out.printf("%d regression(s) over %.1f%%%n", regressions, threshold);
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    // Keeps the primary rows and the normalized allocation rate, keyed by name and parameters
+    private static Map<String, Row> read(String path) throws IOException {
+        List<String> lines = Files.readAllLines(Paths.get(path));
+        Map<String, Row> rows = new LinkedHashMap<>();
+        if (lines.isEmpty()) return rows;
+
+        List<String> header = split(lines.get(0));
+        int benchmark = header.indexOf("Benchmark");
+        int mode = header.indexOf("Mode");
+        int score = header.indexOf("Score");
+        int unit = header.indexOf("Unit");
+        for (String line : lines.subList(1, lines.size())) {
+            List<String> fields = split(line);
+            if (fields.size() < header.size()) continue;
+            String name = fields.get(benchmark);
+            int secondary = name.indexOf(':');
+            if (secondary >= 0 && !name.endsWith("gc.alloc.rate.norm")) continue;
+
+            StringBuilder key = new StringBuilder(name.replace("com.jre.bench.", ""));
+            for (int i = unit + 1; i < header.size(); i++) {
+                if (!fields.get(i).isEmpty()) {
+                    key.append(' ').append(header.get(i).replace("Param: ", "")).append('=').append(fields.get(i));
+                }
+            }
+            Row row = new Row();
+            row.key = key.toString();
+            row.mode = fields.get(mode);
+            row.unit = fields.get(unit);
+            row.score = Double.parseDouble(fields.get(score).replace(',', '.'));
+            rows.put(row.key, row);
+        }
+        return rows;
+    }
+
+    private static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ',' && !quoted) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
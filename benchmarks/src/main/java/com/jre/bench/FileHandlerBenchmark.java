@@ -0,0 +1,89 @@
+/**
+ * FileHandlerBenchmark.java
+ * Loading, saving and appending the mood log file at different history sizes
+ */
+package com.jre.bench;
+
+import com.jre.model.MoodLog;
+import com.jre.util.FileHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Each benchmark method runs in its own fork with a fresh data directory, so the file
+ * growing under appendMoodLog does not affect the load and save results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx6g"})
+public class FileHandlerBenchmark {
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int size;
+
+    private Path dataDir;
+    private FileHandler fileHandler;
+    private List<MoodLog> logs;
+    private MoodLog appended;
+    private PrintStream originalOut;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // FileHandler reports every load and save on stdout; keep that out of the results
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        dataDir = Files.createTempDirectory("jre-bench");
+        fileHandler = new FileHandler(dataDir.toString());
+        logs = BenchmarkData.history(size, BenchmarkData.now());
+        appended = logs.get(logs.size() - 1);
+        fileHandler.saveMoodLogs(logs);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        System.setOut(originalOut);
+        try (Stream<Path> files = Files.walk(dataDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public List<MoodLog> loadMoodLogs() {
+        return fileHandler.loadMoodLogs();
+    }
+
+    @Benchmark
+    public void saveMoodLogs() {
+        fileHandler.saveMoodLogs(logs);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void appendMoodLog() {
+        fileHandler.appendMoodLog(appended);
+    }
+}
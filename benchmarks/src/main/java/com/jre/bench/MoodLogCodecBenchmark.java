@@ -0,0 +1,60 @@
+/**
+ * MoodLogCodecBenchmark.java
+ * Per-record cost of the pipe-delimited storage format
+ */
+package com.jre.bench;
+
+import com.jre.model.MoodLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing and formatting cost per record does not depend on the history size, so this
+ * benchmark cycles through a fixed set of 1,024 varied records instead of taking a size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoodLogCodecBenchmark {
+    private static final int RECORDS = 1024;
+
+    private MoodLog[] logs;
+    private String[] lines;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<MoodLog> history = BenchmarkData.history(RECORDS, BenchmarkData.now());
+        logs = history.toArray(new MoodLog[0]);
+        lines = new String[RECORDS];
+        for (int i = 0; i < RECORDS; i++) {
+            lines[i] = logs[i].toFileString();
+        }
+    }
+
+    @Benchmark
+    public MoodLog fromFileString() {
+        next = (next + 1) & (RECORDS - 1);
+        return MoodLog.fromFileString(lines[next]);
+    }
+
+    @Benchmark
+    public String toFileString() {
+        next = (next + 1) & (RECORDS - 1);
+        return logs[next].toFileString();
+    }
+}
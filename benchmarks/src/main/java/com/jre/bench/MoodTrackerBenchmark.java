@@ -0,0 +1,83 @@
+/**
+ * MoodTrackerBenchmark.java
+ * Range, recent and average queries at different history sizes
+ */
+package com.jre.bench;
+
+import com.jre.model.MoodLog;
+import com.jre.service.MoodTracker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/** Queries use 7-day windows at pseudo-random positions across the whole history. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx6g"})
+public class MoodTrackerBenchmark {
+    private static final int WINDOWS = 1024;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int size;
+
+    private MoodTracker tracker;
+    private LocalDateTime[] windowStarts;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<MoodLog> logs = BenchmarkData.history(size, BenchmarkData.now());
+        tracker = new MoodTracker();
+        tracker.setMoodLogs(logs);
+
+        SplittableRandom random = new SplittableRandom(BenchmarkData.SEED);
+        windowStarts = new LocalDateTime[WINDOWS];
+        for (int i = 0; i < WINDOWS; i++) {
+            windowStarts[i] = logs.get(random.nextInt(logs.size())).getDate();
+        }
+    }
+
+    private LocalDateTime nextStart() {
+        next = (next + 1) & (WINDOWS - 1);
+        return windowStarts[next];
+    }
+
+    @Benchmark
+    public List<MoodLog> getLogsInRange() {
+        LocalDateTime from = nextStart();
+        return tracker.getLogsInRange(from, from.plusDays(7));
+    }
+
+    @Benchmark
+    public List<MoodLog> getRecentLogs() {
+        return tracker.getRecentLogs(10);
+    }
+
+    @Benchmark
+    public double calculateAverageMoodInRange() {
+        LocalDateTime from = nextStart();
+        return tracker.calculateAverageMoodInRange(from, from.plusDays(7));
+    }
+
+    @Benchmark
+    public double calculateAverageStressInRange() {
+        LocalDateTime from = nextStart();
+        return tracker.calculateAverageStressInRange(from, from.plusDays(7));
+    }
+}
@@ -1,15 +1,24 @@
 package com.jre;
 
+import com.jre.metrics.Metrics;
 import com.jre.model.*;
 import com.jre.service.*;
+import com.jre.ui.MoodChartPanel;
+import com.jre.ui.MoodHistoryDialog;
+import com.jre.util.ArchiveStore;
 import com.jre.util.FileHandler;
+import com.jre.util.SnapshotStore;
 
 import javax.swing.*;
 import java.awt.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 public class MainApp extends JFrame {
     // Core components
@@ -17,12 +26,37 @@ public class MainApp extends JFrame {
     private MoodTracker moodTracker;
     private BurnoutAnalyzer burnoutAnalyzer;
     private ReportGenerator reportGenerator;
+    private PeriodReportGenerator periodReportGenerator;
     private FileHandler fileHandler;
+    private SnapshotStore snapshotStore;
+    private ArchiveStore archiveStore;
+    private MoodEventBus eventBus;
+    private RetentionPolicy retentionPolicy;
+    private ScheduledExecutorService retentionScheduler;
+    // Written by the event bus thread once the history is loaded
+    private volatile int entriesSinceSnapshot;
+    // Tracker version the mood file currently holds
+    private volatile long persistedVersion;
+    private volatile long persistedArchiveVersion;
+    // Set when a rewrite had to wait for the archive to be stored
+    private boolean rewritePending;
+    // Updated logs for the change feed, held until the rewrite that stores them
+    private final List<MoodLog> pendingUpdates = new ArrayList<>();
+    // Added logs whose write failed, held for the change feed until the rewrite that stores them
+    private final List<MoodLog> pendingAdded = new ArrayList<>();
+    // Set while the latest write of the mood file failed
+    private volatile boolean saveFailing;
+    private volatile boolean historyLoaded;
 
     // GUI Components
     private JPanel mainPanel;
     private CardLayout cardLayout;
 
+    // Background report computation
+    private SwingWorker<String, Void> reportWorker;
+    private SwingWorker<MoodChartPanel.Data, Void> chartWorker;
+    private long reportWorkerVersion = -1;
+
     // Panel names
     private static final String WELCOME_PANEL = "Welcome";
     private static final String PROFILE_PANEL = "Profile";
@@ -30,26 +64,43 @@ public class MainApp extends JFrame {
     private static final String MOOD_PANEL = "Mood";
     private static final String REPORT_PANEL = "Report";
 
+    // Appended entries after which a snapshot checkpoint is written
+    private static final int SNAPSHOT_INTERVAL = 500;
+
+    private static final com.jre.metrics.Timer LOAD_TIMER = Metrics.timer("MainApp.loadAllData");
+
     public MainApp() {
         initializeSystem();
         initializeGUI();
+        startHistoryLoad();
     }
 
     private void initializeSystem() {
         fileHandler = new FileHandler();
+        snapshotStore = new SnapshotStore(fileHandler);
+        archiveStore = new ArchiveStore(fileHandler);
+        retentionPolicy = loadRetentionPolicy();
         moodTracker = new MoodTracker();
+        eventBus = new MoodEventBus("mood-events", 1024);
+        eventBus.subscribe(this::persistEvents);
 
-        // Load data
-        loadAllData();
+        // Only the profile is read up front; the mood history loads after the window is shown
+        user = fileHandler.loadUser();
 
-        // Initialize BurnoutAnalyzer and ReportGenerator after loading logs
-        burnoutAnalyzer = new BurnoutAnalyzer(moodTracker);
+        burnoutAnalyzer = new BurnoutAnalyzer(moodTracker, loadBurnoutRules());
         reportGenerator = new ReportGenerator(moodTracker, burnoutAnalyzer);
+        periodReportGenerator = new PeriodReportGenerator(moodTracker);
     }
 
     private void initializeGUI() {
         setTitle("Student Mood & Stress Management System");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosing(java.awt.event.WindowEvent e) {
+                closeEventBus();
+            }
+        });
         setSize(800, 600);
         setLocationRelativeTo(null);
 
@@ -212,11 +263,15 @@ public class MainApp extends JFrame {
             refreshReportPanel();
             cardLayout.show(mainPanel, REPORT_PANEL);
         });
+        JButton btnPeriod = createMenuButton("View Period Report", e -> showPeriodReport());
+        JButton btnChart = createMenuButton("View Mood Chart", e -> showMoodChart());
         JButton btnProfile = createMenuButton("Edit Profile", e -> cardLayout.show(mainPanel, PROFILE_PANEL));
         JButton btnExit = createMenuButton("Exit Application", e -> exitApplication());
 
         menuPanel.add(btnMood);
         menuPanel.add(btnReport);
+        menuPanel.add(btnPeriod);
+        menuPanel.add(btnChart);
         menuPanel.add(btnProfile);
         menuPanel.add(btnExit);
 
@@ -300,15 +355,25 @@ public class MainApp extends JFrame {
         JButton backButton = new JButton("Back to Menu");
 
         saveButton.addActionListener(e -> {
+            if (!historyLoaded) {
+                JOptionPane.showMessageDialog(this, "Your mood history is still loading, please try again in a moment.");
+                return;
+            }
             int mood = moodSlider.getValue();
             int stress = stressSlider.getValue();
             String notes = txtNotes.getText();
 
-            MoodLog log = new MoodLog(LocalDateTime.now(), mood, stress, notes);
-            moodTracker.addMoodLog(log);
-            fileHandler.appendMoodLog(log);
+            // Stored by persistEvents once the event is delivered
+            moodTracker.addMoodLog(new MoodLog(LocalDateTime.now(), mood, stress, notes));
 
-            JOptionPane.showMessageDialog(this, "Mood entry saved successfully!");
+            if (saveFailing) {
+                JOptionPane.showMessageDialog(this,
+                        "Mood entry added, but recent entries could not be written to disk.\n"
+                                + "They are kept and saving is retried with your next entry and on exit.",
+                        "Save Failed", JOptionPane.WARNING_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(this, "Mood entry saved successfully!");
+            }
             txtNotes.setText("");
             moodSlider.setValue(5);
             stressSlider.setValue(5);
@@ -344,17 +409,24 @@ public class MainApp extends JFrame {
         JButton btnRefresh = new JButton("Refresh Report");
         JButton btnExport = new JButton("Export to File");
         JButton btnBack = new JButton("Back to Menu");
-
-        btnRefresh.addActionListener(e -> txtReport.setText(reportGenerator.generateWeeklyReport()));
-        btnExport.addActionListener(e -> exportReport(txtReport.getText()));
+        JProgressBar progressBar = new JProgressBar();
+        progressBar.setIndeterminate(true);
+        progressBar.setStringPainted(true);
+        progressBar.setString("Generating report...");
+        progressBar.setVisible(false);
+
+        btnRefresh.addActionListener(e -> refreshReportPanel());
+        btnExport.addActionListener(e -> exportReport());
         btnBack.addActionListener(e -> cardLayout.show(mainPanel, MENU_PANEL));
 
         buttonPanel.add(btnRefresh);
         buttonPanel.add(btnExport);
         buttonPanel.add(btnBack);
+        buttonPanel.add(progressBar);
         panel.add(buttonPanel, BorderLayout.SOUTH);
 
         panel.putClientProperty("txtReport", txtReport);
+        panel.putClientProperty("reportProgress", progressBar);
         return panel;
     }
 
@@ -382,44 +454,143 @@ public class MainApp extends JFrame {
                 JPanel p = (JPanel) comp;
                 JTextArea txtReport = (JTextArea) p.getClientProperty("txtReport");
                 if (txtReport != null) {
-                    txtReport.setText(reportGenerator.generateWeeklyReport());
+                    startReportWorker(txtReport, (JProgressBar) p.getClientProperty("reportProgress"));
                 }
             }
         }
     }
 
+    // Computes the report off the EDT. The previous report stays visible until the new one
+    // is ready; a refresh for unchanged data joins the running worker, otherwise it is cancelled.
+    private void startReportWorker(JTextArea txtReport, JProgressBar progressBar) {
+        long version = moodTracker.getVersion();
+        if (reportWorker != null && !reportWorker.isDone()) {
+            if (version == reportWorkerVersion) {
+                return;
+            }
+            reportWorker.cancel(true);
+        }
+
+        SwingWorker<String, Void> worker = new SwingWorker<String, Void>() {
+            @Override
+            protected String doInBackground() {
+                return reportGenerator.generateWeeklyReport();
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled() || reportWorker != this) {
+                    return;
+                }
+                progressBar.setVisible(false);
+                try {
+                    txtReport.setText(get());
+                    txtReport.setCaretPosition(0);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (java.util.concurrent.ExecutionException ex) {
+                    JOptionPane.showMessageDialog(MainApp.this,
+                            "Error generating report: " + ex.getCause().getMessage());
+                }
+            }
+        };
+        reportWorker = worker;
+        reportWorkerVersion = version;
+        progressBar.setVisible(true);
+        progressBar.getParent().revalidate();
+        worker.execute();
+    }
+
     private void showMoodHistory() {
-        List<MoodLog> logs = moodTracker.getRecentLogs(10);
-        StringBuilder history = new StringBuilder("Recent Mood Entries:\n\n");
+        new MoodHistoryDialog(this, moodTracker).setVisible(true);
+    }
 
-        if (logs.isEmpty()) {
-            history.append("No entries found.");
-        } else {
-            for (MoodLog log : logs) {
-                history.append(String.format("%s - Mood: %d, Stress: %d\n%s\n\n",
-                        log.getDate().format(DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm")),
-                        log.getMoodLevel(),
-                        log.getStressLevel(),
-                        log.getNotes().isEmpty() ? "(No notes)" : log.getNotes()));
+    private void showMoodChart() {
+        if (!historyLoaded) {
+            JOptionPane.showMessageDialog(this, "Your mood history is still loading, please try again in a moment.");
+            return;
+        }
+        if (chartWorker != null && !chartWorker.isDone()) {
+            return;
+        }
+
+        // The series pyramids are built off the EDT; only the dialog is created on it
+        chartWorker = new SwingWorker<MoodChartPanel.Data, Void>() {
+            @Override
+            protected MoodChartPanel.Data doInBackground() {
+                return MoodChartPanel.Data.build(moodTracker.getMoodLogs());
+            }
+
+            @Override
+            protected void done() {
+                setCursor(Cursor.getDefaultCursor());
+                MoodChartPanel.Data data;
+                try {
+                    data = get();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (java.util.concurrent.ExecutionException ex) {
+                    JOptionPane.showMessageDialog(MainApp.this,
+                            "Error building chart: " + ex.getCause().getMessage());
+                    return;
+                }
+                JDialog dialog = new JDialog(MainApp.this, "Mood & Stress Over Time", true);
+                dialog.add(new MoodChartPanel(data));
+                dialog.pack();
+                dialog.setLocationRelativeTo(MainApp.this);
+                dialog.setVisible(true);
+            }
+        };
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        chartWorker.execute();
+    }
+
+    private void showPeriodReport() {
+        String[] options = {"This Month", "This Semester", "This Year", "Custom Range"};
+        int choice = JOptionPane.showOptionDialog(this, "Select the report period:", "Period Report",
+                JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, options, options[0]);
+
+        ReportPeriod period;
+        try {
+            if (choice == 0) {
+                period = ReportPeriod.currentMonth();
+            } else if (choice == 1) {
+                period = ReportPeriod.currentSemester();
+            } else if (choice == 2) {
+                period = ReportPeriod.currentYear();
+            } else if (choice == 3) {
+                String from = JOptionPane.showInputDialog(this, "Start date (yyyy-MM-dd):",
+                        LocalDate.now().minusMonths(1).toString());
+                if (from == null) return;
+                String to = JOptionPane.showInputDialog(this, "End date (yyyy-MM-dd):", LocalDate.now().toString());
+                if (to == null) return;
+                period = ReportPeriod.custom(LocalDate.parse(from.trim()), LocalDate.parse(to.trim()));
+            } else {
+                return;
             }
+        } catch (java.time.format.DateTimeParseException | IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, "Invalid period: " + ex.getMessage());
+            return;
         }
 
-        JTextArea textArea = new JTextArea(history.toString());
+        JTextArea textArea = new JTextArea(periodReportGenerator.generatePeriodReport(period, true));
         textArea.setEditable(false);
+        textArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
         JScrollPane scrollPane = new JScrollPane(textArea);
-        scrollPane.setPreferredSize(new Dimension(500, 400));
-        JOptionPane.showMessageDialog(this, scrollPane, "Mood History", JOptionPane.INFORMATION_MESSAGE);
+        scrollPane.setPreferredSize(new Dimension(700, 500));
+        JOptionPane.showMessageDialog(this, scrollPane, "Period Report", JOptionPane.INFORMATION_MESSAGE);
     }
 
-    private void exportReport(String reportContent) {
+    private void exportReport() {
         JFileChooser fileChooser = new JFileChooser();
         fileChooser.setDialogTitle("Export Report");
         fileChooser.setSelectedFile(new java.io.File("weekly_report_" +
                 LocalDate.now().toString() + ".txt"));
 
         if (fileChooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
-            try (java.io.FileWriter writer = new java.io.FileWriter(fileChooser.getSelectedFile())) {
-                writer.write(reportContent);
+            try (java.io.OutputStream out = new java.io.FileOutputStream(fileChooser.getSelectedFile())) {
+                reportGenerator.writeWeeklyReport(out);
                 JOptionPane.showMessageDialog(this, "Report exported successfully!");
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(this, "Error exporting report: " + ex.getMessage());
@@ -427,29 +598,257 @@ public class MainApp extends JFrame {
         }
     }
 
+    private void startHistoryLoad() {
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() {
+                loadAllData();
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                historyLoaded = true;
+                refreshReportPanel();
+                startRetention();
+            }
+        }.execute();
+    }
+
+    // Runs on a background worker; the tracker is thread-safe and nothing else writes to it until loaded
     private void loadAllData() {
-        user = fileHandler.loadUser();
-        List<MoodLog> loadedMoodLogs = fileHandler.loadMoodLogs();
-        moodTracker.setMoodLogs(loadedMoodLogs);
-        System.out.println("All data loaded successfully.");
+        long start = System.nanoTime();
+        SnapshotStore.Snapshot snapshot = snapshotStore.load();
+        // Only the part after the snapshot can hold a torn append
+        fileHandler.recoverMoodLog(snapshot == null ? 0 : snapshot.getCoveredBytes());
+        if (snapshot != null) {
+            moodTracker.restore(snapshot.getLogs(), snapshot.getDailySummaries());
+            for (MoodLog log : snapshot.getTailLogs()) {
+                moodTracker.addMoodLog(log);
+            }
+            entriesSinceSnapshot = snapshot.getTailLogs().size();
+        } else {
+            List<MoodLog> loadedMoodLogs = fileHandler.loadMoodLogs();
+            moodTracker.setMoodLogs(loadedMoodLogs);
+            entriesSinceSnapshot = SNAPSHOT_INTERVAL;
+        }
+        ArchiveStore.Archive archive = archiveStore.load();
+        if (archive != null) {
+            moodTracker.restoreArchive(archive.getDays(), archive.getFoldedBefore());
+        }
+        // Loading is not a change to persist; only later changes are published
+        persistedVersion = moodTracker.getVersion();
+        persistedArchiveVersion = moodTracker.getArchiveVersion();
+        moodTracker.setEventBus(eventBus);
+        long elapsed = System.nanoTime() - start;
+        LOAD_TIMER.record(elapsed);
+        System.out.printf("All data loaded successfully (%d mood log(s), %.0f ms).%n",
+                moodTracker.getTotalLogs(), elapsed / 1_000_000.0);
+    }
+
+    // Runs on the event bus thread: one file write per batch, however many entries it holds
+    private void persistEvents(List<MoodEvent> events) {
+        List<MoodLog> added = new ArrayList<>();
+        boolean rewrite = rewritePending;
+        long lastVersion = persistedVersion;
+        for (MoodEvent event : events) {
+            // Already covered by an earlier rewrite of the whole file
+            if (event.getVersion() <= persistedVersion) continue;
+            if (event instanceof MoodEvent.LogAdded) {
+                added.addAll(((MoodEvent.LogAdded) event).getLogs());
+            } else {
+                if (event instanceof MoodEvent.LogUpdated) {
+                    pendingUpdates.add(((MoodEvent.LogUpdated) event).getUpdated());
+                }
+                rewrite = true;
+            }
+            lastVersion = event.getVersion();
+        }
+
+        // Folded logs leave the text log only after the archive holding them is stored
+        boolean archived = storeArchive();
+        boolean stored = true;
+        if (rewrite && archived) {
+            // The text log is append-only, so updates and replacements rewrite it from the tracker
+            pendingAdded.addAll(added);
+            MoodTracker.VersionedLogs state = moodTracker.getVersionedLogs();
+            stored = fileHandler.saveMoodLogs(state.getLogs());
+            if (stored) {
+                fileHandler.recordRewrittenMoodLogs(pendingAdded, pendingUpdates);
+                pendingAdded.clear();
+                pendingUpdates.clear();
+                persistedVersion = state.getVersion();
+                entriesSinceSnapshot = SNAPSHOT_INTERVAL;
+            }
+        } else if (!added.isEmpty()) {
+            stored = fileHandler.appendMoodLogs(added);
+            if (stored) {
+                persistedVersion = lastVersion;
+                entriesSinceSnapshot += added.size();
+            } else {
+                pendingAdded.addAll(added);
+            }
+        }
+        // A failed write is retried as a rewrite from the tracker, which still holds every change
+        rewritePending = !stored || (rewrite && !archived);
+        reportSaveResult(stored);
+        if (entriesSinceSnapshot >= SNAPSHOT_INTERVAL) {
+            writeSnapshot();
+        }
+    }
+
+    // Tells the user once when saving starts failing; the next successful write clears it
+    private void reportSaveResult(boolean stored) {
+        boolean wasFailing = saveFailing;
+        saveFailing = !stored;
+        if (!stored && !wasFailing) {
+            SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(this,
+                    "Your latest mood entries could not be written to disk.\n"
+                            + "They are kept and saving is retried with your next entry and on exit.",
+                    "Save Failed", JOptionPane.ERROR_MESSAGE));
+        }
+    }
+
+    // The snapshot must cover exactly the mood file, so it is only written when the file is current
+    private void writeSnapshot() {
+        if (!historyLoaded || rewritePending) return;
+        MoodTracker.VersionedLogs state = moodTracker.getVersionedLogs();
+        if (state.getVersion() == persistedVersion
+                && snapshotStore.write(state.getLogs(), state.getDailySummaries())) {
+            entriesSinceSnapshot = 0;
+        }
+    }
+
+    private boolean storeArchive() {
+        if (moodTracker.getArchiveVersion() == persistedArchiveVersion) {
+            return true;
+        }
+        MoodTracker.Archive archive = moodTracker.getArchive();
+        if (!archiveStore.write(archive.getDays(), archive.getFoldedBefore())) {
+            return false;
+        }
+        persistedArchiveVersion = archive.getVersion();
+        return true;
+    }
+
+    // Condenses old history under the retention policy: hourly, or every few seconds while a
+    // pass stops at its batch limit. The rewrite itself is done by persistEvents.
+    private void startRetention() {
+        if (retentionPolicy == null) {
+            JOptionPane.showMessageDialog(this,
+                    "The retention settings in data/retention.txt are invalid, so old history is not condensed.\n"
+                            + "Fix the file and restart the application to turn retention back on.",
+                    "Retention Disabled", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        retentionScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mood-retention");
+            thread.setDaemon(true);
+            return thread;
+        });
+        retentionScheduler.schedule(this::runRetention, 1, TimeUnit.MINUTES);
     }
 
-    private void saveAllData() {
+    private void runRetention() {
+        // The event bus is closed on exit, and nothing would store the changes
+        if (eventBus.isClosed()) return;
+        long delay = 3600;
+        MoodTracker.RetentionResult result = moodTracker.applyRetention(retentionPolicy, LocalDate.now());
+        if (result.isChanged()) {
+            System.out.println("Retention: " + result);
+        }
+        if (result.hasMore()) {
+            delay = 5;
+        }
+        if (eventBus.isClosed()) return;
+        retentionScheduler.schedule(this::runRetention, delay, TimeUnit.SECONDS);
+    }
+
+    // Delivers pending changes to their subscribers before the application exits
+    private void closeEventBus() {
+        if (retentionScheduler != null) {
+            retentionScheduler.shutdownNow();
+        }
+        try {
+            eventBus.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private BurnoutRuleSet loadBurnoutRules() {
+        List<String> ruleLines = fileHandler.loadBurnoutRules();
+        if (ruleLines.isEmpty()) {
+            return BurnoutRuleSet.defaults();
+        }
+        try {
+            return BurnoutRuleSet.parse(ruleLines);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid burnout rules, using defaults: " + e.getMessage());
+            return BurnoutRuleSet.defaults();
+        }
+    }
+
+    // Null when retention.txt is unreadable or invalid: condensing deletes data, so nothing runs then
+    private RetentionPolicy loadRetentionPolicy() {
+        List<String> settingLines = fileHandler.loadRetentionSettings();
+        if (settingLines == null) {
+            System.err.println("RETENTION DISABLED: retention settings could not be read.");
+            return null;
+        }
+        if (settingLines.isEmpty()) {
+            return RetentionPolicy.defaults();
+        }
+        try {
+            return RetentionPolicy.parse(settingLines);
+        } catch (IllegalArgumentException e) {
+            System.err.println("RETENTION DISABLED: invalid retention settings: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Returns false if the mood history could not be stored
+    private boolean saveAllData() {
         if (user != null) {
             fileHandler.saveUser(user);
         }
-        fileHandler.saveMoodLogs(moodTracker.getMoodLogs());
+        // Until the history has loaded the tracker is incomplete, and the file is already current
+        if (historyLoaded) {
+            MoodTracker.VersionedLogs state = moodTracker.getVersionedLogs();
+            if (!storeArchive() || !fileHandler.saveMoodLogs(state.getLogs())) {
+                System.err.println("Mood history could not be saved.");
+                return false;
+            }
+            fileHandler.recordRewrittenMoodLogs(pendingAdded, pendingUpdates);
+            pendingAdded.clear();
+            pendingUpdates.clear();
+            persistedVersion = state.getVersion();
+            rewritePending = false;
+        }
         System.out.println("All data saved successfully.");
+        return true;
     }
 
     private void exitApplication() {
         int choice = JOptionPane.showConfirmDialog(this,
                 "Save data before exiting?", "Exit", JOptionPane.YES_NO_CANCEL_OPTION);
 
+        if (choice == JOptionPane.YES_OPTION || choice == JOptionPane.NO_OPTION) {
+            closeEventBus();
+        }
         if (choice == JOptionPane.YES_OPTION) {
-            saveAllData();
+            if (saveAllData()) {
+                writeSnapshot();
+            } else {
+                JOptionPane.showMessageDialog(this,
+                        "Your mood history could not be saved. The last stored version is kept on disk.",
+                        "Save Failed", JOptionPane.ERROR_MESSAGE);
+            }
             System.exit(0);
         } else if (choice == JOptionPane.NO_OPTION) {
+            if (entriesSinceSnapshot > 0) {
+                writeSnapshot();
+            }
             System.exit(0);
         }
     }
@@ -0,0 +1,191 @@
+/**
+ * ExportJob.java
+ * Headless export of mood logs, daily rollups or burnout scores as CSV / JSON Lines
+ */
+package com.jre.batch;
+
+import com.jre.model.DailySummary;
+import com.jre.model.MoodLog;
+import com.jre.model.User;
+import com.jre.service.BurnoutRuleSet;
+import com.jre.util.FileHandler;
+import com.jre.util.MoodLogExporter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Streams one student at a time straight from storage, so memory stays constant in the
+ * number of rows (daily rollups hold one summary per day of the requested range).
+ *
+ * Usage: java -cp bin com.jre.batch.ExportJob [--type logs|daily|burnout] [--format csv|jsonl]
+ *        [--from yyyy-MM-dd] [--to yyyy-MM-dd] [--students-dir dir] [--students id,id]
+ *        [--out file|-] [--gzip]
+ */
+public class ExportJob {
+    public enum Type { LOGS, DAILY, BURNOUT }
+
+    private final Type type;
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+    private final BurnoutRuleSet rules;
+
+    public ExportJob(Type type, LocalDateTime from, LocalDateTime to, BurnoutRuleSet rules) {
+        this.type = type;
+        this.from = from;
+        this.to = to;
+        this.rules = rules;
+    }
+
+    public void exportStudent(String studentId, FileHandler source, MoodLogExporter exporter) throws IOException {
+        try {
+            switch (type) {
+                case LOGS:
+                    source.forEachMoodLog(log -> {
+                        if (inRange(log)) write(() -> exporter.writeLog(studentId, log));
+                    });
+                    break;
+                case DAILY:
+                    exportDaily(studentId, source, exporter);
+                    break;
+                default:
+                    exportBurnout(studentId, source, exporter);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void exportDaily(String studentId, FileHandler source, MoodLogExporter exporter) throws IOException {
+        Map<LocalDate, DailySummary> days = new TreeMap<>();
+        source.forEachMoodLog(log -> {
+            if (inRange(log)) {
+                days.computeIfAbsent(log.getDate().toLocalDate(), DailySummary::new).add(log);
+            }
+        });
+        for (DailySummary day : days.values()) {
+            exporter.writeDaily(studentId, day);
+        }
+    }
+
+    // Scores the analysis window ending at 'to', keeping only the trailing entries the streak rules need
+    private void exportBurnout(String studentId, FileHandler source, MoodLogExporter exporter) throws IOException {
+        LocalDateTime windowStart = to.minusDays(rules.getWindowDays());
+        int keep = rules.getLongestStreak();
+        List<MoodLog> trailing = new ArrayList<>(keep + 1);
+        long[] totals = new long[3];
+
+        source.forEachMoodLog(log -> {
+            if (log.getDate().isAfter(to)) return;
+            if (!log.getDate().isBefore(windowStart)) {
+                totals[0]++;
+                totals[1] += log.getMoodLevel();
+                totals[2] += log.getStressLevel();
+            }
+            if (keep > 0) {
+                int pos = trailing.size();
+                while (pos > 0 && trailing.get(pos - 1).getDate().isAfter(log.getDate())) pos--;
+                trailing.add(pos, log);
+                if (trailing.size() > keep) trailing.remove(0);
+            }
+        });
+
+        int streak = 0;
+        for (int i = trailing.size() - 1; i >= 0; i--) {
+            if (trailing.get(i).getStressLevel() < rules.getHighStressThreshold()) break;
+            streak++;
+        }
+        int entries = (int) totals[0];
+        double avgMood = entries == 0 ? 0.0 : (double) totals[1] / entries;
+        double avgStress = entries == 0 ? 0.0 : (double) totals[2] / entries;
+        int score = rules.score(avgStress, avgMood, streak);
+        exporter.writeBurnout(studentId, to, entries, avgMood, avgStress, streak, score, rules.riskLevel(score));
+    }
+
+    private boolean inRange(MoodLog log) {
+        return !log.getDate().isBefore(from) && !log.getDate().isAfter(to);
+    }
+
+    private interface RowWrite {
+        void run() throws IOException;
+    }
+
+    private static void write(RowWrite row) {
+        try {
+            row.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Type type = Type.LOGS;
+        MoodLogExporter.Format format = MoodLogExporter.Format.CSV;
+        LocalDateTime from = LocalDateTime.MIN;
+        LocalDateTime to = LocalDateTime.now();
+        String studentsDir = null;
+        Set<String> students = null;
+        String out = "-";
+        boolean gzip = false;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--type": type = Type.valueOf(args[++i].toUpperCase()); break;
+                case "--format": format = MoodLogExporter.Format.valueOf(args[++i].toUpperCase()); break;
+                case "--from": from = LocalDate.parse(args[++i]).atStartOfDay(); break;
+                case "--to": to = LocalDate.parse(args[++i]).atTime(23, 59, 59, 999_999_999); break;
+                case "--students-dir": studentsDir = args[++i]; break;
+                case "--students": students = new HashSet<>(Arrays.asList(args[++i].split(","))); break;
+                case "--out": out = args[++i]; break;
+                case "--gzip": gzip = true; break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        FileHandler defaultData = new FileHandler();
+        List<String> ruleLines = defaultData.loadBurnoutRules();
+        BurnoutRuleSet rules = ruleLines.isEmpty() ? BurnoutRuleSet.defaults() : BurnoutRuleSet.parse(ruleLines);
+        ExportJob job = new ExportJob(type, from, to, rules);
+
+        long start = System.nanoTime();
+        try (MoodLogExporter exporter = out.equals("-")
+                ? MoodLogExporter.toStdout(format, gzip)
+                : MoodLogExporter.toFile(out, format, gzip)) {
+            if (studentsDir == null) {
+                User user = defaultData.loadUser();
+                job.exportStudent(user != null ? user.getStudentId() : "default", defaultData, exporter);
+            } else {
+                for (String studentId : listStudents(Paths.get(studentsDir), students)) {
+                    job.exportStudent(studentId, new FileHandler(studentsDir + "/" + studentId), exporter);
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            System.err.printf("Exported %d row(s) in %.2fs (%.0f rows/s)%n",
+                    exporter.getRowCount(), seconds, seconds > 0 ? exporter.getRowCount() / seconds : 0.0);
+        }
+    }
+
+    private static List<String> listStudents(Path dir, Set<String> only) throws IOException {
+        try (Stream<Path> dirs = Files.list(dir)) {
+            return dirs.filter(Files::isDirectory)
+                    .map(d -> d.getFileName().toString())
+                    .filter(id -> only == null || only.contains(id))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * FeedJob.java
+ * Headless change feed consumer that resumes from its stored offset
+ */
+package com.jre.batch;
+
+import com.jre.util.ChangeFeed;
+import com.jre.util.FeedOffsetStore;
+import com.jre.util.FileHandler;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Writes the changes a consumer has not seen yet as {@code <sequence>|ADDED|<log>} or
+ * {@code <sequence>|UPDATED|<log>} lines, and stores the consumer's offset after each batch
+ * is flushed, so a restarted job continues after the last stored batch (a batch cut short
+ * by a crash is written again). With --follow it keeps polling for new changes.
+ *
+ * Usage: java -cp bin com.jre.batch.FeedJob --consumer name [--data-dir dir] [--out file|-]
+ *        [--batch-size n] [--follow] [--poll-ms n]
+ */
+public class FeedJob {
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+    private static final long DEFAULT_POLL_MILLIS = 1000;
+
+    private final ChangeFeed feed;
+    private final FeedOffsetStore offsets;
+    private final String consumer;
+    private final int batchSize;
+
+    public FeedJob(FileHandler source, String consumer, int batchSize) {
+        if (!FeedOffsetStore.isValidConsumer(consumer)) {
+            throw new IllegalArgumentException("Invalid consumer name: " + consumer);
+        }
+        this.feed = source.getChangeFeed();
+        this.offsets = new FeedOffsetStore(source);
+        this.consumer = consumer;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Delivers changes until the consumer is caught up, or until interrupted when following.
+     * Returns the number of changes written.
+     */
+    public long run(Writer out, boolean follow, long pollMillis) throws IOException {
+        long delivered = 0;
+        try (ChangeFeed.Tail tail = feed.tail(offsets.load(consumer))) {
+            while (true) {
+                List<ChangeFeed.Change> changes = tail.poll(batchSize);
+                if (changes.isEmpty()) {
+                    if (!follow) break;
+                    try {
+                        Thread.sleep(pollMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                    continue;
+                }
+                for (ChangeFeed.Change change : changes) {
+                    out.write(Long.toString(change.getSequence()));
+                    out.write('|');
+                    out.write(change.getOperation().name());
+                    out.write('|');
+                    out.write(change.getLog().toFileString());
+                    out.write('\n');
+                }
+                out.flush();
+                if (!offsets.commit(consumer, tail.getCursor())) {
+                    throw new IOException("Could not store the offset of consumer " + consumer);
+                }
+                delivered += changes.size();
+            }
+        }
+        return delivered;
+    }
+
+    public static void main(String[] args) throws IOException {
+        String consumer = null;
+        String dataDir = null;
+        String out = "-";
+        int batchSize = DEFAULT_BATCH_SIZE;
+        boolean follow = false;
+        long pollMillis = DEFAULT_POLL_MILLIS;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--consumer": consumer = args[++i]; break;
+                case "--data-dir": dataDir = args[++i]; break;
+                case "--out": out = args[++i]; break;
+                case "--batch-size": batchSize = Integer.parseInt(args[++i]); break;
+                case "--follow": follow = true; break;
+                case "--poll-ms": pollMillis = Long.parseLong(args[++i]); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (consumer == null) {
+            System.err.println("Usage: FeedJob --consumer name [--data-dir dir] [--out file|-] [--batch-size n] [--follow] [--poll-ms n]");
+            System.exit(2);
+        }
+
+        FileHandler source = dataDir == null ? new FileHandler() : new FileHandler(dataDir);
+        FeedJob job = new FeedJob(source, consumer, batchSize);
+        long start = System.nanoTime();
+        try (Writer writer = out.equals("-")
+                ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+                : Files.newBufferedWriter(Paths.get(out), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            long delivered = job.run(writer, follow, pollMillis);
+            System.err.printf("Delivered %d change(s) to %s in %.2fs%n",
+                    delivered, consumer, (System.nanoTime() - start) / 1_000_000_000.0);
+        }
+    }
+}
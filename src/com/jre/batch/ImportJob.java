@@ -0,0 +1,339 @@
+/**
+ * ImportJob.java
+ * Headless bulk import of mood logs from CSV or the native pipe format
+ */
+package com.jre.batch;
+
+import com.jre.model.MoodLog;
+import com.jre.service.MoodTracker;
+import com.jre.util.ArchiveStore;
+import com.jre.util.FileHandler;
+import com.jre.util.RecordFrame;
+import com.jre.util.SnapshotStore;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Records are read in batches; each batch is parsed and validated in parallel with the same
+ * rules as the MoodLog constructor, then deduplicated by entry ID (against the existing
+ * history and earlier rows) in input order. Accepted logs are appended with one buffered
+ * write, merged into the sorted history, and the startup snapshot is refreshed.
+ *
+ * Usage: java -cp bin com.jre.batch.ImportJob --in file [--format csv|pipe] [--data-dir dir]
+ *        [--rejects file] [--batch-size n]
+ *
+ * CSV input needs a header row with date, mood and stress columns; entry_id and notes are
+ * optional (the CSV written by ExportJob --type logs can be imported as is).
+ */
+public class ImportJob {
+    public enum Format { CSV, PIPE }
+
+    private static final int DEFAULT_BATCH_SIZE = 50_000;
+
+    private final Format format;
+    private final int batchSize;
+
+    private int entryIdColumn = -1;
+    private int dateColumn = -1;
+    private int moodColumn = -1;
+    private int stressColumn = -1;
+    private int notesColumn = -1;
+
+    private long read;
+    private long rejected;
+
+    public ImportJob(Format format, int batchSize) {
+        this.format = format;
+        this.batchSize = batchSize;
+    }
+
+    /** Result of validating one record: either a log or a reject reason. */
+    private static class Parsed {
+        final MoodLog log;
+        final String error;
+
+        Parsed(MoodLog log, String error) {
+            this.log = log;
+            this.error = error;
+        }
+    }
+
+    /** Imports every record of the input file; returns the logs that were accepted, in input order. */
+    public List<MoodLog> importFile(String inputPath, String rejectsPath, Set<String> existingIds) throws IOException {
+        List<MoodLog> accepted = new ArrayList<>();
+        Set<String> seenIds = new HashSet<>(existingIds);
+
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(inputPath), StandardCharsets.UTF_8);
+             Writer rejects = new BufferedWriter(Files.newBufferedWriter(Paths.get(rejectsPath), StandardCharsets.UTF_8))) {
+            long lineNumber = 0;
+            if (format == Format.CSV) {
+                String header = reader.readLine();
+                if (header == null) return accepted;
+                lineNumber++;
+                readHeader(splitCsv(header));
+            }
+
+            List<String> records = new ArrayList<>(batchSize);
+            long[] recordLines = new long[batchSize];
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                long recordLine = lineNumber;
+                // A quoted CSV field may span lines
+                if (format == Format.CSV) {
+                    while (hasOpenQuote(line)) {
+                        String next = reader.readLine();
+                        if (next == null) break;
+                        lineNumber++;
+                        line = line + "\n" + next;
+                    }
+                }
+                if (line.trim().isEmpty()) continue;
+                recordLines[records.size()] = recordLine;
+                records.add(line);
+                if (records.size() == batchSize) {
+                    processBatch(records, recordLines, seenIds, accepted, rejects);
+                    records.clear();
+                }
+            }
+            processBatch(records, recordLines, seenIds, accepted, rejects);
+        }
+        return accepted;
+    }
+
+    private void processBatch(List<String> records, long[] recordLines, Set<String> seenIds,
+                              List<MoodLog> accepted, Writer rejects) throws IOException {
+        int n = records.size();
+        Parsed[] parsed = new Parsed[n];
+        IntStream.range(0, n).parallel().forEach(i -> parsed[i] = parse(records.get(i)));
+
+        // Dedup runs in input order so the first occurrence of an ID wins
+        for (int i = 0; i < n; i++) {
+            String error = parsed[i].error;
+            if (error == null && !seenIds.add(parsed[i].log.getEntryId())) {
+                error = "Duplicate entry ID " + parsed[i].log.getEntryId();
+            }
+            if (error == null) {
+                accepted.add(parsed[i].log);
+            } else {
+                rejected++;
+                rejects.write(recordLines[i] + "|" + error + "|" + records.get(i).replace("\n", "\\n"));
+                rejects.write('\n');
+            }
+        }
+        read += n;
+    }
+
+    private Parsed parse(String record) {
+        try {
+            if (format == Format.PIPE) {
+                MoodLog log = MoodLog.fromFileString(RecordFrame.unframe(record));
+                String idError = checkEntryId(log.getEntryId());
+                return idError == null ? new Parsed(log, null) : new Parsed(null, idError);
+            }
+
+            List<String> fields = splitCsv(record);
+            int needed = Math.max(Math.max(dateColumn, moodColumn), Math.max(stressColumn,
+                    Math.max(entryIdColumn, notesColumn)));
+            if (fields.size() <= needed) {
+                return new Parsed(null, "Expected " + (needed + 1) + " columns, found " + fields.size());
+            }
+            String dateText = fields.get(dateColumn).trim();
+            LocalDateTime date = dateText.length() == 10
+                    ? LocalDate.parse(dateText).atStartOfDay()
+                    : MoodLog.parseDate(dateText);
+            int mood = Integer.parseInt(fields.get(moodColumn).trim());
+            int stress = Integer.parseInt(fields.get(stressColumn).trim());
+            String notes = notesColumn >= 0 ? fields.get(notesColumn) : "";
+            String entryId = entryIdColumn >= 0 ? fields.get(entryIdColumn).trim() : "";
+
+            if (entryId.isEmpty()) {
+                return new Parsed(new MoodLog(date, mood, stress, notes), null);
+            }
+            String idError = checkEntryId(entryId);
+            if (idError != null) {
+                return new Parsed(null, idError);
+            }
+            return new Parsed(new MoodLog(entryId, date, mood, stress, notes), null);
+        } catch (DateTimeException e) {
+            return new Parsed(null, "Invalid date: " + e.getMessage());
+        } catch (NumberFormatException e) {
+            return new Parsed(null, "Invalid number: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return new Parsed(null, e.getMessage());
+        }
+    }
+
+    // IDs are stored unescaped in the pipe format, so they cannot hold separators
+    private static String checkEntryId(String entryId) {
+        if (entryId.isEmpty() || entryId.indexOf('|') >= 0 || entryId.indexOf('\n') >= 0) {
+            return "Invalid entry ID '" + entryId + "'";
+        }
+        return null;
+    }
+
+    private void readHeader(List<String> header) {
+        for (int i = 0; i < header.size(); i++) {
+            switch (header.get(i).trim().toLowerCase(Locale.ROOT)) {
+                case "entry_id": entryIdColumn = i; break;
+                case "date": dateColumn = i; break;
+                case "mood": moodColumn = i; break;
+                case "stress": stressColumn = i; break;
+                case "notes": notesColumn = i; break;
+                default: // extra columns such as student_id are ignored
+            }
+        }
+        if (dateColumn < 0 || moodColumn < 0 || stressColumn < 0) {
+            throw new IllegalArgumentException("CSV header must contain date, mood and stress columns");
+        }
+    }
+
+    private static boolean hasOpenQuote(String line) {
+        boolean open = false;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '"') open = !open;
+        }
+        return open;
+    }
+
+    // RFC 4180 style: quoted fields may contain commas, newlines and doubled quotes
+    static List<String> splitCsv(String record) {
+        List<String> fields = new ArrayList<>(8);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c != '\r') {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    public long getReadCount() {
+        return read;
+    }
+
+    public long getRejectedCount() {
+        return rejected;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String in = null;
+        Format format = null;
+        String dataDir = "data";
+        String rejectsPath = null;
+        int batchSize = DEFAULT_BATCH_SIZE;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--in": in = args[++i]; break;
+                case "--format": format = Format.valueOf(args[++i].toUpperCase()); break;
+                case "--data-dir": dataDir = args[++i]; break;
+                case "--rejects": rejectsPath = args[++i]; break;
+                case "--batch-size": batchSize = Integer.parseInt(args[++i]); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (in == null) {
+            System.err.println("Usage: ImportJob --in file [--format csv|pipe] [--data-dir dir] "
+                    + "[--rejects file] [--batch-size n]");
+            System.exit(2);
+        }
+        if (format == null) {
+            format = in.toLowerCase(Locale.ROOT).endsWith(".csv") ? Format.CSV : Format.PIPE;
+        }
+        if (rejectsPath == null) {
+            rejectsPath = in + ".rejects";
+        }
+
+        long start = System.nanoTime();
+        FileHandler target = new FileHandler(dataDir);
+        SnapshotStore snapshotStore = new SnapshotStore(target);
+        ArchiveStore archiveStore = new ArchiveStore(target);
+        MoodTracker tracker = new MoodTracker();
+        SnapshotStore.Snapshot snapshot = snapshotStore.load();
+        target.recoverMoodLog(snapshot == null ? 0 : snapshot.getCoveredBytes());
+        if (snapshot != null) {
+            tracker.restore(snapshot.getLogs(), snapshot.getDailySummaries());
+            tracker.addMoodLogs(snapshot.getTailLogs());
+        } else {
+            tracker.setMoodLogs(target.loadMoodLogs());
+        }
+        ArchiveStore.Archive archive = archiveStore.load();
+        if (archive != null) {
+            tracker.restoreArchive(archive.getDays(), archive.getFoldedBefore());
+        }
+        long archiveVersion = tracker.getArchiveVersion();
+        Set<String> existingIds = new HashSet<>();
+        for (MoodLog log : tracker.getMoodLogs()) {
+            existingIds.add(log.getEntryId());
+        }
+        long loaded = System.nanoTime();
+
+        ImportJob job = new ImportJob(format, batchSize);
+        List<MoodLog> accepted = job.importFile(in, rejectsPath, existingIds);
+        long validated = System.nanoTime();
+
+        accepted.sort(Comparator.comparing(MoodLog::getDate));
+        if (!accepted.isEmpty()) {
+            // Records older than the retention boundary go straight into the archive, which
+            // is stored first: the mood log copies of them are dropped at the next load
+            tracker.addMoodLogs(accepted);
+            if (tracker.getArchiveVersion() != archiveVersion) {
+                MoodTracker.Archive updated = tracker.getArchive();
+                if (!archiveStore.write(updated.getDays(), updated.getFoldedBefore())) {
+                    System.exit(1);
+                }
+            }
+            if (!target.appendMoodLogs(accepted)) {
+                System.exit(1);
+            }
+            MoodTracker.VersionedLogs state = tracker.getVersionedLogs();
+            snapshotStore.write(state.getLogs(), state.getDailySummaries());
+        }
+        long end = System.nanoTime();
+
+        double importSeconds = (end - loaded) / 1_000_000_000.0;
+        System.out.printf("Read %d record(s): %d imported, %d rejected (see %s)%n",
+                job.getReadCount(), accepted.size(), job.getRejectedCount(), rejectsPath);
+        System.out.printf("Existing history: %.2fs, validation: %.2fs, write: %.2fs (%.0f records/s)%n",
+                (loaded - start) / 1_000_000_000.0, (validated - loaded) / 1_000_000_000.0,
+                (end - validated) / 1_000_000_000.0,
+                importSeconds > 0 ? job.getReadCount() / importSeconds : 0.0);
+        System.out.println(tracker.getTotalLogs() + " mood log(s) now stored in " + target.getMoodFilePath());
+    }
+}
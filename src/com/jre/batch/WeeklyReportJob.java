@@ -0,0 +1,211 @@
+/**
+ * WeeklyReportJob.java
+ * Headless job that writes a weekly report for every student in parallel
+ */
+package com.jre.batch;
+
+import com.jre.model.MoodLog;
+import com.jre.service.BurnoutAnalyzer;
+import com.jre.service.BurnoutRuleSet;
+import com.jre.service.MoodTracker;
+import com.jre.service.ReportGenerator;
+import com.jre.util.FileHandler;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Reads student histories from {@code <studentsDir>/<studentId>/mood_logs.txt} and
+ * writes one report per student into the output directory. Completed student IDs
+ * are appended to a checkpoint file for the report date, so a rerun on the same day
+ * skips students already done while the next day's run starts afresh.
+ *
+ * Usage: java -cp bin com.jre.batch.WeeklyReportJob [studentsDir] [outputDir] [threads] [maxLoaded]
+ */
+public class WeeklyReportJob {
+    private static final String CHECKPOINT_PREFIX = ".completed-";
+    private static final String FAILURES_FILE = "failures.txt";
+
+    private final Path studentsDir;
+    private final Path outputDir;
+    private final int threads;
+    private final Semaphore loadPermits;
+    private final BurnoutRuleSet rules;
+    private final LocalDate reportDate = LocalDate.now();
+
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final ConcurrentLinkedQueue<String> failures = new ConcurrentLinkedQueue<>();
+    private BufferedWriter checkpoint;
+
+    public WeeklyReportJob(Path studentsDir, Path outputDir, int threads, int maxLoaded, BurnoutRuleSet rules) {
+        if (threads < 1 || maxLoaded < 1) {
+            throw new IllegalArgumentException("Threads and loaded history limit must be at least 1");
+        }
+        this.studentsDir = studentsDir;
+        this.outputDir = outputDir;
+        this.threads = threads;
+        this.loadPermits = new Semaphore(maxLoaded);
+        this.rules = rules;
+    }
+
+    /** Runs the job and returns the number of students that failed. */
+    public int run() throws IOException, InterruptedException {
+        Files.createDirectories(outputDir);
+        List<String> students = listStudents();
+        Set<String> done = loadCheckpoint();
+        List<String> pending = students.stream().filter(id -> !done.contains(id)).collect(Collectors.toList());
+
+        System.out.printf("Weekly report job: %d student(s), %d already completed, %d pending%n",
+                students.size(), students.size() - pending.size(), pending.size());
+
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (BufferedWriter checkpointWriter = Files.newBufferedWriter(checkpointFile(),
+                StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            checkpoint = checkpointWriter;
+            for (String studentId : pending) {
+                executor.submit(() -> processStudent(studentId, pending.size(), start));
+            }
+            executor.shutdown();
+            while (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                printProgress(pending.size(), start);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        System.out.printf("Finished: %d completed, %d failed in %.2fs (%.1f reports/s)%n",
+                completed.get(), failed.get(), seconds, seconds > 0 ? completed.get() / seconds : 0.0);
+
+        if (!failures.isEmpty()) {
+            Files.write(outputDir.resolve(FAILURES_FILE), failures, StandardCharsets.UTF_8);
+            System.err.println("Failures written to " + outputDir.resolve(FAILURES_FILE));
+        }
+        return failed.get();
+    }
+
+    private void processStudent(String studentId, int total, long start) {
+        try {
+            loadPermits.acquire();
+            try {
+                writeReport(studentId);
+            } finally {
+                loadPermits.release();
+            }
+            markCompleted(studentId);
+            completed.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            recordFailure(studentId, "interrupted");
+        } catch (IOException | RuntimeException e) {
+            recordFailure(studentId, e.toString());
+        }
+
+        int processed = completed.get() + failed.get();
+        if (processed % 100 == 0 || processed == total) {
+            printProgress(total, start);
+        }
+    }
+
+    private void writeReport(String studentId) throws IOException {
+        FileHandler fileHandler = new FileHandler(studentsDir.resolve(studentId).toString());
+        List<MoodLog> logs = new ArrayList<>();
+        if (fileHandler.forEachMoodLog(logs::add) < 0) {
+            throw new IOException("Could not read mood logs for " + studentId);
+        }
+        MoodTracker tracker = new MoodTracker();
+        tracker.setMoodLogs(logs);
+        ReportGenerator generator = new ReportGenerator(tracker, new BurnoutAnalyzer(tracker, rules));
+
+        // Write to a temp file first so a crash never leaves a half-written report behind
+        Path target = outputDir.resolve(studentId + "_weekly_report_" + reportDate + ".txt");
+        Path temp = outputDir.resolve(target.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            generator.writeWeeklyReport(out);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private synchronized void markCompleted(String studentId) throws IOException {
+        checkpoint.write(studentId);
+        checkpoint.newLine();
+        checkpoint.flush();
+    }
+
+    private void recordFailure(String studentId, String reason) {
+        failed.incrementAndGet();
+        failures.add(studentId + "|" + reason);
+        System.err.println("Report failed for " + studentId + ": " + reason);
+    }
+
+    private void printProgress(int total, long start) {
+        int processed = completed.get() + failed.get();
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        System.out.printf("  [%d/%d] %d failed, %.1f reports/s%n",
+                processed, total, failed.get(), seconds > 0 ? processed / seconds : 0.0);
+    }
+
+    private List<String> listStudents() throws IOException {
+        if (!Files.isDirectory(studentsDir)) {
+            return Collections.emptyList();
+        }
+        try (Stream<Path> dirs = Files.list(studentsDir)) {
+            return dirs.filter(Files::isDirectory)
+                    .map(dir -> dir.getFileName().toString())
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private Path checkpointFile() {
+        return outputDir.resolve(CHECKPOINT_PREFIX + reportDate);
+    }
+
+    private Set<String> loadCheckpoint() throws IOException {
+        Path file = checkpointFile();
+        if (!Files.exists(file)) {
+            return new HashSet<>();
+        }
+        Set<String> done = new HashSet<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (!line.trim().isEmpty()) done.add(line.trim());
+        }
+        return done;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path studentsDir = Paths.get(args.length > 0 ? args[0] : "data/students");
+        Path outputDir = Paths.get(args.length > 1 ? args[1] : "reports");
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        int maxLoaded = args.length > 3 ? Integer.parseInt(args[3]) : threads * 2;
+
+        List<String> ruleLines = new FileHandler().loadBurnoutRules();
+        BurnoutRuleSet rules = ruleLines.isEmpty() ? BurnoutRuleSet.defaults() : BurnoutRuleSet.parse(ruleLines);
+
+        int failures = new WeeklyReportJob(studentsDir, outputDir, threads, maxLoaded, rules).run();
+        System.exit(failures == 0 ? 0 : 1);
+    }
+}
@@ -0,0 +1,409 @@
+/**
+ * WorkloadGenerator.java
+ * Generates large, reproducible student datasets for load and scale testing
+ */
+package com.jre.batch;
+
+import com.jre.model.MoodLog;
+import com.jre.model.User;
+import com.jre.util.FileHandler;
+import com.jre.util.RecordFrame;
+import com.jre.util.SnapshotStore;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Writes {@code <studentsDir>/<prefix><n>/mood_logs.txt} and {@code user_profile.txt} for
+ * every student, in the format FileHandler reads.
+ *
+ * Each student draws from its own SplittableRandom seeded from the run seed and the student
+ * index, so a student's history does not depend on the thread count or on the other students:
+ * the same arguments always give byte-identical files. The printed fingerprint (a CRC over
+ * every mood log file in student order) is also written to {@code workload.txt} so two
+ * datasets can be compared without diffing them.
+ *
+ * The model: a per-student baseline for mood and stress, a daily rhythm (stress peaks
+ * around midday, mood lifts in the evening), a weekly one (Mondays are worst, weekends
+ * best), an 18-week term with a midterm week and two weeks of finals followed by a break,
+ * and burnout episodes that become more likely after exam periods. Notes are drawn from a
+ * vocabulary that matches the student's state on that day.
+ *
+ * Usage: java -cp bin com.jre.batch.WorkloadGenerator [--students-dir dir] [--students n]
+ *        [--days n] [--logs-per-day n] [--start yyyy-MM-dd] [--seed n] [--prefix id-prefix] [--threads n]
+ */
+public class WorkloadGenerator {
+    private static final String MANIFEST_FILE = "workload.txt";
+
+    private static final int TERM_DAYS = 126;
+
+    private static final String[] FIRST_NAMES = {
+            "Amara", "Ben", "Chloe", "Dev", "Elena", "Farid", "Grace", "Hiro", "Isla", "Jonas",
+            "Kemi", "Liam", "Maya", "Noah", "Olivia", "Priya", "Quinn", "Rosa", "Sami", "Tara",
+            "Umar", "Vera", "Wei", "Yara", "Zoe"
+    };
+    private static final String[] LAST_NAMES = {
+            "Adeyemi", "Brown", "Chen", "Dubois", "Evans", "Fischer", "Garcia", "Hassan", "Ivanova",
+            "Jensen", "Kim", "Lopez", "Murphy", "Nakamura", "Okafor", "Patel", "Rossi", "Silva",
+            "Tanaka", "Novak", "Walsh", "Yilmaz", "Zhang"
+    };
+    private static final String[] COURSES = {
+            "Computer Science", "Medicine", "Law", "Mechanical Engineering", "Psychology",
+            "Economics", "Architecture", "Biology", "Mathematics", "Nursing", "History", "Physics"
+    };
+
+    private static final String[] EXAM_NOTES = {
+            "Exam prep", "Revision all day", "Mock exam", "Library until late", "Past papers",
+            "Study group", "Cramming for finals", "Exam tomorrow"
+    };
+    private static final String[] STRESS_NOTES = {
+            "Deadline tomorrow", "Too many assignments", "Couldn't focus", "Lab report due",
+            "Behind on readings", "Group project conflict", "Presentation prep"
+    };
+    private static final String[] FATIGUE_NOTES = {
+            "Exhausted", "Slept badly", "No energy", "Skipped lectures", "Can't keep up",
+            "Headache", "Feeling overwhelmed", "Tired | coffee x3"
+    };
+    private static final String[] POSITIVE_NOTES = {
+            "Good day", "Finished assignment", "Got a good grade", "Gym in the morning",
+            "Dinner with friends", "Productive lecture", "Feeling on top of things"
+    };
+    private static final String[] WEEKEND_NOTES = {
+            "Weekend off", "Movie night", "Went hiking", "Family call", "Caught up on sleep",
+            "Football match", "Cooked with flatmates"
+    };
+    private static final String[] ROUTINE_NOTES = {
+            "Lectures", "Tutorial", "Lab session", "Long commute", "Part-time shift",
+            "Coffee with classmates", "Office hours", "Seminar reading"
+    };
+
+    private final long seed;
+    private final LocalDate start;
+    private final int days;
+    private final double logsPerDay;
+    private final String prefix;
+
+    public WorkloadGenerator(long seed, LocalDate start, int days, double logsPerDay, String prefix) {
+        if (days < 1 || logsPerDay <= 0) {
+            throw new IllegalArgumentException("Days and logs per day must be positive");
+        }
+        this.seed = seed;
+        this.start = start;
+        this.days = days;
+        this.logsPerDay = logsPerDay;
+        this.prefix = prefix;
+    }
+
+    /** Traits fixed for one student over the whole history. */
+    private static class Profile {
+        double baseMood;
+        double baseStress;
+        double examSensitivity;
+        double logRate;
+        double burnoutRisk;
+        double chronotype;
+        int idKey;
+    }
+
+    public String studentId(int index) {
+        return prefix + index;
+    }
+
+    private SplittableRandom randomFor(int index) {
+        // SplittableRandom mixes its seed, so neighbouring indexes still give unrelated streams
+        return new SplittableRandom(seed * 0x9E3779B97F4A7C15L + index);
+    }
+
+    /** The profile of one student; always the same for the same seed and index. */
+    public User user(int index) {
+        return user(index, randomFor(index));
+    }
+
+    private User user(int index, SplittableRandom random) {
+        String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        int age = 18 + Math.min(random.nextInt(6), random.nextInt(12));
+        String email = first.toLowerCase(Locale.ROOT) + "." + last.toLowerCase(Locale.ROOT) + index + "@student.example.edu";
+        return new User(studentId(index), first + " " + last, email, age, COURSES[random.nextInt(COURSES.length)]);
+    }
+
+    /** Passes one student's mood logs to the consumer in date order. */
+    public void generate(int index, Consumer<MoodLog> consumer) {
+        SplittableRandom random = randomFor(index);
+        user(index, random);
+        generate(random, consumer);
+    }
+
+    private void generate(SplittableRandom random, Consumer<MoodLog> consumer) {
+        Profile profile = new Profile();
+        profile.baseMood = clamp(6.2 + 1.2 * random.nextGaussian(), 3.5, 8.5);
+        profile.baseStress = clamp(4.2 + 1.1 * random.nextGaussian(), 2.0, 7.0);
+        profile.examSensitivity = 0.5 + 1.5 * random.nextDouble();
+        profile.logRate = logsPerDay * (0.4 + 1.2 * random.nextDouble());
+        profile.burnoutRisk = 0.002 + 0.012 * random.nextDouble();
+        profile.chronotype = -1.0 + 3.0 * random.nextDouble();
+        profile.idKey = random.nextInt();
+
+        double drift = 0;
+        double recentExam = 0;
+        int burnoutDay = -1;
+        int burnoutLength = 0;
+        double burnoutDepth = 0;
+        int sequence = 0;
+
+        for (int day = 0; day < days; day++) {
+            LocalDate date = start.plusDays(day);
+            DayOfWeek dayOfWeek = date.getDayOfWeek();
+            boolean weekend = dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY;
+            int termDay = day % TERM_DAYS;
+            double exam = examIntensity(termDay);
+            boolean termBreak = termDay >= 105;
+
+            recentExam = 0.92 * recentExam + 0.08 * exam;
+            if (burnoutDay < 0 && random.nextDouble() < profile.burnoutRisk * (1 + 6 * recentExam)) {
+                burnoutDay = 0;
+                burnoutLength = 10 + random.nextInt(26);
+                burnoutDepth = 1.5 + 1.5 * random.nextDouble();
+            }
+            double burnout = 0;
+            if (burnoutDay >= 0) {
+                // Sets in over the first quarter of the episode, then recovers slowly
+                double t = (double) burnoutDay / burnoutLength;
+                burnout = burnoutDepth * (t < 0.25 ? t / 0.25 : (1 - t) / 0.75);
+                if (++burnoutDay >= burnoutLength) {
+                    burnoutDay = -1;
+                }
+            }
+            drift = 0.7 * drift + 0.45 * random.nextGaussian();
+
+            double dayMood = profile.baseMood + drift - burnout
+                    - 1.6 * profile.examSensitivity * exam + (termBreak ? 0.6 : 0);
+            double dayStress = profile.baseStress - 0.6 * drift + 0.8 * burnout
+                    + 2.6 * profile.examSensitivity * exam - (termBreak ? 1.0 : 0);
+            switch (dayOfWeek) {
+                case MONDAY: dayMood -= 0.4; dayStress += 0.6; break;
+                case FRIDAY: dayMood += 0.3; break;
+                case SATURDAY: case SUNDAY: dayMood += 0.6; dayStress -= 0.8; break;
+                default: break;
+            }
+
+            double skip = 0.08 + (burnout > 0 ? 0.25 : 0);
+            if (random.nextDouble() < skip) continue;
+            double rate = profile.logRate * (weekend ? 0.7 : 1.0) * (burnout > 0 ? 0.6 : 1.0);
+            int count = (int) rate + (random.nextDouble() < rate - (int) rate ? 1 : 0);
+            if (count == 0) continue;
+
+            // Log times are spread over the waking hours, one per equal slot, so they stay sorted
+            int wake = (int) ((7.5 + profile.chronotype) * 60);
+            int sleep = Math.min(24 * 60 - 1, (int) ((22.5 + profile.chronotype) * 60));
+            int slot = (sleep - wake) / count;
+            for (int i = 0; i < count; i++) {
+                int minuteOfDay = wake + i * slot + random.nextInt(Math.max(1, slot));
+                int hour = minuteOfDay / 60;
+
+                double mood = dayMood + 0.8 * random.nextGaussian();
+                double stress = dayStress + 0.8 * random.nextGaussian();
+                if (hour < 10) mood -= 0.4;
+                if (hour >= 19) mood += 0.3;
+                if (hour >= 11 && hour < 16) stress += 0.5;
+                if (hour >= 22) stress += exam > 0.3 ? 0.5 : -0.3;
+
+                int moodLevel = (int) Math.round(clamp(mood, 1, 10));
+                int stressLevel = (int) Math.round(clamp(stress, 1, 10));
+                LocalDateTime time = date.atTime(hour, minuteOfDay % 60, random.nextInt(60));
+                String notes = notes(random, moodLevel, stressLevel, exam, burnout > 0.5, weekend);
+                consumer.accept(new MoodLog(entryId(sequence++, profile.idKey), time, moodLevel, stressLevel, notes));
+            }
+        }
+    }
+
+    // 0 outside exams; a week-long ramp into the midterm week (days 42-48) and finals (days 91-104)
+    private static double examIntensity(int termDay) {
+        if (termDay >= 35 && termDay < 42) return 0.6 * (termDay - 34) / 7.0;
+        if (termDay >= 42 && termDay < 49) return 0.6;
+        if (termDay >= 84 && termDay < 91) return 0.3 + 0.7 * (termDay - 83) / 7.0;
+        if (termDay >= 91 && termDay < 105) return 1.0;
+        return 0;
+    }
+
+    private static String notes(SplittableRandom random, int mood, int stress, double exam,
+                                boolean burnout, boolean weekend) {
+        double chance = 0.45 + (stress >= 8 || mood <= 3 || mood >= 9 ? 0.25 : 0);
+        if (random.nextDouble() >= chance) {
+            return "";
+        }
+        String[] vocabulary;
+        if (burnout && random.nextDouble() < 0.7) {
+            vocabulary = FATIGUE_NOTES;
+        } else if (exam > 0.3 && random.nextDouble() < 0.7) {
+            vocabulary = EXAM_NOTES;
+        } else if (stress >= 7) {
+            vocabulary = STRESS_NOTES;
+        } else if (mood >= 8) {
+            vocabulary = POSITIVE_NOTES;
+        } else if (weekend) {
+            vocabulary = WEEKEND_NOTES;
+        } else {
+            vocabulary = ROUTINE_NOTES;
+        }
+        String note = vocabulary[random.nextInt(vocabulary.length)];
+        if (random.nextDouble() < 0.3) {
+            note = note + ", " + ROUTINE_NOTES[random.nextInt(ROUTINE_NOTES.length)].toLowerCase(Locale.ROOT);
+        }
+        return note;
+    }
+
+    // A keyed bijection on 32 bits, so IDs look like the app's random ones but never repeat for a student
+    private static String entryId(int sequence, int key) {
+        int x = sequence ^ key;
+        x *= 0x9E3779B1;
+        x ^= x >>> 16;
+        x *= 0x85EBCA6B;
+        x ^= x >>> 13;
+        char[] hex = new char[8];
+        for (int i = 7; i >= 0; i--) {
+            hex[i] = Character.toUpperCase(Character.forDigit(x & 0xF, 16));
+            x >>>= 4;
+        }
+        return new String(hex);
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    /** Writes one student's files and returns the CRC of the mood log file. */
+    public long writeStudent(Path studentsDir, int index, AtomicInteger logCount) throws IOException {
+        Path dir = studentsDir.resolve(studentId(index));
+        Files.createDirectories(dir);
+        FileHandler fileHandler = new FileHandler(dir.toString());
+        // An older snapshot would describe a different history
+        new SnapshotStore(fileHandler).delete();
+
+        SplittableRandom random = randomFor(index);
+        User user = user(index, random);
+        // '\n' rather than the platform separator, so the files are identical on every OS
+        Files.write(Paths.get(fileHandler.getUserFilePath()),
+                (user.toFileString() + "\n").getBytes(StandardCharsets.UTF_8));
+
+        CRC32 crc = new CRC32();
+        int[] count = new int[1];
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new CheckedOutputStream(
+                Files.newOutputStream(Paths.get(fileHandler.getMoodFilePath())), crc), StandardCharsets.UTF_8), 64 * 1024)) {
+            IOException[] failure = new IOException[1];
+            generate(random, log -> {
+                if (failure[0] != null) return;
+                try {
+                    writer.write(RecordFrame.frame(log.toFileString()));
+                    writer.write('\n');
+                    count[0]++;
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+        }
+        logCount.addAndGet(count[0]);
+        return crc.getValue();
+    }
+
+    /** Generates every student and returns the dataset fingerprint. */
+    public long run(Path studentsDir, int students, int threads) throws IOException, InterruptedException {
+        Files.createDirectories(studentsDir);
+        AtomicInteger logCount = new AtomicInteger();
+        AtomicInteger done = new AtomicInteger();
+        long startTime = System.nanoTime();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Long>> crcs = new ArrayList<>(students);
+        try {
+            for (int i = 0; i < students; i++) {
+                int index = i;
+                crcs.add(executor.submit(() -> {
+                    long crc = writeStudent(studentsDir, index, logCount);
+                    int finished = done.incrementAndGet();
+                    if (finished % 500 == 0) {
+                        System.out.printf("  [%d/%d] %d log(s)%n", finished, students, logCount.get());
+                    }
+                    return crc;
+                }));
+            }
+
+            CRC32 fingerprint = new CRC32();
+            for (Future<Long> crc : crcs) {
+                long value = crc.get();
+                for (int shift = 0; shift < 32; shift += 8) {
+                    fingerprint.update((int) (value >>> shift));
+                }
+            }
+            double seconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+            System.out.printf("Generated %d student(s), %d mood log(s) in %.2fs (%.0f logs/s)%n",
+                    students, logCount.get(), seconds, seconds > 0 ? logCount.get() / seconds : 0.0);
+            return fingerprint.getValue();
+        } catch (ExecutionException e) {
+            throw new IOException("Generating a student failed: " + e.getCause(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path studentsDir = Paths.get("data/students");
+        int students = 1000;
+        int days = 365;
+        double logsPerDay = 3;
+        LocalDate start = LocalDate.of(2025, 1, 6);
+        long seed = 42;
+        String prefix = "load-";
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--students-dir": studentsDir = Paths.get(args[++i]); break;
+                case "--students": students = Integer.parseInt(args[++i]); break;
+                case "--days": days = Integer.parseInt(args[++i]); break;
+                case "--logs-per-day": logsPerDay = Double.parseDouble(args[++i]); break;
+                case "--start": start = LocalDate.parse(args[++i]); break;
+                case "--seed": seed = Long.parseLong(args[++i]); break;
+                case "--prefix": prefix = args[++i]; break;
+                case "--threads": threads = Integer.parseInt(args[++i]); break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.err.println("Usage: WorkloadGenerator [--students-dir dir] [--students n] [--days n] "
+                            + "[--logs-per-day n] [--start yyyy-MM-dd] [--seed n] [--prefix id-prefix] [--threads n]");
+                    System.exit(2);
+            }
+        }
+
+        WorkloadGenerator generator = new WorkloadGenerator(seed, start, days, logsPerDay, prefix);
+        long fingerprint = generator.run(studentsDir, students, threads);
+        String manifest = String.format(Locale.ROOT,
+                "seed=%d\nstudents=%d\ndays=%d\nlogs-per-day=%s\nstart=%s\nprefix=%s\nfingerprint=%08X\n",
+                seed, students, days, logsPerDay, start, prefix, fingerprint);
+        Files.write(studentsDir.resolve(MANIFEST_FILE), manifest.getBytes(StandardCharsets.UTF_8));
+        System.out.printf("Dataset fingerprint: %08X (see %s)%n", fingerprint, studentsDir.resolve(MANIFEST_FILE));
+    }
+}
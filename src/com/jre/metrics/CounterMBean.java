@@ -0,0 +1,9 @@
+/**
+ * CounterMBean.java
+ * JMX view of a Counter
+ */
+package com.jre.metrics;
+
+public interface CounterMBean {
+    long getCount();
+}
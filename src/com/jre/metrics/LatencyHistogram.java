@@ -0,0 +1,91 @@
+/**
+ * LatencyHistogram.java
+ * Lock-free log-linear histogram of durations in nanoseconds
+ */
+package com.jre.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Buckets follow the HdrHistogram layout: values below 128 have a bucket each, and every
+ * power of two above that is split into 64 equal buckets, so a reported value is within
+ * 1/64 (about 1.6%) of the recorded one over the whole range of a long. Recording is a
+ * few atomic increments and never blocks; readers copy the bucket counts.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BITS = 7;
+    private static final int HALF = 1 << (SUB_BITS - 1);
+    private static final int BUCKETS = (64 - SUB_BITS) * HALF + 2 * HALF;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts.incrementAndGet(bucketOf(nanos));
+        count.increment();
+        sum.add(nanos);
+        long current = max.get();
+        while (nanos > current && !max.compareAndSet(current, nanos)) {
+            current = max.get();
+        }
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /** A copy of the bucket counts; concurrent recordings may or may not be included. */
+    public long[] snapshot() {
+        long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+        }
+        return copy;
+    }
+
+    /** The value at the given percentile (0-100) of a snapshot, as the upper end of its bucket. */
+    public static long valueAt(long[] buckets, double percentile) {
+        long total = 0;
+        for (long bucket : buckets) total += bucket;
+        if (total == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) return highestValueIn(i);
+        }
+        return highestValueIn(buckets.length - 1);
+    }
+
+    static int bucketOf(long value) {
+        int highestBit = 63 - Long.numberOfLeadingZeros(value);
+        if (highestBit < SUB_BITS) {
+            return (int) value;
+        }
+        int shift = highestBit - SUB_BITS + 1;
+        return shift * HALF + (int) (value >>> shift);
+    }
+
+    static long highestValueIn(int bucket) {
+        if (bucket < 2 * HALF) {
+            return bucket;
+        }
+        int shift = bucket / HALF - 1;
+        long top = bucket - (long) shift * HALF;
+        return ((top + 1) << shift) - 1;
+    }
+}
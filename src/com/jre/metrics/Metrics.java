@@ -0,0 +1,87 @@
+/**
+ * Metrics.java
+ * Registry of the application's timers and counters, published as MBeans
+ */
+package com.jre.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Every metric is registered with the platform MBean server under
+ * {@code com.jre:type=Timer|Counter,name=<Class.operation>} when it is first created, so
+ * JConsole, VisualVM or a JMX exporter can read it from a running process. A process
+ * started without remote JMX can have it switched on later with
+ * {@code jcmd <pid> ManagementAgent.start}.
+ *
+ * Start the JVM with -Dcom.jre.metrics=off to skip both recording and registration.
+ */
+public final class Metrics {
+    public static final boolean ENABLED = !"off".equalsIgnoreCase(System.getProperty("com.jre.metrics"));
+
+    private static final ConcurrentHashMap<String, Timer> TIMERS = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, Counter> COUNTERS = new ConcurrentHashMap<>();
+
+    private Metrics() {
+    }
+
+    public static Timer timer(String name) {
+        return TIMERS.computeIfAbsent(name, key -> {
+            Timer timer = new Timer(key);
+            register("Timer", key, timer);
+            return timer;
+        });
+    }
+
+    public static Counter counter(String name) {
+        return COUNTERS.computeIfAbsent(name, key -> {
+            Counter counter = new Counter(key);
+            register("Counter", key, counter);
+            return counter;
+        });
+    }
+
+    /** All timers created so far, by name. */
+    public static List<Timer> timers() {
+        List<Timer> timers = new ArrayList<>(TIMERS.values());
+        timers.sort(Comparator.comparing(Timer::getName));
+        return timers;
+    }
+
+    /** All counters created so far, by name. */
+    public static List<Counter> counters() {
+        List<Counter> counters = new ArrayList<>(COUNTERS.values());
+        counters.sort(Comparator.comparing(Counter::getName));
+        return counters;
+    }
+
+    private static void register(String type, String name, Object mbean) {
+        if (!ENABLED) return;
+        try {
+            ObjectName objectName = new ObjectName("com.jre:type=" + type + ",name=" + name);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(mbean, objectName);
+        } catch (JMException e) {
+            System.err.println("Error registering metric " + name + ": " + e.getMessage());
+        }
+    }
+
+    /** One line per timer with calls, p50/p99 and max, for logs and command-line tools. */
+    public static String summary() {
+        StringBuilder out = new StringBuilder();
+        for (Timer timer : timers()) {
+            if (timer.getCount() == 0) continue;
+            out.append(String.format("%-44s %10d calls  p50 %10.1fus  p99 %10.1fus  max %10.1fus%n",
+                    timer.getName(), timer.getCount(), timer.getP50Micros(), timer.getP99Micros(), timer.getMaxMicros()));
+        }
+        for (Counter counter : counters()) {
+            if (counter.getCount() == 0) continue;
+            out.append(String.format("%-44s %10d%n", counter.getName(), counter.getCount()));
+        }
+        return out.toString();
+    }
+}
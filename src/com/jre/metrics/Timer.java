@@ -0,0 +1,133 @@
+/**
+ * Timer.java
+ * Latency and throughput of one operation
+ */
+package com.jre.metrics;
+
+/**
+ * Usage:
+ * <pre>
+ *     long start = TIMER.start();
+ *     try { ... } finally { TIMER.stop(start); }
+ * </pre>
+ * Both calls do nothing when metrics are switched off with -Dcom.jre.metrics=off.
+ */
+public class Timer implements TimerMBean {
+    static final long RECENT_INTERVAL_NANOS = 60_000_000_000L;
+
+    private final String name;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    // Recent figures are the difference between two snapshots, taken when a reader asks
+    // and the interval has passed, so recording never has to swap or reset anything
+    private long[] checkpoint;
+    private long checkpointTime;
+    private long[] recent;
+    private long recentNanos;
+
+    Timer(String name) {
+        this.name = name;
+        this.checkpoint = histogram.snapshot();
+        this.checkpointTime = System.nanoTime();
+        this.recent = new long[checkpoint.length];
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long start() {
+        return Metrics.ENABLED ? System.nanoTime() : 0;
+    }
+
+    public void stop(long start) {
+        if (Metrics.ENABLED) {
+            histogram.record(System.nanoTime() - start);
+        }
+    }
+
+    public void record(long nanos) {
+        if (Metrics.ENABLED) {
+            histogram.record(nanos);
+        }
+    }
+
+    @Override
+    public long getCount() {
+        return histogram.getCount();
+    }
+
+    @Override
+    public double getMeanMicros() {
+        long count = histogram.getCount();
+        return count == 0 ? 0 : histogram.getSum() / (double) count / 1000.0;
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return histogram.getMax() / 1000.0;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return LatencyHistogram.valueAt(histogram.snapshot(), 50) / 1000.0;
+    }
+
+    @Override
+    public double getP90Micros() {
+        return LatencyHistogram.valueAt(histogram.snapshot(), 90) / 1000.0;
+    }
+
+    @Override
+    public double getP99Micros() {
+        return LatencyHistogram.valueAt(histogram.snapshot(), 99) / 1000.0;
+    }
+
+    @Override
+    public double getP999Micros() {
+        return LatencyHistogram.valueAt(histogram.snapshot(), 99.9) / 1000.0;
+    }
+
+    @Override
+    public synchronized long getRecentCount() {
+        long total = 0;
+        for (long bucket : recentBuckets()) total += bucket;
+        return total;
+    }
+
+    @Override
+    public synchronized double getRecentRatePerSecond() {
+        long total = getRecentCount();
+        return recentNanos == 0 ? 0 : total / (recentNanos / 1_000_000_000.0);
+    }
+
+    @Override
+    public synchronized double getRecentP50Micros() {
+        return LatencyHistogram.valueAt(recentBuckets(), 50) / 1000.0;
+    }
+
+    @Override
+    public synchronized double getRecentP99Micros() {
+        return LatencyHistogram.valueAt(recentBuckets(), 99) / 1000.0;
+    }
+
+    @Override
+    public synchronized double getRecentIntervalSeconds() {
+        recentBuckets();
+        return recentNanos / 1_000_000_000.0;
+    }
+
+    private long[] recentBuckets() {
+        long now = System.nanoTime();
+        if (now - checkpointTime >= RECENT_INTERVAL_NANOS) {
+            long[] current = histogram.snapshot();
+            for (int i = 0; i < current.length; i++) {
+                recent[i] = current[i] - checkpoint[i];
+            }
+            checkpoint = current;
+            recentNanos = now - checkpointTime;
+            checkpointTime = now;
+        }
+        return recent;
+    }
+}
@@ -0,0 +1,35 @@
+/**
+ * TimerMBean.java
+ * JMX view of a Timer
+ */
+package com.jre.metrics;
+
+/**
+ * Lifetime figures cover every call since startup; the Recent ones cover the last
+ * completed interval, which is what a scraper polling once a minute wants to see.
+ */
+public interface TimerMBean {
+    long getCount();
+
+    double getMeanMicros();
+
+    double getMaxMicros();
+
+    double getP50Micros();
+
+    double getP90Micros();
+
+    double getP99Micros();
+
+    double getP999Micros();
+
+    long getRecentCount();
+
+    double getRecentRatePerSecond();
+
+    double getRecentP50Micros();
+
+    double getRecentP99Micros();
+
+    double getRecentIntervalSeconds();
+}
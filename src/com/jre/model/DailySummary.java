@@ -0,0 +1,141 @@
+/**
+ * DailySummary.java
+ * Aggregated mood and stress statistics for one calendar day
+ */
+package com.jre.model;
+
+import java.time.LocalDate;
+
+public class DailySummary {
+    private final LocalDate day;
+    private int count;
+    private long moodSum;
+    private long stressSum;
+    private int minMood = Integer.MAX_VALUE;
+    private int maxMood = Integer.MIN_VALUE;
+    private int minStress = Integer.MAX_VALUE;
+    private int maxStress = Integer.MIN_VALUE;
+    // Index 0 holds level 1, index 9 holds level 10
+    private final int[] moodHistogram = new int[10];
+    private final int[] stressHistogram = new int[10];
+
+    public DailySummary(LocalDate day) {
+        this.day = day;
+    }
+
+    /** Rebuilds a summary from its level histograms (index 0 = level 1), e.g. when reading a snapshot. */
+    public static DailySummary fromHistograms(LocalDate day, int[] moodHistogram, int[] stressHistogram) {
+        DailySummary summary = new DailySummary(day);
+        for (int i = 0; i < 10; i++) {
+            int level = i + 1;
+            if (moodHistogram[i] > 0) {
+                summary.moodHistogram[i] = moodHistogram[i];
+                summary.count += moodHistogram[i];
+                summary.moodSum += (long) level * moodHistogram[i];
+                summary.minMood = Math.min(summary.minMood, level);
+                summary.maxMood = Math.max(summary.maxMood, level);
+            }
+            if (stressHistogram[i] > 0) {
+                summary.stressHistogram[i] = stressHistogram[i];
+                summary.stressSum += (long) level * stressHistogram[i];
+                summary.minStress = Math.min(summary.minStress, level);
+                summary.maxStress = Math.max(summary.maxStress, level);
+            }
+        }
+        return summary;
+    }
+
+    public void add(int moodLevel, int stressLevel) {
+        count++;
+        moodSum += moodLevel;
+        stressSum += stressLevel;
+        minMood = Math.min(minMood, moodLevel);
+        maxMood = Math.max(maxMood, moodLevel);
+        minStress = Math.min(minStress, stressLevel);
+        maxStress = Math.max(maxStress, stressLevel);
+        moodHistogram[moodLevel - 1]++;
+        stressHistogram[stressLevel - 1]++;
+    }
+
+    public void add(MoodLog log) {
+        add(log.getMoodLevel(), log.getStressLevel());
+    }
+
+    public void merge(DailySummary other) {
+        if (other.count == 0) return;
+        count += other.count;
+        moodSum += other.moodSum;
+        stressSum += other.stressSum;
+        minMood = Math.min(minMood, other.minMood);
+        maxMood = Math.max(maxMood, other.maxMood);
+        minStress = Math.min(minStress, other.minStress);
+        maxStress = Math.max(maxStress, other.maxStress);
+        for (int i = 0; i < 10; i++) {
+            moodHistogram[i] += other.moodHistogram[i];
+            stressHistogram[i] += other.stressHistogram[i];
+        }
+    }
+
+    // Getters
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getMoodSum() {
+        return moodSum;
+    }
+
+    public long getStressSum() {
+        return stressSum;
+    }
+
+    public double getAverageMood() {
+        return count == 0 ? 0.0 : (double) moodSum / count;
+    }
+
+    public double getAverageStress() {
+        return count == 0 ? 0.0 : (double) stressSum / count;
+    }
+
+    public int getMinMood() {
+        return count == 0 ? 0 : minMood;
+    }
+
+    public int getMaxMood() {
+        return count == 0 ? 0 : maxMood;
+    }
+
+    public int getMinStress() {
+        return count == 0 ? 0 : minStress;
+    }
+
+    public int getMaxStress() {
+        return count == 0 ? 0 : maxStress;
+    }
+
+    public int[] getMoodHistogram() {
+        return moodHistogram.clone();
+    }
+
+    public int[] getStressHistogram() {
+        return stressHistogram.clone();
+    }
+
+    public int getMoodCount(int level) {
+        return moodHistogram[level - 1];
+    }
+
+    public int getStressCount(int level) {
+        return stressHistogram[level - 1];
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DailySummary{Day=%s, Count=%d, AvgMood=%.2f, AvgStress=%.2f}",
+                day, count, getAverageMood(), getAverageStress());
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * DailyWorkload.java
+ * Stress and mood next to the open study task load for one calendar day
+ */
+package com.jre.model;
+
+import java.time.LocalDate;
+
+public class DailyWorkload {
+    private final LocalDate day;
+    private final int moodEntries;
+    private final long moodSum;
+    private final long stressSum;
+    private final int openTasks;
+    private final long openEffortMinutes;
+    private final int dueTasks;
+    private final int completedTasks;
+
+    /**
+     * Open tasks and their effort are counted at the end of the day: logged on or before it
+     * and not completed by then. Due tasks are those open tasks whose deadline falls on the day.
+     */
+    public DailyWorkload(LocalDate day, int moodEntries, long moodSum, long stressSum,
+                         int openTasks, long openEffortMinutes, int dueTasks, int completedTasks) {
+        this.day = day;
+        this.moodEntries = moodEntries;
+        this.moodSum = moodSum;
+        this.stressSum = stressSum;
+        this.openTasks = openTasks;
+        this.openEffortMinutes = openEffortMinutes;
+        this.dueTasks = dueTasks;
+        this.completedTasks = completedTasks;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public int getMoodEntries() {
+        return moodEntries;
+    }
+
+    public double getAverageMood() {
+        return moodEntries == 0 ? 0.0 : (double) moodSum / moodEntries;
+    }
+
+    public double getAverageStress() {
+        return moodEntries == 0 ? 0.0 : (double) stressSum / moodEntries;
+    }
+
+    public int getOpenTasks() {
+        return openTasks;
+    }
+
+    public long getOpenEffortMinutes() {
+        return openEffortMinutes;
+    }
+
+    public int getDueTasks() {
+        return dueTasks;
+    }
+
+    public int getCompletedTasks() {
+        return completedTasks;
+    }
+}
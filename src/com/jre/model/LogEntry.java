@@ -7,8 +7,11 @@ package com.jre.model;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.UUID;
+import java.util.regex.Pattern;
 
 public abstract class LogEntry {
+    private static final Pattern ENTRY_ID = Pattern.compile("[0-9A-F]{8}");
+
     protected String entryId;
     protected LocalDateTime date;
     protected String notes;
@@ -29,6 +32,11 @@ public abstract class LogEntry {
         return UUID.randomUUID().toString().substring(0, 8).toUpperCase();
     }
 
+    /** True for IDs in the form generated for new entries: eight upper-case hex digits. */
+    public static boolean isValidEntryId(String entryId) {
+        return entryId != null && ENTRY_ID.matcher(entryId).matches();
+    }
+
     // Getters
     public String getEntryId() {
         return entryId;
@@ -48,15 +56,76 @@ public abstract class LogEntry {
     }
 
     protected String formatDate() {
+        // Fast path for whole seconds in years 0-9999, matching ISO_LOCAL_DATE_TIME output
+        if (date.getNano() == 0 && date.getYear() >= 0 && date.getYear() <= 9999) {
+            char[] out = new char[19];
+            pad(out, 0, date.getYear(), 4);
+            out[4] = '-';
+            pad(out, 5, date.getMonthValue(), 2);
+            out[7] = '-';
+            pad(out, 8, date.getDayOfMonth(), 2);
+            out[10] = 'T';
+            pad(out, 11, date.getHour(), 2);
+            out[13] = ':';
+            pad(out, 14, date.getMinute(), 2);
+            out[16] = ':';
+            pad(out, 17, date.getSecond(), 2);
+            return new String(out);
+        }
         DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
         return date.format(formatter);
     }
 
-    protected static LocalDateTime parseDate(String dateStr) {
+    private static void pad(char[] out, int at, int value, int width) {
+        for (int i = at + width - 1; i >= at; i--) {
+            out[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    public static LocalDateTime parseDate(String dateStr) {
+        // Fast path for the plain "yyyy-MM-ddTHH:mm:ss" form written by formatDate()
+        if (dateStr.length() == 19 && dateStr.charAt(4) == '-' && dateStr.charAt(7) == '-'
+                && dateStr.charAt(10) == 'T' && dateStr.charAt(13) == ':' && dateStr.charAt(16) == ':') {
+            int year = digits(dateStr, 0, 4);
+            int month = digits(dateStr, 5, 7);
+            int day = digits(dateStr, 8, 10);
+            int hour = digits(dateStr, 11, 13);
+            int minute = digits(dateStr, 14, 16);
+            int second = digits(dateStr, 17, 19);
+            if (year >= 0 && month >= 0 && day >= 0 && hour >= 0 && minute >= 0 && second >= 0) {
+                return LocalDateTime.of(year, month, day, hour, minute, second);
+            }
+        }
         DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
         return LocalDateTime.parse(dateStr, formatter);
     }
 
+    private static int digits(String s, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int d = s.charAt(i) - '0';
+            if (d < 0 || d > 9) return -1;
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    /** Parses a stored line of any entry type, chosen by the type tag after the entry ID. */
+    public static LogEntry fromFileString(String line) {
+        int first = line.indexOf('|');
+        int second = first < 0 ? -1 : line.indexOf('|', first + 1);
+        if (second < 0) {
+            throw new IllegalArgumentException("Invalid log entry format");
+        }
+        String type = line.substring(first + 1, second);
+        switch (type) {
+            case "MOOD": return MoodLog.fromFileString(line);
+            case "TASK": return Task.fromFileString(line);
+            default: throw new IllegalArgumentException("Unknown log entry type: " + type);
+        }
+    }
+
     // Abstract methods to be implemented by subclasses
     public abstract String toFileString();
     public abstract String getLogType();
@@ -49,8 +49,7 @@ public class MoodLog extends LogEntry {
     @Override
     public String toFileString() {
         String safeNotes = notes.replace("|", "&#124;").replace("\n", "\\n");
-        return String.format("%s|MOOD|%s|%d|%d|%s",
-                entryId, formatDate(), moodLevel, stressLevel, safeNotes);
+        return entryId + "|MOOD|" + formatDate() + "|" + moodLevel + "|" + stressLevel + "|" + safeNotes;
     }
 
     @Override
@@ -59,16 +58,28 @@ public class MoodLog extends LogEntry {
     }
 
     public static MoodLog fromFileString(String line) {
-        String[] parts = line.split("\\|", 6);
-        if (parts.length != 6 || !parts[1].equals("MOOD")) {
+        // Same fields as line.split("\\|", 6), located with indexOf to avoid the array and regex
+        int[] ends = new int[5];
+        int from = 0;
+        for (int i = 0; i < 5; i++) {
+            ends[i] = line.indexOf('|', from);
+            if (ends[i] < 0) {
+                throw new IllegalArgumentException("Invalid mood log format");
+            }
+            from = ends[i] + 1;
+        }
+        if (!line.startsWith("MOOD", ends[0] + 1) || ends[1] != ends[0] + 5) {
             throw new IllegalArgumentException("Invalid mood log format");
         }
-        String notes = parts[5].replace("&#124;", "|").replace("\\n", "\n");
+        String notes = line.substring(ends[4] + 1);
+        if (notes.indexOf('&') >= 0 || notes.indexOf('\\') >= 0) {
+            notes = notes.replace("&#124;", "|").replace("\\n", "\n");
+        }
         return new MoodLog(
-                parts[0],
-                parseDate(parts[2]),
-                Integer.parseInt(parts[3]),
-                Integer.parseInt(parts[4]),
+                line.substring(0, ends[0]),
+                parseDate(line.substring(ends[1] + 1, ends[2])),
+                Integer.parseInt(line, ends[2] + 1, ends[3], 10),
+                Integer.parseInt(line, ends[3] + 1, ends[4], 10),
                 notes
         );
     }
@@ -0,0 +1,127 @@
+/**
+ * Task.java
+ * Represents a study task with a deadline, an effort estimate and its completion
+ */
+package com.jre.model;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+public class Task extends LogEntry {
+    private String title;
+    private LocalDateTime deadline;
+    private int estimatedMinutes;
+    private LocalDateTime completedAt;
+
+    public Task(LocalDateTime date, String title, LocalDateTime deadline, int estimatedMinutes, String notes) {
+        super(date, notes);
+        setTitle(title);
+        setDeadline(deadline);
+        setEstimatedMinutes(estimatedMinutes);
+    }
+
+    public Task(String entryId, LocalDateTime date, String title, LocalDateTime deadline, int estimatedMinutes,
+                LocalDateTime completedAt, String notes) {
+        super(entryId, date, notes);
+        setTitle(title);
+        setDeadline(deadline);
+        setEstimatedMinutes(estimatedMinutes);
+        setCompletedAt(completedAt);
+    }
+
+    // Getters
+    public String getTitle() {
+        return title;
+    }
+
+    public LocalDateTime getDeadline() {
+        return deadline;
+    }
+
+    public int getEstimatedMinutes() {
+        return estimatedMinutes;
+    }
+
+    /** When the task was finished, or null while it is open. */
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public boolean isCompleted() {
+        return completedAt != null;
+    }
+
+    // Setters with validation
+    public void setTitle(String title) {
+        if (title == null || title.trim().isEmpty()) {
+            throw new IllegalArgumentException("Task title must not be empty");
+        }
+        this.title = title.trim();
+    }
+
+    public void setDeadline(LocalDateTime deadline) {
+        if (deadline == null) {
+            throw new IllegalArgumentException("Task deadline is required");
+        }
+        this.deadline = deadline;
+    }
+
+    public void setEstimatedMinutes(int estimatedMinutes) {
+        if (estimatedMinutes < 0 || estimatedMinutes > 100_000) {
+            throw new IllegalArgumentException("Estimated effort must be between 0 and 100000 minutes");
+        }
+        this.estimatedMinutes = estimatedMinutes;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        if (completedAt != null && completedAt.isBefore(date)) {
+            throw new IllegalArgumentException("A task cannot be completed before it was logged");
+        }
+        this.completedAt = completedAt;
+    }
+
+    @Override
+    public String toFileString() {
+        return entryId + "|TASK|" + formatDate() + "|" + escape(title) + "|" + format(deadline) + "|"
+                + estimatedMinutes + "|" + (completedAt == null ? "" : format(completedAt)) + "|" + escape(notes);
+    }
+
+    @Override
+    public String getLogType() {
+        return "TASK";
+    }
+
+    private static String escape(String text) {
+        return text.replace("|", "&#124;").replace("\n", "\\n");
+    }
+
+    private static String unescape(String text) {
+        return text.replace("&#124;", "|").replace("\\n", "\n");
+    }
+
+    private static String format(LocalDateTime dateTime) {
+        return dateTime.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    }
+
+    public static Task fromFileString(String line) {
+        String[] parts = line.split("\\|", 8);
+        if (parts.length != 8 || !parts[1].equals("TASK")) {
+            throw new IllegalArgumentException("Invalid task format");
+        }
+        return new Task(
+                parts[0],
+                parseDate(parts[2]),
+                unescape(parts[3]),
+                parseDate(parts[4]),
+                Integer.parseInt(parts[5]),
+                parts[6].isEmpty() ? null : parseDate(parts[6]),
+                unescape(parts[7])
+        );
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Task{ID='%s', Date=%s, Title='%s', Deadline=%s, Effort=%dmin, Completed=%s, Notes='%s'}",
+                entryId, date, title, deadline, estimatedMinutes, completedAt, notes);
+    }
+}
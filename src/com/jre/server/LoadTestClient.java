@@ -0,0 +1,192 @@
+/**
+ * LoadTestClient.java
+ * Closed-loop load generator for MoodServer reporting throughput and latency percentiles
+ */
+package com.jre.server;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Each worker sends one request at a time and records its latency; the shared HttpClient
+ * keeps HTTP/1.1 connections alive, so after warmup no connection setup is measured.
+ *
+ * Usage: java -cp bin com.jre.server.LoadTestClient [--url http://localhost:8080]
+ *        [--mode append|stats|burnout|mixed] [--connections 16] [--seconds 20] [--warmup 5]
+ *        [--batch 1] [--students 100]
+ *
+ * In mixed mode one request in five is an append and the rest are reads.
+ */
+public class LoadTestClient {
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final String mode;
+    private final int batch;
+    private final int students;
+
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong logsSent = new AtomicLong();
+
+    public LoadTestClient(String baseUrl, String mode, int batch, int students, ExecutorService httpExecutor) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(httpExecutor)
+                .build();
+        this.baseUrl = baseUrl;
+        this.mode = mode;
+        this.batch = batch;
+        this.students = students;
+    }
+
+    /** Latencies (nanoseconds) recorded by one worker. */
+    private static class Recorder {
+        long[] latencies = new long[1 << 16];
+        int count;
+
+        void record(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+    }
+
+    private HttpRequest nextRequest(Random random) {
+        String studentId = "load-" + random.nextInt(students);
+        String kind = mode;
+        if (mode.equals("mixed")) {
+            int pick = random.nextInt(5);
+            kind = pick == 0 ? "append" : pick < 3 ? "stats" : "burnout";
+        }
+
+        if (kind.equals("append")) {
+            StringBuilder body = new StringBuilder(batch * 48);
+            LocalDateTime now = LocalDateTime.now().withNano(0);
+            for (int i = 0; i < batch; i++) {
+                body.append(now.minusMinutes(random.nextInt(60 * 24 * 30)).format(DATE_FORMAT)).append('|')
+                        .append(1 + random.nextInt(10)).append('|')
+                        .append(1 + random.nextInt(10)).append("|load test\n");
+            }
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/students/" + studentId + "/logs"))
+                    .header("Content-Type", "text/plain; charset=utf-8")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                    .build();
+        }
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/students/" + studentId + "/" + kind)).GET().build();
+    }
+
+    // Appends add 'batch' logs per request, reads none
+    private boolean isAppend(HttpRequest request) {
+        return request.method().equals("POST");
+    }
+
+    /** Runs the workers until the deadline; latencies are recorded only after the warmup. */
+    private void runWorker(Recorder recorder, long warmupEnd, long end, long seed) {
+        Random random = new Random(seed);
+        while (true) {
+            long start = System.nanoTime();
+            if (start >= end) return;
+            HttpRequest request = nextRequest(random);
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                long elapsed = System.nanoTime() - start;
+                // 404 is expected for reads of students nothing was appended to yet
+                if (response.statusCode() >= 500 || response.statusCode() == 400) {
+                    errors.incrementAndGet();
+                } else if (start >= warmupEnd) {
+                    recorder.record(elapsed);
+                    if (isAppend(request)) logsSent.addAndGet(batch);
+                }
+            } catch (Exception e) {
+                errors.incrementAndGet();
+                if (e instanceof InterruptedException) return;
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = "http://localhost:8080";
+        String mode = "mixed";
+        int connections = 16;
+        int seconds = 20;
+        int warmup = 5;
+        int batch = 1;
+        int students = 100;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--url": url = args[++i]; break;
+                case "--mode": mode = args[++i]; break;
+                case "--connections": connections = Integer.parseInt(args[++i]); break;
+                case "--seconds": seconds = Integer.parseInt(args[++i]); break;
+                case "--warmup": warmup = Integer.parseInt(args[++i]); break;
+                case "--batch": batch = Integer.parseInt(args[++i]); break;
+                case "--students": students = Integer.parseInt(args[++i]); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (!Arrays.asList("append", "stats", "burnout", "mixed").contains(mode)) {
+            throw new IllegalArgumentException("Unknown mode: " + mode);
+        }
+
+        ExecutorService httpExecutor = Executors.newFixedThreadPool(Math.max(2, connections / 4));
+        ExecutorService workers = Executors.newFixedThreadPool(connections);
+        LoadTestClient loadTest = new LoadTestClient(url, mode, batch, students, httpExecutor);
+
+        System.out.printf("Load test: %s mode, %d connection(s), %ds warmup + %ds measured, batch %d%n",
+                mode, connections, warmup, seconds, batch);
+        long now = System.nanoTime();
+        long warmupEnd = now + TimeUnit.SECONDS.toNanos(warmup);
+        long end = warmupEnd + TimeUnit.SECONDS.toNanos(seconds);
+        List<Recorder> recorders = new ArrayList<>();
+        for (int i = 0; i < connections; i++) {
+            Recorder recorder = new Recorder();
+            recorders.add(recorder);
+            long seed = i;
+            workers.submit(() -> loadTest.runWorker(recorder, warmupEnd, end, seed));
+        }
+        workers.shutdown();
+        workers.awaitTermination(warmup + seconds + 60, TimeUnit.SECONDS);
+        httpExecutor.shutdown();
+
+        int total = 0;
+        for (Recorder recorder : recorders) total += recorder.count;
+        long[] all = new long[total];
+        int at = 0;
+        for (Recorder recorder : recorders) {
+            System.arraycopy(recorder.latencies, 0, all, at, recorder.count);
+            at += recorder.count;
+        }
+        Arrays.sort(all);
+
+        System.out.printf("Requests: %d (%.0f req/s), errors: %d, logs appended: %d (%.0f logs/s)%n",
+                total, total / (double) seconds, loadTest.errors.get(),
+                loadTest.logsSent.get(), loadTest.logsSent.get() / (double) seconds);
+        if (total > 0) {
+            System.out.printf("Latency ms: p50 %.2f  p90 %.2f  p99 %.2f  p99.9 %.2f  max %.2f%n",
+                    percentile(all, 50), percentile(all, 90), percentile(all, 99),
+                    percentile(all, 99.9), all[total - 1] / 1_000_000.0);
+        }
+    }
+
+    private static double percentile(long[] sorted, double percent) {
+        int index = (int) Math.ceil(percent / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+    }
+}
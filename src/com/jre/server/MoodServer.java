@@ -0,0 +1,515 @@
+/**
+ * MoodServer.java
+ * Embedded HTTP service for submitting and querying mood logs
+ */
+package com.jre.server;
+
+import com.jre.model.DailySummary;
+import com.jre.model.DailyWorkload;
+import com.jre.model.LogEntry;
+import com.jre.model.MoodLog;
+import com.jre.model.Task;
+import com.jre.service.BurnoutRuleSet;
+import com.jre.service.EntryStore;
+import com.jre.service.RetentionPolicy;
+import com.jre.util.FileHandler;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Endpoints (responses are JSON):
+ * <pre>
+ *   POST /students/{id}/logs      body: one log per line, "date|mood|stress|notes"
+ *                                 (date in ISO format or empty for now; write newlines in notes as \n)
+ *   GET  /students/{id}/stats     ?from=yyyy-MM-dd&amp;to=yyyy-MM-dd (defaults to the last 7 days)
+ *   GET  /students/{id}/burnout
+ *   POST /students/{id}/tasks     body: one task per line, "id|date|title|deadline|minutes|completed|notes"
+ *                                 (id empty for a new task, or an existing ID to store a new version;
+ *                                 completed empty while open; deadline may be a plain yyyy-MM-dd)
+ *   GET  /students/{id}/workload  ?from=yyyy-MM-dd&amp;to=yyyy-MM-dd, stress and open tasks per day
+ *   GET  /health
+ * </pre>
+ * A batch is validated line by line; valid lines are stored with one write and the
+ * response lists the rejected line numbers (the status is 400 only if every line was
+ * rejected). Responses always carry a content length and request bodies are read to the
+ * end, so HTTP/1.1 connections stay open between requests.
+ *
+ * Handlers run on a bounded pool. When its queue is full, student requests are answered
+ * with 503 and Retry-After by a single overflow thread, so the accepting thread keeps
+ * accepting; if that thread falls behind too, new connections are closed.
+ *
+ * Loaded students are cached up to --cache-mb of estimated heap (a quarter of the maximum
+ * heap by default); the least valuable students are evicted and reloaded on their next request.
+ * Old history of loaded students is condensed under the policy in data/retention.txt.
+ *
+ * Usage: java -cp bin com.jre.server.MoodServer [--port 8080] [--students-dir data/students]
+ *        [--threads n] [--queue n] [--cache-mb n]
+ */
+public class MoodServer {
+    static {
+        // Headers and body go out as separate writes; with Nagle on, every response waits
+        // for the client's delayed ACK (about 40 ms). Must be set before the first server starts.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private static final int MAX_WORKLOAD_DAYS = 3660;
+    // Turning a request away is cheap, so the overflow thread can take a deep queue
+    private static final int OVERFLOW_QUEUE = 4096;
+
+    // Set on the overflow thread, which turns away requests the worker pool had no room for
+    private static final ThreadLocal<Boolean> OVERLOADED = ThreadLocal.withInitial(() -> false);
+
+    private final HttpServer server;
+    private final ThreadPoolExecutor executor;
+    private final ThreadPoolExecutor overflow;
+    private final StudentRegistry registry;
+    private final AtomicLong overloadRejections = new AtomicLong();
+
+    public MoodServer(int port, StudentRegistry registry, int threads, int queueSize) throws IOException {
+        this.registry = registry;
+        this.server = HttpServer.create(new InetSocketAddress(port), 1024);
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize), new ThreadPoolExecutor.AbortPolicy());
+        this.overflow = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(OVERFLOW_QUEUE), runnable -> {
+                    Thread thread = new Thread(() -> {
+                        OVERLOADED.set(true);
+                        runnable.run();
+                    }, "mood-server-overflow");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        // A task rejected by both pools makes the server close that connection
+        server.setExecutor(task -> {
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                overflow.execute(task);
+            }
+        });
+        server.createContext("/students/", this::handleStudent);
+        server.createContext("/health", exchange -> {
+            drain(exchange);
+            TenantCache<StudentRegistry.Student> cache = registry.getCache();
+            send(exchange, 200, "{\"status\":\"ok\",\"loadedStudents\":" + registry.getLoadedCount()
+                    + ",\"cache\":{\"weight\":" + cache.getWeight()
+                    + ",\"maxWeight\":" + cache.getMaximumWeight()
+                    + ",\"hits\":" + cache.getHits()
+                    + ",\"misses\":" + cache.getMisses()
+                    + ",\"hitRate\":" + round(cache.getHitRate())
+                    + ",\"avgLoadMillis\":" + round(cache.getAverageLoadMillis())
+                    + ",\"loadFailures\":" + cache.getLoadFailures()
+                    + ",\"evictions\":" + cache.getEvictions() + "}"
+                    + ",\"overloadRejections\":" + overloadRejections.get() + "}");
+        });
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+        overflow.shutdown();
+        registry.stopRetention();
+        registry.writeSnapshots();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // ==================== ROUTING ====================
+
+    private void handleStudent(HttpExchange exchange) throws IOException {
+        try {
+            if (OVERLOADED.get()) {
+                // The body is left unread; closing the exchange drains a small one or drops the connection
+                overloadRejections.incrementAndGet();
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                sendError(exchange, 503, "Server busy, retry later");
+                return;
+            }
+            String[] path = exchange.getRequestURI().getPath().split("/");
+            // "", "students", id, resource
+            if (path.length != 4 || !StudentRegistry.isValidStudentId(path[2])) {
+                drain(exchange);
+                sendError(exchange, 404, "Unknown path");
+                return;
+            }
+            String studentId = path[2];
+            String method = exchange.getRequestMethod();
+
+            switch (path[3]) {
+                case "logs":
+                    if (!method.equals("POST")) {
+                        drain(exchange);
+                        sendError(exchange, 405, "Use POST to add logs");
+                        return;
+                    }
+                    handleAppend(exchange, studentId);
+                    break;
+                case "tasks":
+                    if (!method.equals("POST")) {
+                        drain(exchange);
+                        sendError(exchange, 405, "Use POST to add tasks");
+                        return;
+                    }
+                    handleTasks(exchange, studentId);
+                    break;
+                case "stats":
+                case "burnout":
+                case "workload":
+                    drain(exchange);
+                    if (!method.equals("GET")) {
+                        sendError(exchange, 405, "Use GET");
+                        return;
+                    }
+                    StudentRegistry.Student student = registry.get(studentId, false);
+                    if (student == null) {
+                        sendError(exchange, 404, "Unknown student " + studentId);
+                    } else if (path[3].equals("stats")) {
+                        handleStats(exchange, student);
+                    } else if (path[3].equals("workload")) {
+                        handleWorkload(exchange, student);
+                    } else {
+                        handleBurnout(exchange, student);
+                    }
+                    break;
+                default:
+                    drain(exchange);
+                    sendError(exchange, 404, "Unknown path");
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Error handling " + exchange.getRequestURI() + ": " + e);
+            sendError(exchange, 500, "Internal error");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // ==================== HANDLERS ====================
+
+    private void handleAppend(HttpExchange exchange, String studentId) throws IOException {
+        StringBuilder rejected = new StringBuilder();
+        LocalDateTime now = LocalDateTime.now();
+        List<MoodLog> logs = parseBody(exchange, line -> parseLine(line, now), rejected);
+
+        if (!logs.isEmpty()) {
+            if (!registry.append(studentId, logs)) {
+                sendError(exchange, 500, "Could not store mood logs");
+                return;
+            }
+        }
+        send(exchange, logs.isEmpty() && rejected.length() > 0 ? 400 : 200,
+                "{\"accepted\":" + logs.size() + ",\"rejected\":[" + rejected + "]}");
+    }
+
+    private void handleTasks(HttpExchange exchange, String studentId) throws IOException {
+        StringBuilder rejected = new StringBuilder();
+        LocalDateTime now = LocalDateTime.now();
+        List<Task> tasks = parseBody(exchange, line -> parseTaskLine(line, now), rejected);
+
+        if (!tasks.isEmpty()) {
+            if (!registry.appendTasks(studentId, tasks)) {
+                sendError(exchange, 500, "Could not store tasks");
+                return;
+            }
+        }
+        StringBuilder json = new StringBuilder(64 + tasks.size() * 12);
+        json.append("{\"accepted\":").append(tasks.size()).append(",\"ids\":[");
+        for (int i = 0; i < tasks.size(); i++) {
+            if (i > 0) json.append(',');
+            appendJsonString(json, tasks.get(i).getEntryId());
+        }
+        json.append("],\"rejected\":[").append(rejected).append("]}");
+        send(exchange, tasks.isEmpty() && rejected.length() > 0 ? 400 : 200, json.toString());
+    }
+
+    // Parses every non-empty line of the body; lines that fail are described in rejected as JSON objects
+    private static <T> List<T> parseBody(HttpExchange exchange, Function<String, T> parser, StringBuilder rejected)
+            throws IOException {
+        List<T> parsed = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.trim().isEmpty()) continue;
+                try {
+                    parsed.add(parser.apply(line));
+                } catch (DateTimeException | IllegalArgumentException e) {
+                    if (rejected.length() > 0) rejected.append(',');
+                    rejected.append("{\"line\":").append(lineNumber).append(",\"error\":");
+                    appendJsonString(rejected, e.getMessage());
+                    rejected.append('}');
+                }
+            }
+        }
+        return parsed;
+    }
+
+    // "date|mood|stress|notes"; notes run to the end of the line and may contain '|'
+    static MoodLog parseLine(String line, LocalDateTime now) {
+        int first = line.indexOf('|');
+        int second = first < 0 ? -1 : line.indexOf('|', first + 1);
+        int third = second < 0 ? -1 : line.indexOf('|', second + 1);
+        if (third < 0) {
+            throw new IllegalArgumentException("Expected date|mood|stress|notes");
+        }
+        String dateText = line.substring(0, first).trim();
+        LocalDateTime date = dateText.isEmpty() ? now : MoodLog.parseDate(dateText);
+        int mood = Integer.parseInt(line.substring(first + 1, second).trim());
+        int stress = Integer.parseInt(line.substring(second + 1, third).trim());
+        String notes = line.substring(third + 1).replace("\\n", "\n");
+        return new MoodLog(date, mood, stress, notes);
+    }
+
+    // "id|date|title|deadline|minutes|completed|notes"; notes run to the end of the line and may contain '|'
+    static Task parseTaskLine(String line, LocalDateTime now) {
+        String[] parts = line.split("\\|", 7);
+        if (parts.length != 7) {
+            throw new IllegalArgumentException("Expected id|date|title|deadline|minutes|completed|notes");
+        }
+        String id = parts[0].trim();
+        String dateText = parts[1].trim();
+        LocalDateTime date = dateText.isEmpty() ? now : Task.parseDate(dateText);
+        String deadlineText = parts[3].trim();
+        // A plain date means the end of that day
+        LocalDateTime deadline = deadlineText.length() == 10
+                ? LocalDate.parse(deadlineText).atTime(23, 59, 59) : Task.parseDate(deadlineText);
+        int minutes = Integer.parseInt(parts[4].trim());
+        String completedText = parts[5].trim();
+        LocalDateTime completed = completedText.isEmpty() ? null : Task.parseDate(completedText);
+        String notes = parts[6].replace("\\n", "\n");
+        if (id.isEmpty()) {
+            Task task = new Task(date, parts[2], deadline, minutes, notes);
+            task.setCompletedAt(completed);
+            return task;
+        }
+        if (!LogEntry.isValidEntryId(id)) {
+            throw new IllegalArgumentException("Invalid task ID (expected 8 hex digits): " + id);
+        }
+        return new Task(id, date, parts[2], deadline, minutes, completed, notes);
+    }
+
+    private void handleStats(HttpExchange exchange, StudentRegistry.Student student) throws IOException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        LocalDate from;
+        LocalDate to;
+        try {
+            to = query.containsKey("to") ? LocalDate.parse(query.get("to")) : LocalDate.now();
+            from = query.containsKey("from") ? LocalDate.parse(query.get("from")) : to.minusDays(6);
+        } catch (DateTimeException e) {
+            sendError(exchange, 400, "Dates must be yyyy-MM-dd");
+            return;
+        }
+        if (from.isAfter(to)) {
+            sendError(exchange, 400, "'from' must not be after 'to'");
+            return;
+        }
+
+        DailySummary range = student.getTracker().summarizeRange(from, to);
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"studentId\":\"").append(student.getStudentId()).append('"')
+                .append(",\"from\":\"").append(from).append('"')
+                .append(",\"to\":\"").append(to).append('"')
+                .append(",\"entries\":").append(range.getCount())
+                .append(",\"avgMood\":").append(round(range.getAverageMood()))
+                .append(",\"minMood\":").append(range.getMinMood())
+                .append(",\"maxMood\":").append(range.getMaxMood())
+                .append(",\"avgStress\":").append(round(range.getAverageStress()))
+                .append(",\"minStress\":").append(range.getMinStress())
+                .append(",\"maxStress\":").append(range.getMaxStress())
+                .append('}');
+        send(exchange, 200, json.toString());
+    }
+
+    private void handleWorkload(HttpExchange exchange, StudentRegistry.Student student) throws IOException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        LocalDate from;
+        LocalDate to;
+        try {
+            to = query.containsKey("to") ? LocalDate.parse(query.get("to")) : LocalDate.now();
+            from = query.containsKey("from") ? LocalDate.parse(query.get("from")) : to.minusDays(6);
+        } catch (DateTimeException e) {
+            sendError(exchange, 400, "Dates must be yyyy-MM-dd");
+            return;
+        }
+        if (from.isAfter(to)) {
+            sendError(exchange, 400, "'from' must not be after 'to'");
+            return;
+        }
+        if (to.toEpochDay() - from.toEpochDay() >= MAX_WORKLOAD_DAYS) {
+            sendError(exchange, 400, "At most " + MAX_WORKLOAD_DAYS + " days per request");
+            return;
+        }
+
+        List<DailyWorkload> days = student.getEntries().dailyWorkload(from, to);
+        double correlation = EntryStore.stressLoadCorrelation(days);
+        StringBuilder json = new StringBuilder(128 + days.size() * 160);
+        json.append("{\"studentId\":\"").append(student.getStudentId()).append('"')
+                .append(",\"from\":\"").append(from).append('"')
+                .append(",\"to\":\"").append(to).append('"')
+                .append(",\"stressLoadCorrelation\":").append(Double.isNaN(correlation) ? "null" : String.valueOf(round(correlation)))
+                .append(",\"days\":[");
+        for (int i = 0; i < days.size(); i++) {
+            DailyWorkload day = days.get(i);
+            if (i > 0) json.append(',');
+            json.append("{\"day\":\"").append(day.getDay()).append('"')
+                    .append(",\"moodEntries\":").append(day.getMoodEntries())
+                    .append(",\"avgMood\":").append(round(day.getAverageMood()))
+                    .append(",\"avgStress\":").append(round(day.getAverageStress()))
+                    .append(",\"openTasks\":").append(day.getOpenTasks())
+                    .append(",\"openEffortMinutes\":").append(day.getOpenEffortMinutes())
+                    .append(",\"dueTasks\":").append(day.getDueTasks())
+                    .append(",\"completedTasks\":").append(day.getCompletedTasks())
+                    .append('}');
+        }
+        send(exchange, 200, json.append("]}").toString());
+    }
+
+    private void handleBurnout(HttpExchange exchange, StudentRegistry.Student student) throws IOException {
+        StudentRegistry.BurnoutStatus status = student.getBurnoutStatus();
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"studentId\":\"").append(student.getStudentId()).append('"')
+                .append(",\"score\":").append(status.getScore())
+                .append(",\"maxScore\":").append(student.getAnalyzer().getRules().getMaxScore())
+                .append(",\"risk\":\"").append(status.getRisk()).append('"')
+                .append(",\"highStress\":").append(status.isHighStress())
+                .append(",\"moodDecline\":").append(status.isMoodDecline())
+                .append('}');
+        send(exchange, 200, json.toString());
+    }
+
+    // ==================== HTTP HELPERS ====================
+
+    private static void drain(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            body.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        StringBuilder json = new StringBuilder("{\"error\":");
+        appendJsonString(json, message);
+        send(exchange, status, json.append('}').toString());
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null) return params;
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private static void appendJsonString(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append(String.format("\\u%04x", (int) c));
+            } else {
+                out.append(c);
+            }
+        }
+        out.append('"');
+    }
+
+    // Null when retention.txt is unreadable or invalid: condensing deletes data, so nothing runs then
+    private static RetentionPolicy loadRetentionPolicy() {
+        List<String> lines = new FileHandler().loadRetentionSettings();
+        if (lines == null) {
+            System.err.println("RETENTION DISABLED: retention settings could not be read.");
+            return null;
+        }
+        if (lines.isEmpty()) {
+            return RetentionPolicy.defaults();
+        }
+        try {
+            return RetentionPolicy.parse(lines);
+        } catch (IllegalArgumentException e) {
+            System.err.println("RETENTION DISABLED: invalid retention settings: " + e.getMessage());
+            return null;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = 8080;
+        String studentsDir = "data/students";
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+        int queueSize = 1024;
+        long cacheBytes = Runtime.getRuntime().maxMemory() / 4;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port": port = Integer.parseInt(args[++i]); break;
+                case "--students-dir": studentsDir = args[++i]; break;
+                case "--threads": threads = Integer.parseInt(args[++i]); break;
+                case "--queue": queueSize = Integer.parseInt(args[++i]); break;
+                case "--cache-mb": cacheBytes = Long.parseLong(args[++i]) * 1024 * 1024; break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        List<String> ruleLines = new FileHandler().loadBurnoutRules();
+        BurnoutRuleSet rules = ruleLines.isEmpty() ? BurnoutRuleSet.defaults() : BurnoutRuleSet.parse(ruleLines);
+        RetentionPolicy retention = loadRetentionPolicy();
+        StudentRegistry registry = new StudentRegistry(studentsDir, rules, cacheBytes);
+        if (retention != null) {
+            registry.startRetention(retention);
+        }
+        MoodServer moodServer = new MoodServer(port, registry, threads, queueSize);
+        Runtime.getRuntime().addShutdownHook(new Thread(moodServer::stop));
+        moodServer.start();
+        System.out.println("Mood server listening on port " + moodServer.getPort() + " (" + threads
+                + " worker threads, students in " + studentsDir + ", " + cacheBytes / (1024 * 1024) + " MB student cache)");
+    }
+}
@@ -0,0 +1,378 @@
+/**
+ * StudentRegistry.java
+ * Loads and holds the mood history of each student served by the HTTP service
+ */
+package com.jre.server;
+
+import com.jre.model.MoodLog;
+import com.jre.model.Task;
+import com.jre.service.BurnoutAnalyzer;
+import com.jre.service.BurnoutRuleSet;
+import com.jre.service.EntryStore;
+import com.jre.service.MoodTracker;
+import com.jre.service.RetentionPolicy;
+import com.jre.util.ArchiveStore;
+import com.jre.util.FileHandler;
+import com.jre.util.SnapshotStore;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Each student lives in {@code <studentsDir>/<studentId>/}, the same layout the batch jobs
+ * read. A student's history is loaded on first use (from the snapshot when one is usable)
+ * and kept in a {@link TenantCache} bounded by the estimated heap size of the loaded
+ * students; appends go to the text log first and then to the tracker. Tasks are kept in
+ * log_entries.txt, and every entry of the student is also held in an {@link EntryStore}
+ * for queries across entry types.
+ *
+ * An evicted student writes its snapshot and refuses further appends, which are then
+ * retried against a freshly loaded copy, so no append is lost to an eviction.
+ *
+ * Once {@link #startRetention} is called, loaded students are condensed under the retention
+ * policy every hour, and again after a few seconds while a pass stops at its batch limit.
+ */
+public class StudentRegistry {
+    private static final Pattern STUDENT_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    // Rough heap cost of a loaded student: the objects themselves, each log (object, date,
+    // notes, list slot) and each daily summary (object, TreeMap entry, date)
+    private static final long STUDENT_BYTES = 2048;
+    private static final long LOG_BYTES = 200;
+    private static final long DAY_BYTES = 150;
+    // Per entry in the entry store (index and columns), and per task object
+    private static final long ENTRY_BYTES = 32;
+    private static final long TASK_BYTES = 300;
+
+    private final String studentsDir;
+    private final BurnoutRuleSet rules;
+    private final TenantCache<Student> students;
+    private ScheduledExecutorService retentionScheduler;
+
+    public StudentRegistry(String studentsDir, BurnoutRuleSet rules, long maxCacheBytes) {
+        this.studentsDir = studentsDir;
+        this.rules = rules;
+        this.students = new TenantCache<>("StudentCache", maxCacheBytes, this::load,
+                Student::estimateWeight, (id, student) -> student.evict());
+    }
+
+    public enum AppendResult { STORED, FAILED, EVICTED }
+
+    /** Burnout figures for one tracker version, computed once per minute at most. */
+    public static class BurnoutStatus {
+        private final long version;
+        private final long minute;
+        private final int score;
+        private final String risk;
+        private final boolean highStress;
+        private final boolean moodDecline;
+
+        BurnoutStatus(long version, long minute, int score, String risk, boolean highStress, boolean moodDecline) {
+            this.version = version;
+            this.minute = minute;
+            this.score = score;
+            this.risk = risk;
+            this.highStress = highStress;
+            this.moodDecline = moodDecline;
+        }
+
+        public int getScore() {
+            return score;
+        }
+
+        public String getRisk() {
+            return risk;
+        }
+
+        public boolean isHighStress() {
+            return highStress;
+        }
+
+        public boolean isMoodDecline() {
+            return moodDecline;
+        }
+    }
+
+    public static class Student {
+        private final String studentId;
+        private final FileHandler fileHandler;
+        private final SnapshotStore snapshotStore;
+        private final ArchiveStore archiveStore;
+        private final MoodTracker tracker = new MoodTracker();
+        private final EntryStore entries = new EntryStore();
+        private final BurnoutAnalyzer analyzer;
+        private int appendedSinceSnapshot;
+        private long storedArchiveVersion;
+        private boolean rewritePending;
+        private boolean evicted;
+        private volatile BurnoutStatus burnoutStatus;
+
+        Student(String studentId, FileHandler fileHandler, BurnoutRuleSet rules) {
+            this.studentId = studentId;
+            this.fileHandler = fileHandler;
+            this.snapshotStore = new SnapshotStore(fileHandler);
+            this.archiveStore = new ArchiveStore(fileHandler);
+            this.analyzer = new BurnoutAnalyzer(tracker, rules);
+        }
+
+        void load() {
+            SnapshotStore.Snapshot snapshot = snapshotStore.load();
+            // Only the part after the snapshot can hold a torn append
+            fileHandler.recoverMoodLog(snapshot == null ? 0 : snapshot.getCoveredBytes());
+            if (snapshot != null) {
+                tracker.restore(snapshot.getLogs(), snapshot.getDailySummaries());
+                tracker.addMoodLogs(snapshot.getTailLogs());
+                appendedSinceSnapshot = snapshot.getTailLogs().size();
+            } else {
+                tracker.setMoodLogs(fileHandler.loadMoodLogs());
+                appendedSinceSnapshot = tracker.getTotalLogs();
+            }
+            ArchiveStore.Archive archive = archiveStore.load();
+            if (archive != null) {
+                tracker.restoreArchive(archive.getDays(), archive.getFoldedBefore());
+            }
+            storedArchiveVersion = tracker.getArchiveVersion();
+            entries.addAll(tracker.getMoodLogs());
+            fileHandler.recoverEntries();
+            entries.addAll(fileHandler.loadEntries());
+        }
+
+        /** Stores the logs and adds them to the history, unless the write failed or this copy was evicted. */
+        public synchronized AppendResult append(List<MoodLog> logs) {
+            if (evicted) {
+                return AppendResult.EVICTED;
+            }
+            if (!fileHandler.appendMoodLogs(logs)) {
+                return AppendResult.FAILED;
+            }
+            tracker.addMoodLogs(logs);
+            entries.addAll(logs);
+            appendedSinceSnapshot += logs.size();
+            // Logs dated before the retention boundary were folded into the archive
+            storeArchive();
+            return AppendResult.STORED;
+        }
+
+        /** Stores new tasks, or new versions of stored ones with the same entry ID. */
+        public synchronized AppendResult appendTasks(List<Task> tasks) {
+            if (evicted) {
+                return AppendResult.EVICTED;
+            }
+            if (!fileHandler.appendEntries(tasks)) {
+                return AppendResult.FAILED;
+            }
+            entries.addAll(tasks);
+            return AppendResult.STORED;
+        }
+
+        /** Refreshes the startup snapshot if anything was appended since the last one. */
+        public synchronized void writeSnapshot() {
+            // While a rewrite is pending the file still holds logs the tracker has folded
+            if (appendedSinceSnapshot == 0 || rewritePending) {
+                return;
+            }
+            MoodTracker.VersionedLogs state = tracker.getVersionedLogs();
+            if (snapshotStore.write(state.getLogs(), state.getDailySummaries())) {
+                appendedSinceSnapshot = 0;
+            }
+        }
+
+        /**
+         * Runs one retention pass and stores what it changed: the archive first, since the
+         * rewritten log no longer holds the folded logs. Returns null if this copy was evicted.
+         */
+        public synchronized MoodTracker.RetentionResult retain(RetentionPolicy policy, LocalDate today) {
+            if (evicted) {
+                return null;
+            }
+            MoodTracker.RetentionResult result = tracker.applyRetention(policy, today);
+            if (result.isChanged()) {
+                rewritePending = true;
+            }
+            LocalDate foldedBefore = tracker.getFoldedBefore();
+            if (foldedBefore != null) {
+                entries.removeBefore(MoodLog.class, foldedBefore.atStartOfDay());
+            }
+            if (storeArchive() && rewritePending) {
+                MoodTracker.VersionedLogs state = tracker.getVersionedLogs();
+                if (!fileHandler.saveMoodLogs(state.getLogs())) {
+                    // Retried on the next pass; the old file still holds every raw log
+                    return result;
+                }
+                rewritePending = false;
+                // The old snapshot no longer matches the rewritten file
+                if (snapshotStore.write(state.getLogs(), state.getDailySummaries())) {
+                    appendedSinceSnapshot = 0;
+                } else {
+                    appendedSinceSnapshot = Math.max(appendedSinceSnapshot, 1);
+                }
+            }
+            return result;
+        }
+
+        private boolean storeArchive() {
+            if (tracker.getArchiveVersion() == storedArchiveVersion) {
+                return true;
+            }
+            MoodTracker.Archive archive = tracker.getArchive();
+            if (!archiveStore.write(archive.getDays(), archive.getFoldedBefore())) {
+                return false;
+            }
+            storedArchiveVersion = archive.getVersion();
+            return true;
+        }
+
+        // Called by the cache before the student can be loaded again
+        synchronized void evict() {
+            evicted = true;
+            writeSnapshot();
+        }
+
+        long estimateWeight() {
+            return STUDENT_BYTES + tracker.getTotalLogs() * LOG_BYTES + tracker.getDailySummaryCount() * DAY_BYTES
+                    + entries.size() * ENTRY_BYTES + entries.size(Task.class) * TASK_BYTES;
+        }
+
+        /** Burnout score and flags, recomputed when logs were added or the minute changed. */
+        public BurnoutStatus getBurnoutStatus() {
+            long version = tracker.getVersion();
+            long minute = System.currentTimeMillis() / 60_000;
+            BurnoutStatus status = burnoutStatus;
+            if (status != null && status.version == version && status.minute == minute) {
+                return status;
+            }
+            int score = analyzer.calculateBurnoutScore();
+            status = new BurnoutStatus(version, minute, score, analyzer.getRules().riskLevel(score),
+                    analyzer.detectHighStress(), analyzer.detectMoodDecline());
+            burnoutStatus = status;
+            return status;
+        }
+
+        public String getStudentId() {
+            return studentId;
+        }
+
+        public MoodTracker getTracker() {
+            return tracker;
+        }
+
+        public EntryStore getEntries() {
+            return entries;
+        }
+
+        public BurnoutAnalyzer getAnalyzer() {
+            return analyzer;
+        }
+    }
+
+    public static boolean isValidStudentId(String studentId) {
+        return studentId != null && STUDENT_ID.matcher(studentId).matches();
+    }
+
+    private Student load(String studentId) {
+        Student student = new Student(studentId, new FileHandler(studentsDir + "/" + studentId), rules);
+        student.load();
+        return student;
+    }
+
+    /**
+     * Returns the loaded student, loading it on first use. Unknown students are created only
+     * when {@code create} is set; otherwise null is returned.
+     */
+    public Student get(String studentId, boolean create) {
+        if (!create && students.getIfPresent(studentId) == null
+                && !Files.isDirectory(Paths.get(studentsDir, studentId))) {
+            return null;
+        }
+        return students.get(studentId);
+    }
+
+    /** Stores the logs for the student, creating it if needed; returns false if the write failed. */
+    public boolean append(String studentId, List<MoodLog> logs) {
+        return store(studentId, student -> student.append(logs));
+    }
+
+    /** Stores the tasks for the student, creating it if needed; returns false if the write failed. */
+    public boolean appendTasks(String studentId, List<Task> tasks) {
+        return store(studentId, student -> student.appendTasks(tasks));
+    }
+
+    private boolean store(String studentId, Function<Student, AppendResult> write) {
+        while (true) {
+            Student student = students.get(studentId);
+            AppendResult result = write.apply(student);
+            if (result == AppendResult.STORED) {
+                students.reweigh(studentId);
+                return true;
+            }
+            if (result == AppendResult.FAILED) {
+                return false;
+            }
+        }
+    }
+
+    public int getLoadedCount() {
+        return students.size();
+    }
+
+    public TenantCache<Student> getCache() {
+        return students;
+    }
+
+    /** Writes snapshots for every loaded student, e.g. on shutdown. */
+    public void writeSnapshots() {
+        for (Student student : students.values()) {
+            student.writeSnapshot();
+        }
+    }
+
+    /** Starts applying the retention policy to loaded students in the background. */
+    public synchronized void startRetention(RetentionPolicy policy) {
+        if (retentionScheduler != null) {
+            return;
+        }
+        retentionScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "student-retention");
+            thread.setDaemon(true);
+            return thread;
+        });
+        retentionScheduler.schedule(() -> runRetention(policy), 1, TimeUnit.MINUTES);
+    }
+
+    public synchronized void stopRetention() {
+        if (retentionScheduler != null) {
+            retentionScheduler.shutdownNow();
+            retentionScheduler = null;
+        }
+    }
+
+    private void runRetention(RetentionPolicy policy) {
+        LocalDate today = LocalDate.now();
+        boolean more = false;
+        for (Student student : students.values()) {
+            try {
+                MoodTracker.RetentionResult result = student.retain(policy, today);
+                if (result == null) continue;
+                if (result.isChanged()) {
+                    students.reweigh(student.getStudentId());
+                    System.out.println("Retention for " + student.getStudentId() + ": " + result);
+                }
+                more |= result.hasMore();
+            } catch (RuntimeException e) {
+                System.err.println("Retention failed for " + student.getStudentId() + ": " + e.getMessage());
+            }
+        }
+        synchronized (this) {
+            if (retentionScheduler != null) {
+                retentionScheduler.schedule(() -> runRetention(policy), more ? 5 : 3600, TimeUnit.SECONDS);
+            }
+        }
+    }
+}
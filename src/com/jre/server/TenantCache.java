@@ -0,0 +1,481 @@
+/**
+ * TenantCache.java
+ * Weight-bounded cache of per-student state with W-TinyLFU eviction and single-flight loading
+ */
+package com.jre.server;
+
+import com.jre.metrics.Counter;
+import com.jre.metrics.Metrics;
+import com.jre.metrics.Timer;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Entries are weighed (roughly their heap footprint in bytes) and the total is kept under
+ * a maximum with the W-TinyLFU policy: new entries go to a small LRU window; entries
+ * leaving the window compete with the least recently used entry of the main space, and
+ * the one with the higher estimated access frequency stays. The main space is a segmented
+ * LRU (probation and protected), so one scan over many students cannot flush the students
+ * that are used all the time.
+ *
+ * Lookups read a ConcurrentHashMap; the policy is updated under a lock that hits only try
+ * to take, so under contention some hits are not counted towards recency (the frequency
+ * sketch is approximate anyway). Loads are single-flight: concurrent misses for the same key
+ * wait for one load instead of each reading the files.
+ *
+ * An evicted key is not loaded again until the removal listener has returned, so the
+ * listener can flush state (and fence off late writers) before a fresh copy is read.
+ * Listeners run on the thread whose insert caused the eviction.
+ */
+public class TenantCache<V> {
+    public interface Loader<V> {
+        /** Loads the value for the key; returning null caches nothing. */
+        V load(String key);
+    }
+
+    public interface Weigher<V> {
+        long weigh(V value);
+    }
+
+    public interface RemovalListener<V> {
+        void onRemoval(String key, V value);
+    }
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+    private static final int REMOVED = 3;
+
+    private static final class Node<V> {
+        final String key;
+        final V value;
+        long weight;
+        int queue;
+
+        Node(String key, V value, long weight) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    private final Loader<V> loader;
+    private final Weigher<V> weigher;
+    private final RemovalListener<V> removalListener;
+    private final long maximumWeight;
+    private final long windowMaximum;
+    private final long protectedMaximum;
+
+    private final ConcurrentHashMap<String, Node<V>> data = new ConcurrentHashMap<>();
+    // Loads in progress, and evictions whose listener has not finished yet
+    private final ConcurrentHashMap<String, CompletableFuture<Node<V>>> inFlight = new ConcurrentHashMap<>();
+
+    private final ReentrantLock policyLock = new ReentrantLock();
+    // Insertion-ordered, oldest first; moving a key to the tail is a remove and a put
+    private final LinkedHashMap<String, Node<V>> window = new LinkedHashMap<>();
+    private final LinkedHashMap<String, Node<V>> probation = new LinkedHashMap<>();
+    private final LinkedHashMap<String, Node<V>> protectedQueue = new LinkedHashMap<>();
+    private final FrequencySketch sketch = new FrequencySketch();
+    private long windowWeight;
+    private long protectedWeight;
+    private long totalWeight;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder evictedWeight = new LongAdder();
+    private final Timer loadTimer;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter evictionCounter;
+
+    /** The name prefixes the cache's metrics, e.g. "StudentCache" gives StudentCache.load. */
+    public TenantCache(String name, long maximumWeight, Loader<V> loader, Weigher<V> weigher,
+                       RemovalListener<V> removalListener) {
+        if (maximumWeight < 1) {
+            throw new IllegalArgumentException("Maximum weight must be positive");
+        }
+        this.loader = loader;
+        this.weigher = weigher;
+        this.removalListener = removalListener;
+        this.maximumWeight = maximumWeight;
+        this.windowMaximum = Math.max(1, maximumWeight / 100);
+        this.protectedMaximum = (maximumWeight - windowMaximum) * 8 / 10;
+        this.loadTimer = Metrics.timer(name + ".load");
+        this.hitCounter = Metrics.counter(name + ".hits");
+        this.missCounter = Metrics.counter(name + ".misses");
+        this.evictionCounter = Metrics.counter(name + ".evictions");
+    }
+
+    /** The cached value, loading it on a miss; null if the loader found nothing. */
+    public V get(String key) {
+        while (true) {
+            Node<V> node = data.get(key);
+            if (node != null) {
+                hits.increment();
+                hitCounter.increment();
+                recordAccess(node);
+                return node.value;
+            }
+
+            CompletableFuture<Node<V>> mine = new CompletableFuture<>();
+            CompletableFuture<Node<V>> pending = inFlight.putIfAbsent(key, mine);
+            if (pending != null) {
+                // Another thread is loading or evicting this key; a finished eviction yields
+                // null and the loop starts over
+                Node<V> loaded = await(pending);
+                if (loaded != null) {
+                    hits.increment();
+                    hitCounter.increment();
+                    return loaded.value;
+                }
+                continue;
+            }
+            // Loaded and published between the lookup above and claiming the key
+            node = data.get(key);
+            if (node != null) {
+                inFlight.remove(key, mine);
+                mine.complete(node);
+                continue;
+            }
+            return load(key, mine);
+        }
+    }
+
+    /** The cached value if present, without loading or counting towards the statistics. */
+    public V getIfPresent(String key) {
+        Node<V> node = data.get(key);
+        return node == null ? null : node.value;
+    }
+
+    private V load(String key, CompletableFuture<Node<V>> mine) {
+        misses.increment();
+        missCounter.increment();
+        long start = System.nanoTime();
+        List<Node<V>> evicted = new ArrayList<>();
+        try {
+            V value = loader.load(key);
+            if (value == null) {
+                mine.complete(null);
+                return null;
+            }
+            Node<V> node = new Node<>(key, value, Math.max(1, weigher.weigh(value)));
+            policyLock.lock();
+            try {
+                data.put(key, node);
+                sketch.increment(key);
+                node.queue = WINDOW;
+                window.put(key, node);
+                windowWeight += node.weight;
+                totalWeight += node.weight;
+                evict(evicted, key);
+            } finally {
+                policyLock.unlock();
+            }
+            mine.complete(node);
+            return value;
+        } catch (RuntimeException | Error e) {
+            loadFailures.increment();
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            loadNanos.add(elapsed);
+            loadTimer.record(elapsed);
+            // A newcomer rejected right away keeps its claim until its listener has run
+            if (!containsKey(evicted, key)) {
+                inFlight.remove(key, mine);
+            }
+            notifyRemovals(evicted);
+        }
+    }
+
+    private Node<V> await(CompletableFuture<Node<V>> pending) {
+        try {
+            return pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a cache load", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /** Weighs the key's value again, e.g. after it grew, and evicts if the cache is now over its maximum. */
+    public void reweigh(String key) {
+        Node<V> node = data.get(key);
+        if (node == null) return;
+        long weight = Math.max(1, weigher.weigh(node.value));
+        List<Node<V>> evicted = new ArrayList<>();
+        policyLock.lock();
+        try {
+            if (node.queue == REMOVED) return;
+            long delta = weight - node.weight;
+            node.weight = weight;
+            totalWeight += delta;
+            if (node.queue == WINDOW) windowWeight += delta;
+            if (node.queue == PROTECTED) protectedWeight += delta;
+            evict(evicted, null);
+        } finally {
+            policyLock.unlock();
+        }
+        notifyRemovals(evicted);
+    }
+
+    private void recordAccess(Node<V> node) {
+        // Skipped rather than waited for when another thread holds the lock
+        if (!policyLock.tryLock()) return;
+        try {
+            sketch.increment(node.key);
+            switch (node.queue) {
+                case WINDOW:
+                    moveToTail(window, node);
+                    break;
+                case PROBATION:
+                    probation.remove(node.key);
+                    node.queue = PROTECTED;
+                    protectedQueue.put(node.key, node);
+                    protectedWeight += node.weight;
+                    demoteProtected();
+                    break;
+                case PROTECTED:
+                    moveToTail(protectedQueue, node);
+                    break;
+                default: // removed since it was looked up
+            }
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    private static <V> void moveToTail(LinkedHashMap<String, Node<V>> queue, Node<V> node) {
+        queue.remove(node.key);
+        queue.put(node.key, node);
+    }
+
+    private void demoteProtected() {
+        Iterator<Node<V>> oldest = protectedQueue.values().iterator();
+        while (protectedWeight > protectedMaximum && oldest.hasNext()) {
+            Node<V> node = oldest.next();
+            oldest.remove();
+            protectedWeight -= node.weight;
+            node.queue = PROBATION;
+            probation.put(node.key, node);
+        }
+    }
+
+    private static <V> boolean containsKey(List<Node<V>> nodes, String key) {
+        for (Node<V> node : nodes) {
+            if (node.key.equals(key)) return true;
+        }
+        return false;
+    }
+
+    // Caller holds policyLock; removed nodes are collected for notifyRemovals. ownedKey is the
+    // key the calling thread is loading: it is already claimed, so it can be evicted directly.
+    private void evict(List<Node<V>> evicted, String ownedKey) {
+        // Entries leaving the window become candidates at the tail of probation
+        Node<V> candidate = null;
+        Iterator<Node<V>> windowOldest = window.values().iterator();
+        while (windowWeight > windowMaximum && windowOldest.hasNext()) {
+            candidate = windowOldest.next();
+            windowOldest.remove();
+            windowWeight -= candidate.weight;
+            candidate.queue = PROBATION;
+            probation.put(candidate.key, candidate);
+        }
+
+        // Keys another thread is still loading or evicting cannot be claimed; they are
+        // passed over for the next victim
+        Set<String> skipped = new HashSet<>();
+        while (totalWeight > maximumWeight) {
+            Node<V> victim = first(probation, skipped);
+            if (victim == null) victim = first(protectedQueue, skipped);
+            if (victim == null) victim = first(window, skipped);
+            if (victim == null) break;
+
+            // TinyLFU admission: the newcomer only stays if it is used more often than the victim
+            Node<V> loser = victim;
+            if (candidate != null && candidate != victim && candidate.queue == PROBATION
+                    && sketch.frequency(candidate.key) <= sketch.frequency(victim.key)) {
+                loser = candidate;
+                candidate = null;
+            }
+            if (!remove(loser, evicted, ownedKey)) {
+                skipped.add(loser.key);
+            }
+        }
+    }
+
+    private static <V> Node<V> first(LinkedHashMap<String, Node<V>> queue, Set<String> skipped) {
+        for (Node<V> node : queue.values()) {
+            if (!skipped.contains(node.key)) return node;
+        }
+        return null;
+    }
+
+    private boolean remove(Node<V> node, List<Node<V>> evicted, String ownedKey) {
+        // Claim the key first, so nobody starts loading it before the listener has run
+        if (!node.key.equals(ownedKey) && inFlight.putIfAbsent(node.key, new CompletableFuture<>()) != null) {
+            return false;
+        }
+        data.remove(node.key, node);
+        switch (node.queue) {
+            case WINDOW:
+                window.remove(node.key);
+                windowWeight -= node.weight;
+                break;
+            case PROBATION:
+                probation.remove(node.key);
+                break;
+            case PROTECTED:
+                protectedQueue.remove(node.key);
+                protectedWeight -= node.weight;
+                break;
+            default:
+        }
+        node.queue = REMOVED;
+        totalWeight -= node.weight;
+        evictions.increment();
+        evictionCounter.increment();
+        evictedWeight.add(node.weight);
+        evicted.add(node);
+        return true;
+    }
+
+    private void notifyRemovals(List<Node<V>> evicted) {
+        for (Node<V> node : evicted) {
+            try {
+                removalListener.onRemoval(node.key, node.value);
+            } catch (RuntimeException e) {
+                System.err.println("Error in cache removal listener for " + node.key + ": " + e);
+            } finally {
+                CompletableFuture<Node<V>> removal = inFlight.remove(node.key);
+                if (removal != null) {
+                    removal.complete(null);
+                }
+            }
+        }
+    }
+
+    /** Every cached value, for flushing on shutdown. */
+    public List<V> values() {
+        List<V> values = new ArrayList<>();
+        for (Node<V> node : data.values()) {
+            values.add(node.value);
+        }
+        return values;
+    }
+
+    public int size() {
+        return data.size();
+    }
+
+    public long getWeight() {
+        policyLock.lock();
+        try {
+            return totalWeight;
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    // Statistics
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    public long getLoadFailures() {
+        return loadFailures.sum();
+    }
+
+    /** Average time of a load in milliseconds, including failed ones. */
+    public double getAverageLoadMillis() {
+        long loads = misses.sum();
+        return loads == 0 ? 0.0 : loadNanos.sum() / (double) loads / 1_000_000.0;
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long getEvictedWeight() {
+        return evictedWeight.sum();
+    }
+
+    /**
+     * Count-min sketch of 4-bit counters (4 rows in one table) estimating how often each key
+     * was used recently. All counters are halved every 10 x table-size increments, so the
+     * estimate follows changes in popularity.
+     */
+    private static final class FrequencySketch {
+        private static final int SIZE = 1 << 16;
+        private static final long[] SEEDS = {
+                0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L
+        };
+
+        private final byte[] counters = new byte[SIZE];
+        private int additions;
+
+        void increment(String key) {
+            int hash = key.hashCode();
+            boolean added = false;
+            for (long seed : SEEDS) {
+                int index = index(hash, seed);
+                if (counters[index] < 15) {
+                    counters[index]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= 10 * SIZE) {
+                for (int i = 0; i < SIZE; i++) {
+                    counters[i] >>= 1;
+                }
+                additions /= 2;
+            }
+        }
+
+        int frequency(String key) {
+            int hash = key.hashCode();
+            int frequency = 15;
+            for (long seed : SEEDS) {
+                frequency = Math.min(frequency, counters[index(hash, seed)]);
+            }
+            return frequency;
+        }
+
+        private static int index(int hash, long seed) {
+            long mixed = (hash + seed) * seed;
+            return (int) (mixed >>> 48) & (SIZE - 1);
+        }
+    }
+}
@@ -1,57 +1,87 @@
 package com.jre.service;
 
+import com.jre.metrics.Metrics;
+import com.jre.metrics.Timer;
 import com.jre.model.MoodLog;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 public class BurnoutAnalyzer {
+    private static final Timer SCORE_TIMER = Metrics.timer("BurnoutAnalyzer.calculateBurnoutScore");
+
     private MoodTracker moodTracker;
-    private static final double HIGH_STRESS_THRESHOLD = 7.0;
-    private static final double LOW_MOOD_THRESHOLD = 4.0;
-    private static final int ANALYSIS_DAYS = 7;
+    private BurnoutRuleSet rules;
 
     public BurnoutAnalyzer(MoodTracker moodTracker) {
+        this(moodTracker, BurnoutRuleSet.defaults());
+    }
+
+    public BurnoutAnalyzer(MoodTracker moodTracker, BurnoutRuleSet rules) {
         this.moodTracker = moodTracker;
+        this.rules = rules;
     }
 
-    public String analyzeBurnoutRisk() {
-        int score = calculateBurnoutScore();
-        if (score >= 8) return "HIGH";
-        if (score >= 5) return "MEDIUM";
-        return "LOW";
+    public BurnoutRuleSet getRules() {
+        return rules;
     }
 
-    public int calculateBurnoutScore() {
-        int score = 0;
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime weekAgo = now.minusDays(ANALYSIS_DAYS);
+    public void setRules(BurnoutRuleSet rules) {
+        this.rules = rules;
+    }
 
-        double avgStress = moodTracker.calculateAverageStressInRange(weekAgo, now);
-        if (avgStress >= 8) score += 3;
-        else if (avgStress >= HIGH_STRESS_THRESHOLD) score += 2;
-        else if (avgStress >= 6) score += 1;
+    public String analyzeBurnoutRisk() {
+        return analyzeBurnoutRisk(LocalDateTime.now());
+    }
 
-        double avgMood = moodTracker.calculateAverageMoodInRange(weekAgo, now);
-        if (avgMood <= 3) score += 3;
-        else if (avgMood <= LOW_MOOD_THRESHOLD) score += 2;
-        else if (avgMood <= 5) score += 1;
+    /** Risk for the analysis window ending at {@code now}, e.g. the end of a report period. */
+    public String analyzeBurnoutRisk(LocalDateTime now) {
+        return rules.riskLevel(calculateBurnoutScore(now));
+    }
 
-        if (detectConsecutiveHighStress(3)) score += 2;
-        else if (detectConsecutiveHighStress(2)) score += 1;
+    public int calculateBurnoutScore() {
+        return calculateBurnoutScore(LocalDateTime.now());
+    }
 
-        return Math.min(score, 10);
+    public int calculateBurnoutScore(LocalDateTime now) {
+        long start = SCORE_TIMER.start();
+        BurnoutEvaluationEvent event = new BurnoutEvaluationEvent();
+        event.begin();
+        try {
+            LocalDateTime weekAgo = now.minusDays(rules.getWindowDays());
+
+            double avgStress = moodTracker.calculateAverageStressInRange(weekAgo, now);
+            double avgMood = moodTracker.calculateAverageMoodInRange(weekAgo, now);
+            int streak = countHighStressStreak(rules.getLongestStreak());
+            int score = rules.score(avgStress, avgMood, streak);
+            if (event.shouldCommit()) {
+                event.windowDays = rules.getWindowDays();
+                event.averageStress = avgStress;
+                event.averageMood = avgMood;
+                event.highStressStreak = streak;
+                event.ruleCount = rules.getRuleCount();
+                event.score = score;
+                event.riskLevel = rules.riskLevel(score);
+                event.commit();
+            }
+            return score;
+        } finally {
+            SCORE_TIMER.stop(start);
+        }
     }
 
     public boolean detectHighStress() {
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime weekAgo = now.minusDays(ANALYSIS_DAYS);
+        return detectHighStress(LocalDateTime.now());
+    }
+
+    public boolean detectHighStress(LocalDateTime now) {
+        LocalDateTime weekAgo = now.minusDays(rules.getWindowDays());
         double avgStress = moodTracker.calculateAverageStressInRange(weekAgo, now);
-        return avgStress >= HIGH_STRESS_THRESHOLD;
+        return avgStress >= rules.getHighStressThreshold();
     }
 
     public boolean detectMoodDecline() {
-        List<MoodLog> recentLogs = moodTracker.getRecentLogs(ANALYSIS_DAYS);
+        List<MoodLog> recentLogs = moodTracker.getRecentLogs(rules.getWindowDays());
         if (recentLogs.size() < 4) return false;
 
         int mid = recentLogs.size() / 2;
@@ -61,20 +91,30 @@ public class BurnoutAnalyzer {
         return (firstHalf - secondHalf) >= 2.0;
     }
 
-    private boolean detectConsecutiveHighStress(int consecutiveDays) {
-        List<MoodLog> recentLogs = moodTracker.getRecentLogs(consecutiveDays);
-        if (recentLogs.size() < consecutiveDays) return false;
-        return recentLogs.stream().allMatch(log -> log.getStressLevel() >= HIGH_STRESS_THRESHOLD);
+    // Number of most recent entries (up to maxEntries) that are all high stress
+    private int countHighStressStreak(int maxEntries) {
+        if (maxEntries <= 0) return 0;
+        List<MoodLog> recentLogs = moodTracker.getRecentLogs(maxEntries);
+        int streak = 0;
+        for (int i = recentLogs.size() - 1; i >= 0; i--) {
+            if (recentLogs.get(i).getStressLevel() < rules.getHighStressThreshold()) break;
+            streak++;
+        }
+        return streak;
     }
 
     public List<String> generateWarnings() {
+        return generateWarnings(LocalDateTime.now());
+    }
+
+    public List<String> generateWarnings(LocalDateTime now) {
         List<String> warnings = new ArrayList<>();
-        String riskLevel = analyzeBurnoutRisk();
+        String riskLevel = analyzeBurnoutRisk(now);
 
         if (riskLevel.equals("HIGH")) warnings.add("HIGH BURNOUT RISK DETECTED - Immediate action recommended");
         else if (riskLevel.equals("MEDIUM")) warnings.add("MEDIUM BURNOUT RISK - Monitor closely and take preventive measures");
 
-        if (detectHighStress()) warnings.add("Sustained high stress levels detected over the past week");
+        if (detectHighStress(now)) warnings.add("Sustained high stress levels detected over the past week");
         if (detectMoodDecline()) warnings.add("Declining mood trend identified - consider reaching out for support");
 
         if (!warnings.isEmpty()) {
@@ -0,0 +1,37 @@
+/**
+ * BurnoutEvaluationEvent.java
+ * Flight Recorder event for one burnout score calculation
+ */
+package com.jre.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.jre.BurnoutEvaluation")
+@Label("Burnout Evaluation")
+@Category({"JRE", "Analysis"})
+@Description("Burnout score with the window averages and streak it was computed from")
+class BurnoutEvaluationEvent extends jdk.jfr.Event {
+    @Label("Window Days")
+    int windowDays;
+
+    @Label("Average Stress")
+    double averageStress;
+
+    @Label("Average Mood")
+    double averageMood;
+
+    @Label("High Stress Streak")
+    int highStressStreak;
+
+    @Label("Rules")
+    int ruleCount;
+
+    @Label("Score")
+    int score;
+
+    @Label("Risk Level")
+    String riskLevel;
+}
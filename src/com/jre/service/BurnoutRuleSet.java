@@ -0,0 +1,227 @@
+/**
+ * BurnoutRuleSet.java
+ * Compiled burnout scoring rules loaded from a rule definition file
+ */
+package com.jre.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BurnoutRuleSet {
+    // Metrics a rule can test
+    public static final int AVG_STRESS = 0;
+    public static final int AVG_MOOD = 1;
+    public static final int HIGH_STRESS_STREAK = 2;
+
+    private static final int OP_GE = 0;
+    private static final int OP_GT = 1;
+    private static final int OP_LE = 2;
+    private static final int OP_LT = 3;
+
+    private static final String[] DEFAULT_RULES = {
+            "SET|WINDOW_DAYS|7",
+            "SET|HIGH_STRESS|7",
+            "SET|MAX_SCORE|10",
+            "SET|RISK_HIGH|8",
+            "SET|RISK_MEDIUM|5",
+            "RULE|stress|AVG_STRESS|>=|8|3",
+            "RULE|stress|AVG_STRESS|>=|7|2",
+            "RULE|stress|AVG_STRESS|>=|6|1",
+            "RULE|mood|AVG_MOOD|<=|3|3",
+            "RULE|mood|AVG_MOOD|<=|4|2",
+            "RULE|mood|AVG_MOOD|<=|5|1",
+            "RULE|streak|HIGH_STRESS_STREAK|>=|3|2",
+            "RULE|streak|HIGH_STRESS_STREAK|>=|2|1"
+    };
+
+    // Rules are stored column-wise, ordered by group; within a group the first match wins
+    private final int[] metric;
+    private final int[] op;
+    private final double[] threshold;
+    private final int[] points;
+    private final int[] groupStart;
+
+    private final int windowDays;
+    private final double highStressThreshold;
+    private final int maxScore;
+    private final int riskHigh;
+    private final int riskMedium;
+    private final int longestStreak;
+
+    private BurnoutRuleSet(int[] metric, int[] op, double[] threshold, int[] points, int[] groupStart,
+                           int windowDays, double highStressThreshold, int maxScore, int riskHigh, int riskMedium) {
+        this.metric = metric;
+        this.op = op;
+        this.threshold = threshold;
+        this.points = points;
+        this.groupStart = groupStart;
+        this.windowDays = windowDays;
+        this.highStressThreshold = highStressThreshold;
+        this.maxScore = maxScore;
+        this.riskHigh = riskHigh;
+        this.riskMedium = riskMedium;
+
+        int streak = 0;
+        for (int i = 0; i < metric.length; i++) {
+            if (metric[i] == HIGH_STRESS_STREAK) {
+                streak = Math.max(streak, (int) Math.ceil(threshold[i]) + (op[i] == OP_GT ? 1 : 0));
+            }
+        }
+        this.longestStreak = streak;
+    }
+
+    public static BurnoutRuleSet defaults() {
+        return parse(List.of(DEFAULT_RULES));
+    }
+
+    /**
+     * Parses rule definitions. Each line is either a setting
+     * ({@code SET|NAME|value}) or a rule ({@code RULE|group|METRIC|op|threshold|points}).
+     * Blank lines and lines starting with '#' are ignored.
+     */
+    public static BurnoutRuleSet parse(List<String> lines) {
+        int windowDays = 7;
+        double highStress = 7.0;
+        int maxScore = 10;
+        int riskHigh = 8;
+        int riskMedium = 5;
+
+        List<String> groups = new ArrayList<>();
+        List<List<String[]>> grouped = new ArrayList<>();
+
+        for (String raw : lines) {
+            String line = raw.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] parts = line.split("\\|");
+            try {
+                if (parts[0].equals("SET") && parts.length == 3) {
+                    switch (parts[1]) {
+                        case "WINDOW_DAYS": windowDays = Integer.parseInt(parts[2]); break;
+                        case "HIGH_STRESS": highStress = Double.parseDouble(parts[2]); break;
+                        case "MAX_SCORE": maxScore = Integer.parseInt(parts[2]); break;
+                        case "RISK_HIGH": riskHigh = Integer.parseInt(parts[2]); break;
+                        case "RISK_MEDIUM": riskMedium = Integer.parseInt(parts[2]); break;
+                        default: throw new IllegalArgumentException("Unknown setting: " + parts[1]);
+                    }
+                } else if (parts[0].equals("RULE") && parts.length == 6) {
+                    int idx = groups.indexOf(parts[1]);
+                    if (idx < 0) {
+                        groups.add(parts[1]);
+                        grouped.add(new ArrayList<>());
+                        idx = groups.size() - 1;
+                    }
+                    grouped.get(idx).add(parts);
+                } else {
+                    throw new IllegalArgumentException("Invalid rule line: " + line);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid number in rule line: " + line);
+            }
+        }
+
+        int count = grouped.stream().mapToInt(List::size).sum();
+        int[] metric = new int[count];
+        int[] op = new int[count];
+        double[] threshold = new double[count];
+        int[] points = new int[count];
+        int[] groupStart = new int[grouped.size() + 1];
+
+        int i = 0;
+        for (int g = 0; g < grouped.size(); g++) {
+            groupStart[g] = i;
+            for (String[] parts : grouped.get(g)) {
+                metric[i] = parseMetric(parts[2]);
+                op[i] = parseOperator(parts[3]);
+                // Streaks are only counted up to the longest threshold, which is exact for rising tests alone
+                if (metric[i] == HIGH_STRESS_STREAK && op[i] != OP_GE && op[i] != OP_GT) {
+                    throw new IllegalArgumentException("Streak rules must use >= or >: " + String.join("|", parts));
+                }
+                try {
+                    threshold[i] = Double.parseDouble(parts[4]);
+                    points[i] = Integer.parseInt(parts[5]);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid number in rule: " + String.join("|", parts));
+                }
+                i++;
+            }
+        }
+        groupStart[grouped.size()] = count;
+
+        return new BurnoutRuleSet(metric, op, threshold, points, groupStart,
+                windowDays, highStress, maxScore, riskHigh, riskMedium);
+    }
+
+    private static int parseMetric(String name) {
+        switch (name) {
+            case "AVG_STRESS": return AVG_STRESS;
+            case "AVG_MOOD": return AVG_MOOD;
+            case "HIGH_STRESS_STREAK": return HIGH_STRESS_STREAK;
+            default: throw new IllegalArgumentException("Unknown metric: " + name);
+        }
+    }
+
+    private static int parseOperator(String symbol) {
+        switch (symbol) {
+            case ">=": return OP_GE;
+            case ">": return OP_GT;
+            case "<=": return OP_LE;
+            case "<": return OP_LT;
+            default: throw new IllegalArgumentException("Unknown operator: " + symbol);
+        }
+    }
+
+    // ==================== EVALUATION ====================
+
+    public int score(double avgStress, double avgMood, int highStressStreak) {
+        int score = 0;
+        int groupCount = groupStart.length - 1;
+        for (int g = 0; g < groupCount; g++) {
+            for (int r = groupStart[g]; r < groupStart[g + 1]; r++) {
+                double value = metric[r] == AVG_STRESS ? avgStress
+                        : metric[r] == AVG_MOOD ? avgMood : highStressStreak;
+                if (matches(op[r], value, threshold[r])) {
+                    score += points[r];
+                    break;
+                }
+            }
+        }
+        return Math.min(score, maxScore);
+    }
+
+    private static boolean matches(int op, double value, double threshold) {
+        switch (op) {
+            case OP_GE: return value >= threshold;
+            case OP_GT: return value > threshold;
+            case OP_LE: return value <= threshold;
+            default: return value < threshold;
+        }
+    }
+
+    public String riskLevel(int score) {
+        if (score >= riskHigh) return "HIGH";
+        if (score >= riskMedium) return "MEDIUM";
+        return "LOW";
+    }
+
+    // Getters
+    public int getWindowDays() {
+        return windowDays;
+    }
+
+    public double getHighStressThreshold() {
+        return highStressThreshold;
+    }
+
+    public int getMaxScore() {
+        return maxScore;
+    }
+
+    /** Number of trailing entries needed to evaluate every streak rule. */
+    public int getLongestStreak() {
+        return longestStreak;
+    }
+
+    public int getRuleCount() {
+        return metric.length;
+    }
+}
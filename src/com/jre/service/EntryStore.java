@@ -0,0 +1,447 @@
+/**
+ * EntryStore.java
+ * Type-tagged, column-oriented store for log entries of every kind on one time index
+ */
+package com.jre.service;
+
+import com.jre.model.DailyWorkload;
+import com.jre.model.LogEntry;
+import com.jre.model.MoodLog;
+import com.jre.model.Task;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Each entry type has a partition that keeps its entries and the fields queries read as
+ * primitive columns, addressed by row. One time index over all partitions holds, sorted by
+ * entry date, the epoch second, the partition and the row of every entry, so a query over
+ * mixed types is one pass over a slice of three arrays instead of a pass per type.
+ *
+ * Moods and tasks are built in; other LogEntry subclasses are added with {@link #register}.
+ * Entries of a versioned partition (tasks) are replaced by a later entry with the same ID.
+ */
+public class EntryStore {
+    private static final int SECONDS_PER_DAY = 86_400;
+    static final int MOOD = 0;
+    static final int TASK = 1;
+
+    /** Entries and columns of one entry type. Rows never move while the entry is stored. */
+    public abstract static class Partition<T extends LogEntry> {
+        private final String type;
+        private final Class<T> entryClass;
+        private final List<T> entries = new ArrayList<>();
+        private final Map<String, Integer> rowsById;
+
+        protected Partition(String type, Class<T> entryClass, boolean versioned) {
+            this.type = type;
+            this.entryClass = entryClass;
+            this.rowsById = versioned ? new HashMap<>() : null;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public Class<T> getEntryClass() {
+            return entryClass;
+        }
+
+        public int size() {
+            return entries.size();
+        }
+
+        public T get(int row) {
+            return entries.get(row);
+        }
+
+        /** Makes room for at least {@code capacity} rows in the columns. */
+        protected abstract void ensureCapacity(int capacity);
+
+        /** Copies the entry's queried fields into the columns at {@code row}. */
+        protected abstract void store(int row, T entry);
+
+        // Row of the stored version of the entry, or -1 if it is new or the type is not versioned
+        private int rowOf(String entryId) {
+            if (rowsById == null) return -1;
+            Integer row = rowsById.get(entryId);
+            return row == null ? -1 : row;
+        }
+
+        private int append(T entry) {
+            int row = entries.size();
+            ensureCapacity(row + 1);
+            entries.add(entry);
+            store(row, entry);
+            if (rowsById != null) rowsById.put(entry.getEntryId(), row);
+            return row;
+        }
+
+        private void replace(int row, T entry) {
+            entries.set(row, entry);
+            store(row, entry);
+        }
+
+        private void clear() {
+            entries.clear();
+            if (rowsById != null) rowsById.clear();
+        }
+    }
+
+    /** Mood and stress levels, one byte each. */
+    public static final class MoodPartition extends Partition<MoodLog> {
+        private byte[] mood = new byte[0];
+        private byte[] stress = new byte[0];
+
+        MoodPartition() {
+            super("MOOD", MoodLog.class, false);
+        }
+
+        @Override
+        protected void ensureCapacity(int capacity) {
+            if (capacity > mood.length) {
+                int grown = Math.max(capacity, Math.max(16, mood.length * 2));
+                mood = Arrays.copyOf(mood, grown);
+                stress = Arrays.copyOf(stress, grown);
+            }
+        }
+
+        @Override
+        protected void store(int row, MoodLog log) {
+            mood[row] = (byte) log.getMoodLevel();
+            stress[row] = (byte) log.getStressLevel();
+        }
+    }
+
+    /** Logged time, deadline and completion as epoch seconds (completion is MAX_VALUE while open), and effort. */
+    public static final class TaskPartition extends Partition<Task> {
+        private long[] logged = new long[0];
+        private long[] deadline = new long[0];
+        private long[] completed = new long[0];
+        private int[] effortMinutes = new int[0];
+
+        TaskPartition() {
+            super("TASK", Task.class, true);
+        }
+
+        @Override
+        protected void ensureCapacity(int capacity) {
+            if (capacity > logged.length) {
+                int grown = Math.max(capacity, Math.max(16, logged.length * 2));
+                logged = Arrays.copyOf(logged, grown);
+                deadline = Arrays.copyOf(deadline, grown);
+                completed = Arrays.copyOf(completed, grown);
+                effortMinutes = Arrays.copyOf(effortMinutes, grown);
+            }
+        }
+
+        @Override
+        protected void store(int row, Task task) {
+            logged[row] = epochSecond(task.getDate());
+            deadline[row] = epochSecond(task.getDeadline());
+            completed[row] = task.isCompleted() ? epochSecond(task.getCompletedAt()) : Long.MAX_VALUE;
+            effortMinutes[row] = task.getEstimatedMinutes();
+        }
+    }
+
+    /** Receives the entries of a scan in date order. */
+    public interface Visitor {
+        void visit(Partition<?> partition, int row, long epochSecond);
+    }
+
+    private final List<Partition<?>> partitions = new ArrayList<>();
+    private final Map<Class<?>, Integer> kindsByClass = new HashMap<>();
+
+    // The time index: entry date, partition and row, sorted by date
+    private long[] times = new long[16];
+    private byte[] kinds = new byte[16];
+    private int[] rows = new int[16];
+    private int size;
+
+    public EntryStore() {
+        register(new MoodPartition());
+        register(new TaskPartition());
+    }
+
+    /** Adds a partition for another entry type; its entries can then be added and scanned. */
+    public synchronized void register(Partition<?> partition) {
+        if (kindsByClass.containsKey(partition.getEntryClass())) {
+            throw new IllegalArgumentException("A partition for " + partition.getType() + " is already registered");
+        }
+        if (partitions.size() == Byte.MAX_VALUE) {
+            throw new IllegalStateException("Too many entry types");
+        }
+        kindsByClass.put(partition.getEntryClass(), partitions.size());
+        partitions.add(partition);
+    }
+
+    static long epochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /** Adds an entry, or replaces the stored version of an entry of a versioned type. */
+    public synchronized void add(LogEntry entry) {
+        Integer kind = kindsByClass.get(entry.getClass());
+        if (kind == null) {
+            throw new IllegalArgumentException("No partition for entry type " + entry.getLogType());
+        }
+        put(partitions.get(kind), kind, entry);
+    }
+
+    public synchronized void addAll(List<? extends LogEntry> entries) {
+        for (LogEntry entry : entries) {
+            add(entry);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends LogEntry> void put(Partition<T> partition, int kind, LogEntry entry) {
+        T typed = (T) entry;
+        long time = epochSecond(entry.getDate());
+        int row = partition.rowOf(entry.getEntryId());
+        if (row >= 0) {
+            long oldTime = epochSecond(partition.get(row).getDate());
+            partition.replace(row, typed);
+            if (oldTime != time) {
+                removeFromIndex(oldTime, kind, row);
+                insertIntoIndex(time, kind, row);
+            }
+            return;
+        }
+        insertIntoIndex(time, kind, partition.append(typed));
+    }
+
+    private void insertIntoIndex(long time, int kind, int row) {
+        if (size == times.length) {
+            int grown = size * 2;
+            times = Arrays.copyOf(times, grown);
+            kinds = Arrays.copyOf(kinds, grown);
+            rows = Arrays.copyOf(rows, grown);
+        }
+        // Entries mostly arrive in date order, so this is usually an append
+        int at = size == 0 || times[size - 1] <= time ? size : upperBound(time);
+        if (at < size) {
+            System.arraycopy(times, at, times, at + 1, size - at);
+            System.arraycopy(kinds, at, kinds, at + 1, size - at);
+            System.arraycopy(rows, at, rows, at + 1, size - at);
+        }
+        times[at] = time;
+        kinds[at] = (byte) kind;
+        rows[at] = row;
+        size++;
+    }
+
+    private void removeFromIndex(long time, int kind, int row) {
+        for (int i = lowerBound(time); i < size && times[i] == time; i++) {
+            if (kinds[i] == kind && rows[i] == row) {
+                System.arraycopy(times, i + 1, times, i, size - i - 1);
+                System.arraycopy(kinds, i + 1, kinds, i, size - i - 1);
+                System.arraycopy(rows, i + 1, rows, i, size - i - 1);
+                size--;
+                return;
+            }
+        }
+    }
+
+    // First index whose time is >= time
+    private int lowerBound(long time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] < time) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    // First index whose time is > time
+    private int upperBound(long time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] <= time) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    /**
+     * Removes the entries of one type dated before a time, e.g. moods the retention policy
+     * folded into daily summaries. Rebuilds the partitions and the index.
+     */
+    public synchronized int removeBefore(Class<? extends LogEntry> type, LocalDateTime before) {
+        Integer kind = kindsByClass.get(type);
+        if (kind == null) return 0;
+        long limit = epochSecond(before);
+        List<LogEntry> kept = new ArrayList<>(size);
+        int removed = 0;
+        for (int i = 0; i < size; i++) {
+            if (kinds[i] == kind && times[i] < limit) {
+                removed++;
+            } else {
+                kept.add(partitions.get(kinds[i]).get(rows[i]));
+            }
+        }
+        if (removed == 0) return 0;
+        for (Partition<?> partition : partitions) {
+            partition.clear();
+        }
+        size = 0;
+        for (LogEntry entry : kept) {
+            add(entry);
+        }
+        return removed;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /** Number of stored entries of one type. */
+    public synchronized int size(Class<? extends LogEntry> type) {
+        Integer kind = kindsByClass.get(type);
+        return kind == null ? 0 : partitions.get(kind).size();
+    }
+
+    /** Visits every entry dated in [from, to), of all types, in date order. */
+    public synchronized void scan(LocalDateTime from, LocalDateTime to, Visitor visitor) {
+        int end = lowerBound(epochSecond(to));
+        for (int i = lowerBound(epochSecond(from)); i < end; i++) {
+            visitor.visit(partitions.get(kinds[i]), rows[i], times[i]);
+        }
+    }
+
+    /** The entries of one type dated in [from, to), oldest first. */
+    public synchronized <T extends LogEntry> List<T> getEntries(Class<T> type, LocalDateTime from, LocalDateTime to) {
+        List<T> entries = new ArrayList<>();
+        Integer kind = kindsByClass.get(type);
+        if (kind == null) return entries;
+        int end = lowerBound(epochSecond(to));
+        for (int i = lowerBound(epochSecond(from)); i < end; i++) {
+            if (kinds[i] == kind) {
+                entries.add(type.cast(partitions.get(kind).get(rows[i])));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Mood, stress and open task load for every day in [from, to]. Moods and the tasks
+     * logged in the range come from one pass over the index slice; tasks logged earlier and
+     * still open, and completions and deadlines in the range, from one pass over the task
+     * columns.
+     */
+    public synchronized List<DailyWorkload> dailyWorkload(LocalDate from, LocalDate to) {
+        int days = (int) (to.toEpochDay() - from.toEpochDay() + 1);
+        if (days <= 0) {
+            return new ArrayList<>();
+        }
+        long start = epochSecond(from.atStartOfDay());
+        long end = start + (long) days * SECONDS_PER_DAY;
+        int[] moodCount = new int[days];
+        long[] moodSum = new long[days];
+        long[] stressSum = new long[days];
+        // Open task counts and effort as changes at the start of each day, summed up below
+        int[] openDelta = new int[days + 1];
+        long[] effortDelta = new long[days + 1];
+        int[] due = new int[days];
+        int[] completed = new int[days];
+
+        MoodPartition moods = (MoodPartition) partitions.get(MOOD);
+        TaskPartition tasks = (TaskPartition) partitions.get(TASK);
+
+        for (int row = 0; row < tasks.size(); row++) {
+            long logged = tasks.logged[row];
+            if (logged >= end) continue;
+            long done = tasks.completed[row];
+            if (done >= start && done < end) {
+                completed[(int) ((done - start) / SECONDS_PER_DAY)]++;
+            }
+            // Open from the day it was logged through the day before the one it was completed on
+            int openFrom = logged < start ? 0 : (int) ((logged - start) / SECONDS_PER_DAY);
+            int openUntil = done == Long.MAX_VALUE || done >= end ? days
+                    : done < start ? 0 : (int) ((done - start) / SECONDS_PER_DAY);
+            if (openUntil <= openFrom) continue;
+            if (logged < start) {
+                // Logged before the range; those inside it are counted by the index pass
+                openDelta[0]++;
+                effortDelta[0] += tasks.effortMinutes[row];
+            }
+            openDelta[openUntil]--;
+            effortDelta[openUntil] -= tasks.effortMinutes[row];
+            long deadline = tasks.deadline[row];
+            if (deadline >= start && deadline < end) {
+                int deadlineDay = (int) ((deadline - start) / SECONDS_PER_DAY);
+                if (deadlineDay >= openFrom && deadlineDay < openUntil) due[deadlineDay]++;
+            }
+        }
+
+        int last = lowerBound(end);
+        for (int i = lowerBound(start); i < last; i++) {
+            int day = (int) ((times[i] - start) / SECONDS_PER_DAY);
+            int row = rows[i];
+            switch (kinds[i]) {
+                case MOOD:
+                    moodCount[day]++;
+                    moodSum[day] += moods.mood[row];
+                    stressSum[day] += moods.stress[row];
+                    break;
+                case TASK:
+                    long done = tasks.completed[row];
+                    // Completed on the day it was logged: never open at the end of a day
+                    if (done == Long.MAX_VALUE || (done - start) / SECONDS_PER_DAY > day) {
+                        openDelta[day]++;
+                        effortDelta[day] += tasks.effortMinutes[row];
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        List<DailyWorkload> result = new ArrayList<>(days);
+        int open = 0;
+        long effort = 0;
+        for (int d = 0; d < days; d++) {
+            open += openDelta[d];
+            effort += effortDelta[d];
+            result.add(new DailyWorkload(from.plusDays(d), moodCount[d], moodSum[d], stressSum[d],
+                    open, effort, due[d], completed[d]));
+        }
+        return result;
+    }
+
+    /**
+     * Pearson correlation between average stress and open tasks over the days that have
+     * mood entries, or NaN if there are fewer than two such days or either does not vary.
+     */
+    public static double stressLoadCorrelation(List<DailyWorkload> days) {
+        int n = 0;
+        double sumX = 0, sumY = 0, sumXX = 0, sumYY = 0, sumXY = 0;
+        for (DailyWorkload day : days) {
+            if (day.getMoodEntries() == 0) continue;
+            double x = day.getOpenTasks();
+            double y = day.getAverageStress();
+            n++;
+            sumX += x;
+            sumY += y;
+            sumXX += x * x;
+            sumYY += y * y;
+            sumXY += x * y;
+        }
+        if (n < 2) return Double.NaN;
+        double covariance = sumXY - sumX * sumY / n;
+        double varianceX = sumXX - sumX * sumX / n;
+        double varianceY = sumYY - sumY * sumY / n;
+        if (varianceX <= 0 || varianceY <= 0) return Double.NaN;
+        return covariance / Math.sqrt(varianceX * varianceY);
+    }
+}
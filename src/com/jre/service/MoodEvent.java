@@ -0,0 +1,91 @@
+package com.jre.service;
+
+import com.jre.model.MoodLog;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A change to a MoodTracker's history, published on its MoodEventBus. Every event carries
+ * the tracker version right after the change, so subscribers can tell which state it
+ * produced.
+ */
+public abstract class MoodEvent {
+    private final long version;
+
+    protected MoodEvent(long version) {
+        this.version = version;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /** One or more logs were added; a bulk insert is a single event. */
+    public static final class LogAdded extends MoodEvent {
+        private final List<MoodLog> logs;
+
+        public LogAdded(long version, List<MoodLog> logs) {
+            super(version);
+            this.logs = Collections.unmodifiableList(logs);
+        }
+
+        public List<MoodLog> getLogs() {
+            return logs;
+        }
+    }
+
+    /** A log was replaced by a new version with the same entry ID. */
+    public static final class LogUpdated extends MoodEvent {
+        private final MoodLog previous;
+        private final MoodLog updated;
+
+        public LogUpdated(long version, MoodLog previous, MoodLog updated) {
+            super(version);
+            this.previous = previous;
+            this.updated = updated;
+        }
+
+        public MoodLog getPrevious() {
+            return previous;
+        }
+
+        public MoodLog getUpdated() {
+            return updated;
+        }
+    }
+
+    /** The whole history was replaced, e.g. by a load. */
+    public static final class LogsReplaced extends MoodEvent {
+        private final int logCount;
+
+        public LogsReplaced(long version, int logCount) {
+            super(version);
+            this.logCount = logCount;
+        }
+
+        public int getLogCount() {
+            return logCount;
+        }
+    }
+
+    /** Old logs were folded into daily summaries or lost their notes under the retention policy. */
+    public static final class LogsArchived extends MoodEvent {
+        private final int foldedLogs;
+        private final int clearedNotes;
+
+        public LogsArchived(long version, int foldedLogs, int clearedNotes) {
+            super(version);
+            this.foldedLogs = foldedLogs;
+            this.clearedNotes = clearedNotes;
+        }
+
+        public int getFoldedLogs() {
+            return foldedLogs;
+        }
+
+        public int getClearedNotes() {
+            return clearedNotes;
+        }
+    }
+}
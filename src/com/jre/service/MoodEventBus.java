@@ -0,0 +1,162 @@
+package com.jre.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Delivers MoodEvents to subscribers in micro-batches. Publishers only append to a lock-free
+ * queue; a single dispatcher thread drains whatever has queued up (at most maxBatch events)
+ * and hands the batch to every listener, so a burst of changes costs each subscriber one
+ * call instead of one per change.
+ */
+public class MoodEventBus {
+    private final ConcurrentLinkedQueue<MoodEvent> queue = new ConcurrentLinkedQueue<>();
+    private final List<MoodEventListener> listeners = new CopyOnWriteArrayList<>();
+    private final int maxBatch;
+    private final Thread dispatcher;
+    private final AtomicBoolean dispatcherParked = new AtomicBoolean();
+    private volatile boolean running = true;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long delivered;
+    private long batches;
+    private final Object idleLock = new Object();
+
+    public MoodEventBus(String name, int maxBatch) {
+        if (maxBatch < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        this.maxBatch = maxBatch;
+        this.dispatcher = new Thread(this::dispatch, name);
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    public void subscribe(MoodEventListener listener) {
+        listeners.add(listener);
+    }
+
+    public void unsubscribe(MoodEventListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Queues the event for delivery. Once the bus is closed the event is dropped and false is
+     * returned; the publisher's own state has already changed, so throwing would not undo it.
+     */
+    public boolean publish(MoodEvent event) {
+        if (!running) {
+            drop(1);
+            return false;
+        }
+        published.incrementAndGet();
+        queue.offer(event);
+        // Only pay for a wake-up when the dispatcher is actually waiting
+        if (dispatcherParked.get()) {
+            LockSupport.unpark(dispatcher);
+        }
+        return true;
+    }
+
+    private void drop(long count) {
+        if (dropped.getAndAdd(count) == 0) {
+            System.err.println("Mood event bus is closed, dropping events published after close");
+        }
+    }
+
+    private void dispatch() {
+        List<MoodEvent> batch = new ArrayList<>(Math.min(maxBatch, 1024));
+        while (running || !queue.isEmpty()) {
+            MoodEvent event;
+            while (batch.size() < maxBatch && (event = queue.poll()) != null) {
+                batch.add(event);
+            }
+            if (batch.isEmpty()) {
+                dispatcherParked.set(true);
+                if (queue.isEmpty() && running) {
+                    LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(100));
+                }
+                dispatcherParked.set(false);
+                continue;
+            }
+
+            List<MoodEvent> events = Collections.unmodifiableList(new ArrayList<>(batch));
+            for (MoodEventListener listener : listeners) {
+                try {
+                    listener.onEvents(events);
+                } catch (RuntimeException e) {
+                    System.err.println("Error in mood event listener: " + e);
+                }
+            }
+            synchronized (idleLock) {
+                batches++;
+                delivered += batch.size();
+                idleLock.notifyAll();
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Waits until every event published before this call has been delivered.
+     * Returns false on timeout.
+     */
+    public boolean flush(long timeoutMillis) throws InterruptedException {
+        long target = published.get();
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (idleLock) {
+            while (delivered < target) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0 || !dispatcher.isAlive()) return false;
+                LockSupport.unpark(dispatcher);
+                idleLock.wait(Math.min(remaining, 50));
+            }
+        }
+        return true;
+    }
+
+    /** Stops accepting events, delivers what is queued and stops the dispatcher. */
+    public void close() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(dispatcher);
+        dispatcher.join();
+        // A publish that raced with close may have queued after the last drain
+        int late = queue.size();
+        if (late > 0) {
+            queue.clear();
+            drop(late);
+        }
+    }
+
+    public boolean isClosed() {
+        return !running;
+    }
+
+    public long getPublishedCount() {
+        return published.get();
+    }
+
+    /** Number of events published after close and never delivered. */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getDeliveredCount() {
+        return delivered;
+    }
+
+    /** Number of batches delivered so far. */
+    public long getBatchCount() {
+        synchronized (idleLock) {
+            return batches;
+        }
+    }
+}
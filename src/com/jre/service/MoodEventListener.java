@@ -0,0 +1,8 @@
+package com.jre.service;
+
+import java.util.List;
+
+/** Receives MoodTracker changes in micro-batches, in publication order, on the bus thread. */
+public interface MoodEventListener {
+    void onEvents(List<MoodEvent> events);
+}
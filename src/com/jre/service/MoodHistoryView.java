@@ -0,0 +1,138 @@
+package com.jre.service;
+
+import com.jre.model.MoodLog;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A filtered, sorted window over a MoodTracker's history that hands out rows page by page.
+ * Only matching positions are indexed (an int per row, none at all for an unfiltered date
+ * sort); log objects are fetched when a page is requested. The index is rebuilt lazily
+ * whenever the tracker's data version changes.
+ */
+public class MoodHistoryView {
+    public enum SortKey { DATE, MOOD, STRESS }
+
+    private final MoodTracker moodTracker;
+    private LocalDateTime from = LocalDateTime.MIN;
+    private LocalDateTime to = LocalDateTime.MAX;
+    private String keyword = "";
+    private SortKey sortKey = SortKey.DATE;
+    private boolean ascending = false;
+
+    // Either a contiguous date range [rangeStart, rangeEnd) or an explicit position index
+    private int rangeStart;
+    private int rangeEnd;
+    private int[] positions;
+    private long builtVersion = -1;
+
+    public MoodHistoryView(MoodTracker moodTracker) {
+        this.moodTracker = moodTracker;
+    }
+
+    /** Restricts rows to the date range and to notes containing the keyword (case-insensitive). */
+    public synchronized void setFilter(LocalDateTime from, LocalDateTime to, String keyword) {
+        this.from = from != null ? from : LocalDateTime.MIN;
+        this.to = to != null ? to : LocalDateTime.MAX;
+        this.keyword = keyword != null ? keyword.trim() : "";
+        builtVersion = -1;
+    }
+
+    public synchronized void setSort(SortKey sortKey, boolean ascending) {
+        this.sortKey = sortKey;
+        this.ascending = ascending;
+        builtVersion = -1;
+    }
+
+    public synchronized int size() {
+        synchronized (moodTracker) {
+            ensureIndex();
+            return positions != null ? positions.length : rangeEnd - rangeStart;
+        }
+    }
+
+    /** Rows offset to offset + limit (exclusive) in the current sort order. */
+    public synchronized List<MoodLog> getPage(int offset, int limit) {
+        synchronized (moodTracker) {
+            ensureIndex();
+            int total = positions != null ? positions.length : rangeEnd - rangeStart;
+            int end = Math.min(total, offset + limit);
+            List<MoodLog> page = new ArrayList<>(Math.max(0, end - offset));
+            for (int row = offset; row < end; row++) {
+                page.add(moodTracker.getLogAt(positionOf(row, total)));
+            }
+            return page;
+        }
+    }
+
+    /** Data version the current index was built from. */
+    public synchronized long getBuiltVersion() {
+        return builtVersion;
+    }
+
+    private int positionOf(int row, int total) {
+        if (positions != null) return positions[row];
+        return ascending ? rangeStart + row : rangeEnd - 1 - row;
+    }
+
+    private void ensureIndex() {
+        long version = moodTracker.getVersion();
+        if (version == builtVersion) return;
+
+        rangeStart = moodTracker.lowerBound(from);
+        rangeEnd = Math.max(rangeStart, moodTracker.upperBound(to));
+        positions = null;
+
+        if (!keyword.isEmpty() || sortKey != SortKey.DATE) {
+            int[] matches = new int[rangeEnd - rangeStart];
+            int count = 0;
+            for (int i = rangeStart; i < rangeEnd; i++) {
+                if (keyword.isEmpty() || containsIgnoreCase(moodTracker.getLogAt(i).getNotes(), keyword)) {
+                    matches[count++] = i;
+                }
+            }
+            positions = sortKey == SortKey.DATE ? trim(matches, count) : sortByLevel(matches, count);
+            if (!ascending) reverse(positions);
+        }
+        builtVersion = version;
+    }
+
+    // Counting sort on the 1-10 level; stable, so equal levels stay in date order
+    private int[] sortByLevel(int[] matches, int count) {
+        int[] starts = new int[12];
+        for (int i = 0; i < count; i++) starts[level(matches[i]) + 1]++;
+        for (int l = 1; l < starts.length; l++) starts[l] += starts[l - 1];
+        int[] sorted = new int[count];
+        for (int i = 0; i < count; i++) sorted[starts[level(matches[i])]++] = matches[i];
+        return sorted;
+    }
+
+    private int level(int position) {
+        MoodLog log = moodTracker.getLogAt(position);
+        return sortKey == SortKey.MOOD ? log.getMoodLevel() : log.getStressLevel();
+    }
+
+    private static int[] trim(int[] values, int count) {
+        if (values.length == count) return values;
+        int[] trimmed = new int[count];
+        System.arraycopy(values, 0, trimmed, 0, count);
+        return trimmed;
+    }
+
+    private static void reverse(int[] values) {
+        for (int i = 0, j = values.length - 1; i < j; i++, j--) {
+            int tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+    }
+
+    private static boolean containsIgnoreCase(String text, String needle) {
+        int max = text.length() - needle.length();
+        for (int i = 0; i <= max; i++) {
+            if (text.regionMatches(true, i, needle, 0, needle.length())) return true;
+        }
+        return false;
+    }
+}
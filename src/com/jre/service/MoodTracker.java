@@ -1,57 +1,655 @@
 package com.jre.service;
 
+import com.jre.metrics.Metrics;
+import com.jre.metrics.Timer;
+import com.jre.model.DailySummary;
 import com.jre.model.MoodLog;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 public class MoodTracker {
+    // Timed outside the lock, so the figures include time spent waiting for it
+    private static final Timer RANGE_TIMER = Metrics.timer("MoodTracker.getLogsInRange");
+    private static final Timer AVERAGE_TIMER = Metrics.timer("MoodTracker.averageInRange");
+    private static final Timer RECENT_TIMER = Metrics.timer("MoodTracker.getRecentLogs");
+
+    // Kept sorted by date (stable for equal dates), so range and recent queries are binary searches
     private List<MoodLog> moodLogs;
+    private long version;
+    // Per-day aggregates kept in step with moodLogs, used by long-period reports
+    private TreeMap<LocalDate, DailySummary> dailySummaries;
+    // Days whose logs were folded away under the retention policy. Every log is dated on or
+    // after foldedBefore, so these days never overlap dailySummaries; queries combine both.
+    private TreeMap<LocalDate, DailySummary> archivedDays = new TreeMap<>();
+    private LocalDateTime foldedBefore;
+    private long archiveVersion;
+    // Every log dated before this has no notes, so the notes tier resumes its scan here
+    private LocalDateTime notesClearedBefore;
+    // Optional; changes are published while holding the lock, so events arrive in version order
+    private MoodEventBus eventBus;
 
     public MoodTracker() {
         this.moodLogs = new ArrayList<>();
+        this.dailySummaries = new TreeMap<>();
+    }
+
+    /** Publishes every later change on the given bus (null to stop publishing). */
+    public synchronized void setEventBus(MoodEventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
+    /** Copies of the logs and their daily summaries together with their version, read atomically. */
+    public static class VersionedLogs {
+        private final List<MoodLog> logs;
+        private final List<DailySummary> dailySummaries;
+        private final long version;
+
+        VersionedLogs(List<MoodLog> logs, List<DailySummary> dailySummaries, long version) {
+            this.logs = logs;
+            this.dailySummaries = dailySummaries;
+            this.version = version;
+        }
+
+        public List<MoodLog> getLogs() {
+            return logs;
+        }
+
+        public List<DailySummary> getDailySummaries() {
+            return dailySummaries;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+    }
+
+    /** The summaries cover the logs only, not the archived days, so they can be restored with them. */
+    public synchronized VersionedLogs getVersionedLogs() {
+        return new VersionedLogs(new ArrayList<>(moodLogs), copies(dailySummaries, null, null), version);
+    }
+
+    /** Copies of the archived daily summaries and the day they end before, read atomically. */
+    public static class Archive {
+        private final List<DailySummary> days;
+        private final LocalDate foldedBefore;
+        private final long version;
+
+        Archive(List<DailySummary> days, LocalDate foldedBefore, long version) {
+            this.days = days;
+            this.foldedBefore = foldedBefore;
+            this.version = version;
+        }
+
+        public List<DailySummary> getDays() {
+            return days;
+        }
+
+        /** Null if nothing was folded yet. */
+        public LocalDate getFoldedBefore() {
+            return foldedBefore;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+    }
+
+    /** First day whose logs are kept raw; earlier days exist only as archived summaries. Null if nothing was folded. */
+    public synchronized LocalDate getFoldedBefore() {
+        return foldedBefore == null ? null : foldedBefore.toLocalDate();
+    }
+
+    public synchronized Archive getArchive() {
+        return new Archive(copies(archivedDays, null, null),
+                foldedBefore == null ? null : foldedBefore.toLocalDate(), archiveVersion);
+    }
+
+    /** Changed whenever the archived days change, so owners know when to store them again. */
+    public synchronized long getArchiveVersion() {
+        return archiveVersion;
+    }
+
+    /**
+     * Restores archived days after the logs were loaded. Logs dated before the archive's end
+     * are already part of it (e.g. a crash came between storing the archive and rewriting
+     * the log file) and are dropped.
+     */
+    public synchronized void restoreArchive(List<DailySummary> days, LocalDate foldedBefore) {
+        this.archivedDays = new TreeMap<>();
+        for (DailySummary day : days) {
+            archivedDays.put(day.getDay(), day);
+        }
+        this.foldedBefore = foldedBefore == null ? null : foldedBefore.atStartOfDay();
+        if (foldedBefore != null) {
+            int end = lowerBound(this.foldedBefore);
+            if (end > 0) {
+                moodLogs.subList(0, end).clear();
+                dailySummaries.headMap(foldedBefore).clear();
+            }
+        }
+        version++;
+        publish(new MoodEvent.LogsReplaced(version, moodLogs.size()));
+    }
+
+    private boolean isFolded(MoodLog log) {
+        return foldedBefore != null && log.getDate().isBefore(foldedBefore);
+    }
+
+    // Logs dated in the archived past go straight into the archive
+    private void foldIntoArchive(MoodLog log) {
+        archivedDays.computeIfAbsent(log.getDate().toLocalDate(), DailySummary::new).add(log);
+        archiveVersion++;
+    }
+
+    // A closed bus drops the event; the change itself stays in the tracker
+    private void publish(MoodEvent event) {
+        if (eventBus != null) {
+            eventBus.publish(event);
+        }
+    }
+
+    public synchronized void addMoodLog(MoodLog log) {
+        if (isFolded(log)) {
+            foldIntoArchive(log);
+        } else {
+            moodLogs.add(upperBound(log.getDate()), log);
+            addToSummary(log);
+            checkNotesWatermark(log);
+        }
+        version++;
+        publish(new MoodEvent.LogAdded(version, Collections.singletonList(log)));
     }
 
-    public void addMoodLog(MoodLog log) {
-        moodLogs.add(log);
+    /**
+     * Adds many logs at once: the batch is sorted and merged with the part of the history
+     * from its earliest date onwards, so appending recent logs touches only the tail.
+     */
+    public synchronized void addMoodLogs(List<MoodLog> logs) {
+        if (logs.isEmpty()) return;
+        List<MoodLog> batch = new ArrayList<>(logs);
+        batch.sort(Comparator.comparing(MoodLog::getDate));
+
+        // Sorted, so any logs that belong in the archive come first
+        int first = 0;
+        while (first < batch.size() && isFolded(batch.get(first))) {
+            foldIntoArchive(batch.get(first++));
+        }
+        if (first < batch.size()) {
+            int start = upperBound(batch.get(first).getDate());
+            List<MoodLog> tailView = moodLogs.subList(start, moodLogs.size());
+            List<MoodLog> tail = new ArrayList<>(tailView);
+            tailView.clear();
+            int i = 0;
+            int j = first;
+            while (i < tail.size() || j < batch.size()) {
+                // Existing logs go first on equal dates, as with addMoodLog
+                if (j == batch.size() || (i < tail.size()
+                        && !tail.get(i).getDate().isAfter(batch.get(j).getDate()))) {
+                    moodLogs.add(tail.get(i++));
+                } else {
+                    moodLogs.add(batch.get(j++));
+                }
+            }
+            for (int k = first; k < batch.size(); k++) {
+                addToSummary(batch.get(k));
+                checkNotesWatermark(batch.get(k));
+            }
+        }
+        version++;
+        publish(new MoodEvent.LogAdded(version, batch));
+    }
+
+    /**
+     * Replaces the log with the same entry ID, moving it if its date changed.
+     * Returns false if no log has that ID.
+     */
+    public synchronized boolean updateMoodLog(MoodLog updated) {
+        int position = -1;
+        for (int i = 0; i < moodLogs.size(); i++) {
+            if (moodLogs.get(i).getEntryId().equals(updated.getEntryId())) {
+                position = i;
+                break;
+            }
+        }
+        if (position < 0) return false;
+
+        MoodLog previous = moodLogs.remove(position);
+        // Min and max cannot be undone incrementally, so the affected days are re-aggregated
+        if (isFolded(updated)) {
+            foldIntoArchive(updated);
+        } else {
+            moodLogs.add(upperBound(updated.getDate()), updated);
+            rebuildSummary(updated.getDate().toLocalDate());
+            checkNotesWatermark(updated);
+        }
+        rebuildSummary(previous.getDate().toLocalDate());
+        version++;
+        publish(new MoodEvent.LogUpdated(version, previous, updated));
+        return true;
+    }
+
+    // A late log with notes moves the watermark back so the notes tier sees it
+    private void checkNotesWatermark(MoodLog log) {
+        if (notesClearedBefore != null && log.getDate().isBefore(notesClearedBefore) && !log.getNotes().isEmpty()) {
+            notesClearedBefore = log.getDate();
+        }
     }
 
-    public List<MoodLog> getMoodLogs() {
+    private void rebuildSummary(LocalDate day) {
+        int start = lowerBound(day.atStartOfDay());
+        int end = lowerBound(day.plusDays(1).atStartOfDay());
+        if (start >= end) {
+            dailySummaries.remove(day);
+            return;
+        }
+        DailySummary summary = new DailySummary(day);
+        for (int i = start; i < end; i++) {
+            summary.add(moodLogs.get(i));
+        }
+        dailySummaries.put(day, summary);
+    }
+
+    public synchronized List<MoodLog> getMoodLogs() {
         return new ArrayList<>(moodLogs);
     }
 
-    public void setMoodLogs(List<MoodLog> logs) {
+    public synchronized void setMoodLogs(List<MoodLog> logs) {
         this.moodLogs = new ArrayList<>(logs);
+        this.moodLogs.sort(Comparator.comparing(MoodLog::getDate));
+        this.dailySummaries = new TreeMap<>();
+        this.notesClearedBefore = null;
+        for (MoodLog log : moodLogs) {
+            addToSummary(log);
+        }
+        version++;
+        publish(new MoodEvent.LogsReplaced(version, moodLogs.size()));
+    }
+
+    /**
+     * Replaces the state with logs already sorted by date and their matching daily
+     * summaries, skipping the sort and re-aggregation done by setMoodLogs.
+     */
+    public synchronized void restore(List<MoodLog> sortedLogs, List<DailySummary> summaries) {
+        this.moodLogs = new ArrayList<>(sortedLogs);
+        this.dailySummaries = new TreeMap<>();
+        this.notesClearedBefore = null;
+        for (DailySummary day : summaries) {
+            dailySummaries.put(day.getDay(), day);
+        }
+        version++;
+        publish(new MoodEvent.LogsReplaced(version, moodLogs.size()));
+    }
+
+    private void addToSummary(MoodLog log) {
+        dailySummaries.computeIfAbsent(log.getDate().toLocalDate(), DailySummary::new).add(log);
+    }
+
+    /** Data version, changed whenever logs are added or replaced. */
+    public synchronized long getVersion() {
+        return version;
     }
 
     public List<MoodLog> getLogsInRange(LocalDateTime from, LocalDateTime to) {
-        return moodLogs.stream()
-                .filter(log -> !log.getDate().isBefore(from) && !log.getDate().isAfter(to))
-                .sorted((a, b) -> a.getDate().compareTo(b.getDate())) 
-                .collect(Collectors.toList());
+        long timerStart = RANGE_TIMER.start();
+        RangeQueryEvent event = new RangeQueryEvent();
+        event.begin();
+        boolean succeeded = false;
+        try {
+            List<MoodLog> logs;
+            synchronized (this) {
+                int start = lowerBound(from);
+                int end = upperBound(to);
+                event.matches = Math.max(0, end - start);
+                event.totalLogs = moodLogs.size();
+                logs = start >= end ? new ArrayList<>() : new ArrayList<>(moodLogs.subList(start, end));
+            }
+            succeeded = true;
+            return logs;
+        } finally {
+            RANGE_TIMER.stop(timerStart);
+            event.commit("logs", from, to, succeeded);
+        }
     }
 
     public double calculateAverageMoodInRange(LocalDateTime from, LocalDateTime to) {
-        List<MoodLog> logsInRange = getLogsInRange(from, to);
-        if (logsInRange.isEmpty()) return 0.0;
-        return logsInRange.stream().mapToInt(MoodLog::getMoodLevel).average().orElse(0.0);
+        long timerStart = AVERAGE_TIMER.start();
+        RangeQueryEvent event = new RangeQueryEvent();
+        event.begin();
+        boolean succeeded = false;
+        try {
+            double average = 0.0;
+            synchronized (this) {
+                int start = lowerBound(from);
+                int end = upperBound(to);
+                event.matches = Math.max(0, end - start);
+                event.totalLogs = moodLogs.size();
+                long sum = 0;
+                long count = Math.max(0, end - start);
+                for (int i = start; i < end; i++) sum += moodLogs.get(i).getMoodLevel();
+                if (reachesArchive(from)) {
+                    for (DailySummary day : archivedDays.subMap(from.toLocalDate(), true, to.toLocalDate(), true).values()) {
+                        sum += day.getMoodSum();
+                        count += day.getCount();
+                    }
+                }
+                if (count > 0) {
+                    average = (double) sum / count;
+                }
+            }
+            succeeded = true;
+            return average;
+        } finally {
+            AVERAGE_TIMER.stop(timerStart);
+            event.commit("averageMood", from, to, succeeded);
+        }
     }
 
     public double calculateAverageStressInRange(LocalDateTime from, LocalDateTime to) {
-        List<MoodLog> logsInRange = getLogsInRange(from, to);
-        if (logsInRange.isEmpty()) return 0.0;
-        return logsInRange.stream().mapToInt(MoodLog::getStressLevel).average().orElse(0.0);
+        long timerStart = AVERAGE_TIMER.start();
+        RangeQueryEvent event = new RangeQueryEvent();
+        event.begin();
+        boolean succeeded = false;
+        try {
+            double average = 0.0;
+            synchronized (this) {
+                int start = lowerBound(from);
+                int end = upperBound(to);
+                event.matches = Math.max(0, end - start);
+                event.totalLogs = moodLogs.size();
+                long sum = 0;
+                long count = Math.max(0, end - start);
+                for (int i = start; i < end; i++) sum += moodLogs.get(i).getStressLevel();
+                if (reachesArchive(from)) {
+                    for (DailySummary day : archivedDays.subMap(from.toLocalDate(), true, to.toLocalDate(), true).values()) {
+                        sum += day.getStressSum();
+                        count += day.getCount();
+                    }
+                }
+                if (count > 0) {
+                    average = (double) sum / count;
+                }
+            }
+            succeeded = true;
+            return average;
+        } finally {
+            AVERAGE_TIMER.stop(timerStart);
+            event.commit("averageStress", from, to, succeeded);
+        }
+    }
+
+    /**
+     * Aggregate of the logs from 'from' to 'to', plus archived days between their dates
+     * (archived days only have whole-day figures, so they count in full).
+     */
+    public DailySummary summarizeRange(LocalDateTime from, LocalDateTime to) {
+        long timerStart = AVERAGE_TIMER.start();
+        RangeQueryEvent event = new RangeQueryEvent();
+        event.begin();
+        boolean succeeded = false;
+        try {
+            DailySummary total = new DailySummary(from.toLocalDate());
+            synchronized (this) {
+                int start = lowerBound(from);
+                int end = upperBound(to);
+                event.matches = Math.max(0, end - start);
+                event.totalLogs = moodLogs.size();
+                for (int i = start; i < end; i++) total.add(moodLogs.get(i));
+                if (reachesArchive(from) && !to.isBefore(from)) {
+                    for (DailySummary day : archivedDays.subMap(from.toLocalDate(), true, to.toLocalDate(), true).values()) {
+                        total.merge(day);
+                    }
+                }
+            }
+            succeeded = true;
+            return total;
+        } finally {
+            AVERAGE_TIMER.stop(timerStart);
+            event.commit("summary", from, to, succeeded);
+        }
+    }
+
+    private boolean reachesArchive(LocalDateTime from) {
+        return foldedBefore != null && from.isBefore(foldedBefore);
     }
 
     public List<MoodLog> getRecentLogs(int count) {
-        return moodLogs.stream()
-                .sorted((a, b) -> a.getDate().compareTo(b.getDate())) 
-                .skip(Math.max(0, moodLogs.size() - count))
-                .collect(Collectors.toList());
+        long timerStart = RECENT_TIMER.start();
+        try {
+            synchronized (this) {
+                int start = Math.min(moodLogs.size(), Math.max(0, moodLogs.size() - count));
+                return new ArrayList<>(moodLogs.subList(start, moodLogs.size()));
+            }
+        } finally {
+            RECENT_TIMER.stop(timerStart);
+        }
     }
 
-    public int getTotalLogs() {
+    // Positional access for MoodHistoryView; callers hold the tracker lock
+    int size() {
         return moodLogs.size();
     }
+
+    MoodLog getLogAt(int position) {
+        return moodLogs.get(position);
+    }
+
+    // Index of the first log dated at or after 'date'
+    int lowerBound(LocalDateTime date) {
+        int low = 0;
+        int high = moodLogs.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (moodLogs.get(mid).getDate().isBefore(date)) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    // Index of the first log dated after 'date'
+    int upperBound(LocalDateTime date) {
+        int low = 0;
+        int high = moodLogs.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (moodLogs.get(mid).getDate().isAfter(date)) high = mid;
+            else low = mid + 1;
+        }
+        return low;
+    }
+
+    /** Daily aggregates for every logged or archived day from 'from' to 'to' inclusive, oldest first. */
+    public synchronized List<DailySummary> getDailySummaries(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) return new ArrayList<>();
+        // Archived days all come before the days of the logs
+        List<DailySummary> days = copies(archivedDays, from, to);
+        days.addAll(copies(dailySummaries, from, to));
+        return days;
+    }
+
+    // Copies, so callers on other threads never see a day change underneath them
+    private static List<DailySummary> copies(TreeMap<LocalDate, DailySummary> summaries, LocalDate from, LocalDate to) {
+        List<DailySummary> days = new ArrayList<>();
+        Collection<DailySummary> range = from == null ? summaries.values()
+                : summaries.subMap(from, true, to, true).values();
+        for (DailySummary day : range) {
+            DailySummary copy = new DailySummary(day.getDay());
+            copy.merge(day);
+            days.add(copy);
+        }
+        return days;
+    }
+
+    /** Copies of every daily summary, archived days included, oldest first. */
+    public synchronized List<DailySummary> getAllDailySummaries() {
+        List<DailySummary> days = copies(archivedDays, null, null);
+        days.addAll(copies(dailySummaries, null, null));
+        return days;
+    }
+
+    /** Aggregate of all logs and archived days from 'from' to 'to' inclusive, merged from the daily summaries. */
+    public synchronized DailySummary summarizeRange(LocalDate from, LocalDate to) {
+        DailySummary total = new DailySummary(from);
+        if (to.isBefore(from)) return total;
+        for (DailySummary day : archivedDays.subMap(from, true, to, true).values()) {
+            total.merge(day);
+        }
+        for (DailySummary day : dailySummaries.subMap(from, true, to, true).values()) {
+            total.merge(day);
+        }
+        return total;
+    }
+
+    public synchronized int getTotalLogs() {
+        return moodLogs.size();
+    }
+
+    public synchronized int getDailySummaryCount() {
+        return archivedDays.size() + dailySummaries.size();
+    }
+
+    // ==================== RETENTION ====================
+
+    /** What one retention pass changed, and whether more is due. */
+    public static class RetentionResult {
+        private final int clearedNotes;
+        private final int foldedLogs;
+        private final int foldedDays;
+        private final int droppedDays;
+        private final boolean more;
+
+        RetentionResult(int clearedNotes, int foldedLogs, int foldedDays, int droppedDays, boolean more) {
+            this.clearedNotes = clearedNotes;
+            this.foldedLogs = foldedLogs;
+            this.foldedDays = foldedDays;
+            this.droppedDays = droppedDays;
+            this.more = more;
+        }
+
+        public int getClearedNotes() {
+            return clearedNotes;
+        }
+
+        public int getFoldedLogs() {
+            return foldedLogs;
+        }
+
+        public int getFoldedDays() {
+            return foldedDays;
+        }
+
+        public int getDroppedDays() {
+            return droppedDays;
+        }
+
+        public boolean isChanged() {
+            return clearedNotes > 0 || foldedLogs > 0 || foldedDays > 0 || droppedDays > 0;
+        }
+
+        /** True if the pass stopped at its batch limit and should be run again soon. */
+        public boolean hasMore() {
+            return more;
+        }
+
+        @Override
+        public String toString() {
+            return foldedLogs + " log(s) on " + foldedDays + " day(s) folded into daily summaries, "
+                    + clearedNotes + " note(s) cleared, " + droppedDays + " daily summary(s) deleted";
+        }
+    }
+
+    /**
+     * Moves history down the policy's tiers, at most BATCH_DAYS days of it per call so the
+     * lock is held briefly; call again while the result has more. Changes are published as
+     * one LogsArchived event, after which the log file and the archive need storing.
+     */
+    public synchronized RetentionResult applyRetention(RetentionPolicy policy, LocalDate today) {
+        int batchDays = policy.getBatchDays();
+        boolean more = false;
+
+        // Raw logs: fold the oldest days, up to a batch of them, into the archive
+        int foldedLogs = 0;
+        int foldedDays = 0;
+        LocalDate rawCutoff = policy.rawCutoff(today);
+        if (rawCutoff != null) {
+            LocalDate until = rawCutoff;
+            if (!moodLogs.isEmpty()) {
+                LocalDate batchEnd = moodLogs.get(0).getDate().toLocalDate().plusDays(batchDays);
+                if (batchEnd.isBefore(until)) {
+                    until = batchEnd;
+                    more = true;
+                }
+            }
+            int end = lowerBound(until.atStartOfDay());
+            if (end > 0) {
+                SortedMap<LocalDate, DailySummary> folded = dailySummaries.headMap(until);
+                for (DailySummary day : folded.values()) {
+                    archivedDays.computeIfAbsent(day.getDay(), DailySummary::new).merge(day);
+                }
+                foldedDays = folded.size();
+                folded.clear();
+                moodLogs.subList(0, end).clear();
+                foldedLogs = end;
+            }
+            if (foldedBefore == null || foldedBefore.isBefore(until.atStartOfDay())) {
+                foldedBefore = until.atStartOfDay();
+                // Moving the boundary changes the stored archive even when no log was folded
+                archiveVersion++;
+            }
+        }
+
+        // Notes: scan the logs from the watermark to the cutoff and clear at most a batch worth of days
+        int clearedNotes = 0;
+        LocalDate notesCutoff = policy.notesCutoff(today);
+        if (notesCutoff != null) {
+            LocalDateTime clearedUntil = notesCutoff.atStartOfDay();
+            int end = lowerBound(clearedUntil);
+            LocalDate lastDay = null;
+            int days = 0;
+            for (int i = notesClearedBefore == null ? 0 : lowerBound(notesClearedBefore); i < end; i++) {
+                MoodLog log = moodLogs.get(i);
+                if (log.getNotes().isEmpty()) continue;
+                LocalDate day = log.getDate().toLocalDate();
+                if (!day.equals(lastDay)) {
+                    if (days == batchDays) {
+                        more = true;
+                        clearedUntil = day.atStartOfDay();
+                        break;
+                    }
+                    days++;
+                    lastDay = day;
+                }
+                moodLogs.set(i, new MoodLog(log.getEntryId(), log.getDate(), log.getMoodLevel(), log.getStressLevel(), ""));
+                clearedNotes++;
+            }
+            if (notesClearedBefore == null || notesClearedBefore.isBefore(clearedUntil)) {
+                notesClearedBefore = clearedUntil;
+            }
+        }
+
+        // Daily summaries past the last tier are deleted
+        int droppedDays = 0;
+        LocalDate summaryCutoff = policy.summaryCutoff(today);
+        if (summaryCutoff != null) {
+            SortedMap<LocalDate, DailySummary> expired = archivedDays.headMap(summaryCutoff);
+            droppedDays = expired.size();
+            expired.clear();
+        }
+
+        RetentionResult result = new RetentionResult(clearedNotes, foldedLogs, foldedDays, droppedDays, more);
+        if (foldedDays > 0 || droppedDays > 0) {
+            archiveVersion++;
+        }
+        if (result.isChanged()) {
+            version++;
+            publish(new MoodEvent.LogsArchived(version, foldedLogs, clearedNotes));
+        }
+        return result;
+    }
 }
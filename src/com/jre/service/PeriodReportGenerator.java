@@ -0,0 +1,174 @@
+package com.jre.service;
+
+import com.jre.metrics.Metrics;
+import com.jre.metrics.Timer;
+import com.jre.model.DailySummary;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+/**
+ * Summary reports for arbitrary periods (month, semester, year or custom range).
+ * All figures come from the tracker's daily summaries, so the cost grows with the
+ * number of days in the period rather than the number of logs.
+ */
+public class PeriodReportGenerator {
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm");
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MMM dd, yyyy");
+    private static final int BOX_WIDTH = 61;
+    private static final Timer REPORT_TIMER = Metrics.timer("PeriodReportGenerator.periodReport");
+
+    private MoodTracker moodTracker;
+
+    public PeriodReportGenerator(MoodTracker moodTracker) {
+        this.moodTracker = moodTracker;
+    }
+
+    public String generatePeriodReport(ReportPeriod period, boolean yearOverYear) {
+        StringBuilder report = new StringBuilder(8192);
+        try {
+            writePeriodReport(report, period, yearOverYear);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return report.toString();
+    }
+
+    public void writePeriodReport(Appendable out, ReportPeriod period, boolean yearOverYear) throws IOException {
+        long start = REPORT_TIMER.start();
+        ReportRenderEvent event = new ReportRenderEvent();
+        event.begin();
+        ReportRenderEvent.CountingAppendable counting = null;
+        try {
+            if (event.isEnabled()) {
+                counting = new ReportRenderEvent.CountingAppendable(out);
+                writeSections(counting, period, yearOverYear);
+            } else {
+                writeSections(out, period, yearOverYear);
+            }
+            event.succeeded = true;
+        } finally {
+            REPORT_TIMER.stop(start);
+            if (event.shouldCommit()) {
+                event.characters = counting == null ? 0 : counting.getCount();
+                event.report = "period";
+                event.period = period.getLabel();
+                // Overview, change vs previous period, optional year-over-year, weekly breakdown
+                event.sections = yearOverYear ? 4 : 3;
+                event.sectionsRendered = event.sections;
+                event.commit();
+            }
+        }
+    }
+
+    private void writeSections(Appendable out, ReportPeriod period, boolean yearOverYear) throws IOException {
+        out.append("╔══════════════════════════════════════════════════════════════╗\n");
+        out.append("║     STUDENT STRESS & MOOD MONITORING SYSTEM                  ║\n");
+        out.append("║           Period Summary Report                              ║\n");
+        out.append("╚══════════════════════════════════════════════════════════════╝\n\n");
+
+        out.append("Report Generated: ").append(TIMESTAMP_FORMAT.format(LocalDateTime.now())).append('\n');
+        out.append("Report Period: ").append(period.getLabel()).append(" (").append(formatRange(period)).append(")\n\n");
+
+        DailySummary current = moodTracker.summarizeRange(period.getFrom(), period.getTo());
+        List<DailySummary> days = moodTracker.getDailySummaries(period.getFrom(), period.getTo());
+
+        writeSectionHeader(out, "PERIOD OVERVIEW");
+        if (current.getCount() == 0) {
+            out.append("  No entries recorded during this period.\n");
+        } else {
+            out.append(String.format("  Total Entries: %d\n", current.getCount()));
+            out.append(String.format("  Days Logged: %d of %d\n", days.size(), period.getDayCount()));
+            out.append(String.format("  Average Mood: %.1f/10 (lowest %d, highest %d)\n",
+                    current.getAverageMood(), current.getMinMood(), current.getMaxMood()));
+            out.append(String.format("  Average Stress: %.1f/10 (lowest %d, highest %d)\n",
+                    current.getAverageStress(), current.getMinStress(), current.getMaxStress()));
+        }
+        out.append('\n');
+
+        writeComparison(out, "CHANGE VS PREVIOUS PERIOD", current, period.previous());
+        if (yearOverYear) {
+            writeComparison(out, "YEAR-OVER-YEAR COMPARISON", current, period.yearBefore());
+        }
+        writeWeeklyBreakdown(out, period, days);
+
+        out.append("\n═══════════════════════════════════════════════════════════════\n");
+        out.append("2025. Alzaga, Arevalo, Letada\n");
+        out.append("═══════════════════════════════════════════════════════════════\n");
+    }
+
+    private void writeComparison(Appendable out, String title, DailySummary current, ReportPeriod other)
+            throws IOException {
+        DailySummary previous = moodTracker.summarizeRange(other.getFrom(), other.getTo());
+
+        writeSectionHeader(out, title);
+        out.append("  Compared With: ").append(formatRange(other)).append('\n');
+        if (previous.getCount() == 0 || current.getCount() == 0) {
+            out.append("  Not enough entries in both periods to compare.\n\n");
+            return;
+        }
+        out.append(String.format("  Entries: %d -> %d (%+d)\n",
+                previous.getCount(), current.getCount(), current.getCount() - previous.getCount()));
+        out.append(String.format("  Average Mood: %.1f -> %.1f (%+.1f)\n",
+                previous.getAverageMood(), current.getAverageMood(),
+                delta(current.getAverageMood(), previous.getAverageMood())));
+        out.append(String.format("  Average Stress: %.1f -> %.1f (%+.1f)\n\n",
+                previous.getAverageStress(), current.getAverageStress(),
+                delta(current.getAverageStress(), previous.getAverageStress())));
+    }
+
+    // Weeks run Monday to Sunday; the first and last week are clipped to the period
+    private void writeWeeklyBreakdown(Appendable out, ReportPeriod period, List<DailySummary> days)
+            throws IOException {
+        writeSectionHeader(out, "WEEKLY BREAKDOWN");
+        out.append("  Week Starting   Entries  Avg Mood  Avg Stress  Chg Mood  Chg Stress\n");
+
+        LocalDate weekStart = period.getFrom().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        DailySummary previousWeek = null;
+        int index = 0;
+        while (!weekStart.isAfter(period.getTo())) {
+            LocalDate nextWeek = weekStart.plusWeeks(1);
+            DailySummary week = new DailySummary(weekStart.isBefore(period.getFrom()) ? period.getFrom() : weekStart);
+            while (index < days.size() && days.get(index).getDay().isBefore(nextWeek)) {
+                week.merge(days.get(index++));
+            }
+
+            out.append(String.format("  %-14s %8d", DATE_FORMAT.format(week.getDay()), week.getCount()));
+            if (week.getCount() == 0) {
+                out.append(String.format("  %8s  %10s  %8s  %10s\n", "-", "-", "-", "-"));
+            } else if (previousWeek == null || previousWeek.getCount() == 0) {
+                out.append(String.format("  %8.1f  %10.1f  %8s  %10s\n",
+                        week.getAverageMood(), week.getAverageStress(), "-", "-"));
+            } else {
+                out.append(String.format("  %8.1f  %10.1f  %+8.1f  %+10.1f\n",
+                        week.getAverageMood(), week.getAverageStress(),
+                        delta(week.getAverageMood(), previousWeek.getAverageMood()),
+                        delta(week.getAverageStress(), previousWeek.getAverageStress())));
+            }
+            previousWeek = week;
+            weekStart = nextWeek;
+        }
+    }
+
+    private void writeSectionHeader(Appendable out, String title) throws IOException {
+        int left = (BOX_WIDTH - title.length()) / 2;
+        out.append("┌─────────────────────────────────────────────────────────────┐\n");
+        out.append('│').append(" ".repeat(left)).append(title)
+                .append(" ".repeat(BOX_WIDTH - left - title.length())).append("│\n");
+        out.append("└─────────────────────────────────────────────────────────────┘\n");
+    }
+
+    // Rounded before formatting so tiny negative changes print as +0.0 rather than -0.0
+    private static double delta(double current, double previous) {
+        return Math.round((current - previous) * 10) / 10.0;
+    }
+
+    private static String formatRange(ReportPeriod period) {
+        return DATE_FORMAT.format(period.getFrom()) + " to " + DATE_FORMAT.format(period.getTo());
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * RangeQueryEvent.java
+ * Flight Recorder event for one date-range query on a MoodTracker
+ */
+package com.jre.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Name("com.jre.RangeQuery")
+@Label("Range Query")
+@Category({"JRE", "Query"})
+@Description("Logs selected or averaged over a date window, including time waiting for the tracker lock")
+class RangeQueryEvent extends jdk.jfr.Event {
+    @Label("Query")
+    String query;
+
+    @Label("From")
+    String from;
+
+    @Label("To")
+    String to;
+
+    @Label("Window")
+    @Timespan(Timespan.MILLISECONDS)
+    long window;
+
+    @Label("Matches")
+    int matches;
+
+    @Label("Total Logs")
+    int totalLogs;
+
+    @Label("Succeeded")
+    boolean succeeded;
+
+    // The strings are only built for events that are actually recorded
+    void commit(String query, LocalDateTime from, LocalDateTime to, boolean succeeded) {
+        if (shouldCommit()) {
+            this.succeeded = succeeded;
+            this.query = query;
+            this.from = from.toString();
+            this.to = to.toString();
+            this.window = Duration.between(from, to).toMillis();
+            commit();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * ReportCache.java
+ * Size-bounded LRU cache of rendered report sections
+ */
+package com.jre.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+public class ReportCache {
+    public static final int DEFAULT_MAX_ENTRIES = 256;
+
+    private final int maxEntries;
+    // A section is stored as soon as its build starts, so concurrent misses wait for one build
+    private final Map<String, CompletableFuture<String>> sections;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public ReportCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public ReportCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Cache size must be at least 1");
+        }
+        this.maxEntries = maxEntries;
+        this.sections = new LinkedHashMap<String, CompletableFuture<String>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<String>> eldest) {
+                if (size() > ReportCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached section for the key, building and storing it on a miss. The build
+     * runs outside the cache lock; other callers asking for the same key wait for it, and a
+     * failed build is removed so the next call tries again.
+     */
+    public String get(String key, Supplier<String> builder) {
+        CompletableFuture<String> section;
+        boolean build = false;
+        synchronized (this) {
+            section = sections.get(key);
+            if (section != null) {
+                hits++;
+            } else {
+                misses++;
+                section = new CompletableFuture<>();
+                sections.put(key, section);
+                build = true;
+            }
+        }
+        if (build) {
+            try {
+                section.complete(builder.get());
+            } catch (RuntimeException | Error e) {
+                synchronized (this) {
+                    sections.remove(key, section);
+                }
+                section.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return section.join();
+        } catch (CompletionException e) {
+            // Another caller's build failed; rethrow its cause here
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw e;
+        }
+    }
+
+    public synchronized void clear() {
+        sections.clear();
+    }
+
+    // Statistics
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized int size() {
+        return sections.size();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public synchronized double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("ReportCache{Size=%d/%d, Hits=%d, Misses=%d, Evictions=%d}",
+                sections.size(), maxEntries, hits, misses, evictions);
+    }
+}
@@ -1,130 +1,248 @@
 package com.jre.service;
 
-import com.jre.model.MoodLog;
+import com.jre.metrics.Metrics;
+import com.jre.metrics.Timer;
+import com.jre.model.DailySummary;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.Charset;
+import java.text.DecimalFormatSymbols;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
 
 public class ReportGenerator {
+    private static final int WRITE_BUFFER_SIZE = 16 * 1024;
+    private static final Timer REPORT_TIMER = Metrics.timer("ReportGenerator.weeklyReport");
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm");
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MMM dd, yyyy");
+
+    private static final String REPORT_BANNER =
+            "╔══════════════════════════════════════════════════════════════╗\n" +
+            "║     STUDENT STRESS & MOOD MONITORING SYSTEM                  ║\n" +
+            "║           Weekly Summary Report                              ║\n" +
+            "╚══════════════════════════════════════════════════════════════╝\n\n";
+    private static final String REPORT_FOOTER =
+            "\n═══════════════════════════════════════════════════════════════\n" +
+            "2025. Alzaga, Arevalo, Letada\n" +
+            "═══════════════════════════════════════════════════════════════\n";
+
+    // Bar charts for 0..10 filled cells, built once
+    private static final String[] CHARTS = new String[11];
+    static {
+        for (int bars = 0; bars <= 10; bars++) {
+            StringBuilder chart = new StringBuilder("[");
+            for (int i = 0; i < 10; i++) chart.append(i < bars ? "█" : "░");
+            CHARTS[bars] = chart.append("]").toString();
+        }
+    }
+
     private MoodTracker moodTracker;
     private BurnoutAnalyzer burnoutAnalyzer;
+    private ReportCache cache;
+    private String cacheNamespace;
 
     public ReportGenerator(MoodTracker moodTracker, BurnoutAnalyzer burnoutAnalyzer) {
+        this(moodTracker, burnoutAnalyzer, new ReportCache(), "default");
+    }
+
+    /**
+     * Creates a generator that shares a section cache. The namespace keeps the
+     * sections of different students apart when one cache serves several trackers.
+     */
+    public ReportGenerator(MoodTracker moodTracker, BurnoutAnalyzer burnoutAnalyzer,
+                           ReportCache cache, String cacheNamespace) {
         this.moodTracker = moodTracker;
         this.burnoutAnalyzer = burnoutAnalyzer;
+        this.cache = cache;
+        this.cacheNamespace = cacheNamespace;
+    }
+
+    public ReportCache getCache() {
+        return cache;
     }
 
     public String generateWeeklyReport() {
-        StringBuilder report = new StringBuilder();
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime weekAgo = now.minusDays(7);
+        StringBuilder report = new StringBuilder(4096);
+        try {
+            writeWeeklyReport(report);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return report.toString();
+    }
 
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm");
+    /**
+     * Writes the weekly report to an output stream using the platform charset
+     * (the same bytes a FileWriter would produce). The stream is flushed, not closed.
+     */
+    public void writeWeeklyReport(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, Charset.defaultCharset()), WRITE_BUFFER_SIZE);
+        writeWeeklyReport(writer);
+        writer.flush();
+    }
 
-        report.append("╔══════════════════════════════════════════════════════════════╗\n");
-        report.append("║     STUDENT STRESS & MOOD MONITORING SYSTEM                  ║\n");
-        report.append("║           Weekly Summary Report                              ║\n");
-        report.append("╚══════════════════════════════════════════════════════════════╝\n\n");
+    /** Writes the weekly report section by section without building the whole text first. */
+    public void writeWeeklyReport(Appendable out) throws IOException {
+        long start = REPORT_TIMER.start();
+        ReportRenderEvent event = new ReportRenderEvent();
+        event.begin();
+        ReportRenderEvent.CountingAppendable counting = null;
+        try {
+            if (event.isEnabled()) {
+                counting = new ReportRenderEvent.CountingAppendable(out);
+                writeSections(counting, event);
+            } else {
+                writeSections(out, null);
+            }
+            event.succeeded = true;
+        } finally {
+            REPORT_TIMER.stop(start);
+            if (event.shouldCommit()) {
+                event.report = "weekly";
+                event.characters = counting == null ? 0 : counting.getCount();
+                event.commit();
+            }
+        }
+    }
 
-        report.append(String.format("Report Generated: %s\n", now.format(formatter)));
-        report.append(String.format("Report Period: %s to %s\n\n",
-                weekAgo.format(DateTimeFormatter.ofPattern("MMM dd, yyyy")),
-                now.format(DateTimeFormatter.ofPattern("MMM dd, yyyy"))));
+    private void writeSections(Appendable out, ReportRenderEvent event) throws IOException {
+        LocalDateTime now = LocalDateTime.now();
+        // The period is the last seven whole days, so every section is fixed for the day
+        LocalDate today = now.toLocalDate();
+        LocalDateTime weekAgo = today.minusDays(6).atStartOfDay();
+        LocalDateTime endOfDay = today.atTime(LocalTime.MAX);
+
+        out.append(REPORT_BANNER);
+        out.append("Report Generated: ").append(TIMESTAMP_FORMAT.format(now)).append('\n');
+        out.append("Report Period: ").append(DATE_FORMAT.format(weekAgo))
+                .append(" to ").append(DATE_FORMAT.format(endOfDay)).append("\n\n");
+
+        // Sections are cached per report period and tracker data version; the
+        // recommendations only depend on the risk level, so they are keyed on that.
+        String period = weekAgo + "|" + endOfDay + "|" + moodTracker.getVersion();
+        if (event != null) event.period = period;
+        String risk = cache.get(sectionKey("risk", period), () -> burnoutAnalyzer.analyzeBurnoutRisk(endOfDay));
+
+        out.append(section(sectionKey("mood", period), () -> render(o -> writeMoodSummary(o, weekAgo, endOfDay)), event)).append('\n');
+        out.append(section(sectionKey("stress", period), () -> render(o -> writeStressSummary(o, weekAgo, endOfDay)), event)).append('\n');
+        out.append(section(sectionKey("burnout", period), () -> render(o -> writeBurnoutAssessment(o, risk, endOfDay)), event)).append('\n');
+        out.append(section(sectionKey("recommendations", risk), () -> render(o -> writeRecommendations(o, risk)), event));
+
+        out.append(REPORT_FOOTER);
+    }
+
+    // Counts sections for the render event when one is being recorded
+    private String section(String key, Supplier<String> builder, ReportRenderEvent event) {
+        if (event == null) {
+            return cache.get(key, builder);
+        }
+        event.sections++;
+        return cache.get(key, () -> {
+            event.sectionsRendered++;
+            return builder.get();
+        });
+    }
 
-        report.append(generateMoodSummary(weekAgo, now)).append("\n");
-        report.append(generateStressSummary(weekAgo, now)).append("\n");
-        report.append(generateBurnoutAssessment()).append("\n");
-        report.append(generateRecommendations());
+    private interface SectionWriter {
+        void write(Appendable out) throws IOException;
+    }
 
-        report.append("\n═══════════════════════════════════════════════════════════════\n");
-        report.append("2025. Alzaga, Arevalo, Letada\n");
-        report.append("═══════════════════════════════════════════════════════════════\n");
+    private static String render(SectionWriter section) {
+        StringBuilder text = new StringBuilder(512);
+        try {
+            section.write(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return text.toString();
+    }
 
-        return report.toString();
+    private String sectionKey(String section, String qualifier) {
+        return cacheNamespace + "|" + section + "|" + qualifier;
     }
 
-    private String generateMoodSummary(LocalDateTime from, LocalDateTime to) {
-        StringBuilder summary = new StringBuilder();
-        List<MoodLog> logs = moodTracker.getLogsInRange(from, to);
+    private void writeMoodSummary(Appendable summary, LocalDateTime from, LocalDateTime to) throws IOException {
+        // Covers archived days as well as logged entries
+        DailySummary range = moodTracker.summarizeRange(from, to);
 
         summary.append("┌─────────────────────────────────────────────────────────────┐\n");
         summary.append("│                    MOOD ANALYSIS                            │\n");
         summary.append("└─────────────────────────────────────────────────────────────┘\n");
 
-        if (logs.isEmpty()) {
+        if (range.getCount() == 0) {
             summary.append("  No mood entries recorded during this period.\n");
-            return summary.toString();
+            return;
         }
 
-        double avgMood = moodTracker.calculateAverageMoodInRange(from, to);
-        int highest = logs.stream().mapToInt(MoodLog::getMoodLevel).max().orElse(0);
-        int lowest = logs.stream().mapToInt(MoodLog::getMoodLevel).min().orElse(0);
+        double avgMood = range.getAverageMood();
+        int highest = range.getMaxMood();
+        int lowest = range.getMinMood();
 
-        summary.append(String.format("  Total Entries: %d\n", logs.size()));
-        summary.append(String.format("  Average Mood: %.1f/10 %s\n", avgMood, getMoodEmoji(avgMood)));
-        summary.append(String.format("  Highest Mood: %d/10\n", highest));
-        summary.append(String.format("  Lowest Mood: %d/10\n", lowest));
-        summary.append(String.format("  Mood Trend: %s\n", burnoutAnalyzer.detectMoodDecline() ? "Declining" : "✓ Stable/Improving"));
-        summary.append(String.format("  Mood Chart: %s\n", generateMoodChart(avgMood)));
-
-        return summary.toString();
+        summary.append("  Total Entries: ").append(String.valueOf(range.getCount())).append('\n');
+        appendOneDecimal(summary.append("  Average Mood: "), avgMood).append("/10 ").append(getMoodEmoji(avgMood)).append('\n');
+        summary.append("  Highest Mood: ").append(String.valueOf(highest)).append("/10\n");
+        summary.append("  Lowest Mood: ").append(String.valueOf(lowest)).append("/10\n");
+        summary.append("  Mood Trend: ").append(burnoutAnalyzer.detectMoodDecline() ? "Declining" : "✓ Stable/Improving").append('\n');
+        summary.append("  Mood Chart: ").append(generateMoodChart(avgMood)).append('\n');
     }
 
-    private String generateStressSummary(LocalDateTime from, LocalDateTime to) {
-        StringBuilder summary = new StringBuilder();
-        List<MoodLog> logs = moodTracker.getLogsInRange(from, to);
+    private void writeStressSummary(Appendable summary, LocalDateTime from, LocalDateTime to) throws IOException {
+        DailySummary range = moodTracker.summarizeRange(from, to);
 
         summary.append("┌─────────────────────────────────────────────────────────────┐\n");
         summary.append("│                   STRESS ANALYSIS                           │\n");
         summary.append("└─────────────────────────────────────────────────────────────┘\n");
 
-        if (logs.isEmpty()) {
+        if (range.getCount() == 0) {
             summary.append("  No stress entries recorded during this period.\n");
-            return summary.toString();
+            return;
         }
 
-        double avgStress = moodTracker.calculateAverageStressInRange(from, to);
-        int highest = logs.stream().mapToInt(MoodLog::getStressLevel).max().orElse(0);
-        int lowest = logs.stream().mapToInt(MoodLog::getStressLevel).min().orElse(0);
-
-        summary.append(String.format("  Total Entries: %d\n", logs.size()));
-        summary.append(String.format("  Average Stress: %.1f/10 %s\n", avgStress, getStressLevel(avgStress)));
-        summary.append(String.format("  Highest Stress: %d/10\n", highest));
-        summary.append(String.format("  Lowest Stress: %d/10\n", lowest));
-        summary.append(String.format("  Stress Status: %s\n", burnoutAnalyzer.detectHighStress() ? "Elevated" : "✓ Normal"));
-        summary.append(String.format("  Stress Chart: %s\n", generateStressChart(avgStress)));
+        double avgStress = range.getAverageStress();
+        int highest = range.getMaxStress();
+        int lowest = range.getMinStress();
 
-        return summary.toString();
+        summary.append("  Total Entries: ").append(String.valueOf(range.getCount())).append('\n');
+        appendOneDecimal(summary.append("  Average Stress: "), avgStress).append("/10 ").append(getStressLevel(avgStress)).append('\n');
+        summary.append("  Highest Stress: ").append(String.valueOf(highest)).append("/10\n");
+        summary.append("  Lowest Stress: ").append(String.valueOf(lowest)).append("/10\n");
+        summary.append("  Stress Status: ").append(burnoutAnalyzer.detectHighStress(to) ? "Elevated" : "✓ Normal").append('\n');
+        summary.append("  Stress Chart: ").append(generateStressChart(avgStress)).append('\n');
     }
 
-    private String generateBurnoutAssessment() {
-        StringBuilder assessment = new StringBuilder();
-        String risk = burnoutAnalyzer.analyzeBurnoutRisk();
-        int score = burnoutAnalyzer.calculateBurnoutScore();
+    private void writeBurnoutAssessment(Appendable assessment, String risk, LocalDateTime asOf) throws IOException {
+        int score = burnoutAnalyzer.calculateBurnoutScore(asOf);
 
         assessment.append("┌─────────────────────────────────────────────────────────────┐\n");
         assessment.append("│                BURNOUT RISK ASSESSMENT                      │\n");
         assessment.append("└─────────────────────────────────────────────────────────────┘\n");
 
         String emoji = risk.equals("HIGH") ? "🔴" : risk.equals("MEDIUM") ? "🟡" : "🟢";
-        assessment.append(String.format("  Overall Risk Level: %s %s\n", emoji, risk));
-        assessment.append(String.format("  Burnout Score: %d/10\n", score));
-        assessment.append(String.format("  Risk Chart: %s\n\n", generateRiskChart(score)));
+        assessment.append("  Overall Risk Level: ").append(emoji).append(' ').append(risk).append('\n');
+        assessment.append("  Burnout Score: ").append(String.valueOf(score)).append("/10\n");
+        assessment.append("  Risk Chart: ").append(generateRiskChart(score)).append("\n\n");
 
-        List<String> warnings = burnoutAnalyzer.generateWarnings();
+        List<String> warnings = burnoutAnalyzer.generateWarnings(asOf);
         if (!warnings.isEmpty()) {
             assessment.append("  Warnings & Alerts:\n");
             for (String w : warnings) {
                 if (!w.isEmpty() && !w.equals("RECOMMENDATIONS:")) assessment.append("    ").append(w).append("\n");
             }
         }
-
-        return assessment.toString();
     }
 
-    private String generateRecommendations() {
-        StringBuilder rec = new StringBuilder();
-        String risk = burnoutAnalyzer.analyzeBurnoutRisk();
+    private void writeRecommendations(Appendable rec, String risk) throws IOException {
 
         rec.append("┌─────────────────────────────────────────────────────────────┐\n");
         rec.append("│                    RECOMMENDATIONS                          │\n");
@@ -155,8 +273,6 @@ public class ReportGenerator {
         rec.append("    • Exercise 3-4 times per week\n");
         rec.append("    • Practice mindfulness or meditation\n");
         rec.append("    • Maintain social connections\n");
-
-        return rec.toString();
     }
 
     private String getMoodEmoji(double mood) {
@@ -176,25 +292,25 @@ public class ReportGenerator {
     }
 
     private String generateMoodChart(double avgMood) {
-        int bars = (int) Math.round(avgMood);
-        StringBuilder chart = new StringBuilder("[");
-        for (int i = 0; i < 10; i++) chart.append(i < bars ? "█" : "░");
-        chart.append("]");
-        return chart.toString();
+        return chart((int) Math.round(avgMood));
     }
 
     private String generateStressChart(double avgStress) {
-        int bars = (int) Math.round(avgStress);
-        StringBuilder chart = new StringBuilder("[");
-        for (int i = 0; i < 10; i++) chart.append(i < bars ? "█" : "░");
-        chart.append("]");
-        return chart.toString();
+        return chart((int) Math.round(avgStress));
     }
 
     private String generateRiskChart(int score) {
-        StringBuilder chart = new StringBuilder("[");
-        for (int i = 0; i < 10; i++) chart.append(i < score ? "█" : "░");
-        chart.append("]");
-        return chart.toString();
+        return chart(score);
+    }
+
+    private static String chart(int bars) {
+        return CHARTS[Math.max(0, Math.min(bars, 10))];
+    }
+
+    // Same digits as String.format("%.1f", value): half-up on the shortest decimal representation
+    private static Appendable appendOneDecimal(Appendable out, double value) throws IOException {
+        String digits = BigDecimal.valueOf(value).setScale(1, RoundingMode.HALF_UP).toPlainString();
+        char separator = DecimalFormatSymbols.getInstance(Locale.getDefault(Locale.Category.FORMAT)).getDecimalSeparator();
+        return out.append(separator == '.' ? digits : digits.replace('.', separator));
     }
 }
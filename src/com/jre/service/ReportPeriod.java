@@ -0,0 +1,95 @@
+/**
+ * ReportPeriod.java
+ * An inclusive range of calendar days covered by a period report
+ */
+package com.jre.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+
+public class ReportPeriod {
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("MMMM yyyy");
+
+    private final LocalDate from;
+    private final LocalDate to;
+    private final String label;
+
+    public ReportPeriod(LocalDate from, LocalDate to, String label) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Period end must not be before its start");
+        }
+        this.from = from;
+        this.to = to;
+        this.label = label;
+    }
+
+    public static ReportPeriod custom(LocalDate from, LocalDate to) {
+        return new ReportPeriod(from, to, "Custom Period");
+    }
+
+    public static ReportPeriod month(YearMonth month) {
+        return new ReportPeriod(month.atDay(1), month.atEndOfMonth(), month.format(MONTH_FORMAT));
+    }
+
+    /** Half-year semesters: 1 covers January to June, 2 covers July to December. */
+    public static ReportPeriod semester(int year, int semester) {
+        if (semester != 1 && semester != 2) {
+            throw new IllegalArgumentException("Semester must be 1 or 2");
+        }
+        LocalDate start = LocalDate.of(year, semester == 1 ? 1 : 7, 1);
+        return new ReportPeriod(start, start.plusMonths(6).minusDays(1),
+                (semester == 1 ? "1st" : "2nd") + " Semester " + year);
+    }
+
+    public static ReportPeriod year(int year) {
+        return new ReportPeriod(LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31), "Year " + year);
+    }
+
+    public static ReportPeriod currentMonth() {
+        return month(YearMonth.now());
+    }
+
+    public static ReportPeriod currentSemester() {
+        LocalDate today = LocalDate.now();
+        return semester(today.getYear(), today.getMonthValue() <= 6 ? 1 : 2);
+    }
+
+    public static ReportPeriod currentYear() {
+        return year(LocalDate.now().getYear());
+    }
+
+    /** The period of equal length that ends the day before this one starts. */
+    public ReportPeriod previous() {
+        long days = getDayCount();
+        return new ReportPeriod(from.minusDays(days), from.minusDays(1), "Previous Period");
+    }
+
+    /** The same calendar range one year earlier. */
+    public ReportPeriod yearBefore() {
+        return new ReportPeriod(from.minusYears(1), to.minusYears(1), "Same Period Last Year");
+    }
+
+    // Getters
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public long getDayCount() {
+        return ChronoUnit.DAYS.between(from, to) + 1;
+    }
+
+    @Override
+    public String toString() {
+        return label + " (" + from + " to " + to + ")";
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * ReportRenderEvent.java
+ * Flight Recorder event for one rendered report
+ */
+package com.jre.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.io.IOException;
+
+@Name("com.jre.ReportRender")
+@Label("Report Render")
+@Category({"JRE", "Reports"})
+@Description("A weekly or period report written to its output")
+class ReportRenderEvent extends jdk.jfr.Event {
+    @Label("Report")
+    String report;
+
+    @Label("Period")
+    @Description("Weekly reports: first day, last day and tracker data version; period reports: the period label")
+    String period;
+
+    @Label("Sections")
+    int sections;
+
+    @Label("Sections Rendered")
+    @Description("Sections built for this report rather than taken from the section cache")
+    int sectionsRendered;
+
+    @Label("Characters")
+    long characters;
+
+    @Label("Succeeded")
+    @Description("False if rendering or writing the report failed part way")
+    boolean succeeded;
+
+    /** Counts what passes through; only used while the event is being recorded. */
+    static final class CountingAppendable implements Appendable {
+        private final Appendable out;
+        private long count;
+
+        CountingAppendable(Appendable out) {
+            this.out = out;
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        @Override
+        public Appendable append(CharSequence text) throws IOException {
+            CharSequence value = text == null ? "null" : text;
+            count += value.length();
+            out.append(value);
+            return this;
+        }
+
+        @Override
+        public Appendable append(CharSequence text, int start, int end) throws IOException {
+            CharSequence value = text == null ? "null" : text;
+            count += end - start;
+            out.append(value, start, end);
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) throws IOException {
+            count++;
+            out.append(c);
+            return this;
+        }
+    }
+}
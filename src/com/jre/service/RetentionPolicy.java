@@ -0,0 +1,116 @@
+/**
+ * RetentionPolicy.java
+ * How long mood history is kept in full, without notes, and as daily summaries
+ */
+package com.jre.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Tiers, each counted in days back from today (0 switches a tier off):
+ * <pre>
+ *   SET|NOTES_DAYS|n     older entries lose their notes but keep mood and stress
+ *   SET|RAW_DAYS|n       older entries are folded into per-day summaries and removed
+ *   SET|SUMMARY_DAYS|n   older daily summaries are deleted
+ *   SET|BATCH_DAYS|n     days of history condensed per pass, to keep each pass short
+ * </pre>
+ * By default entries are kept for a year and their daily summaries forever.
+ */
+public class RetentionPolicy {
+    private static final String[] DEFAULT_SETTINGS = {
+            "SET|NOTES_DAYS|0",
+            "SET|RAW_DAYS|365",
+            "SET|SUMMARY_DAYS|0",
+            "SET|BATCH_DAYS|31"
+    };
+
+    private final int notesDays;
+    private final int rawDays;
+    private final int summaryDays;
+    private final int batchDays;
+
+    private RetentionPolicy(int notesDays, int rawDays, int summaryDays, int batchDays) {
+        this.notesDays = notesDays;
+        this.rawDays = rawDays;
+        this.summaryDays = summaryDays;
+        this.batchDays = batchDays;
+    }
+
+    public static RetentionPolicy defaults() {
+        return parse(List.of(DEFAULT_SETTINGS));
+    }
+
+    /** Parses {@code SET|NAME|days} lines; blank lines and lines starting with '#' are ignored. */
+    public static RetentionPolicy parse(List<String> lines) {
+        int notesDays = 0;
+        int rawDays = 365;
+        int summaryDays = 0;
+        int batchDays = 31;
+
+        for (String raw : lines) {
+            String line = raw.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] parts = line.split("\\|");
+            if (parts.length != 3 || !parts[0].equals("SET")) {
+                throw new IllegalArgumentException("Invalid retention line: " + line);
+            }
+            int days;
+            try {
+                days = Integer.parseInt(parts[2].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid number in retention line: " + line);
+            }
+            if (days < 0) {
+                throw new IllegalArgumentException("Retention days cannot be negative: " + line);
+            }
+            switch (parts[1]) {
+                case "NOTES_DAYS": notesDays = days; break;
+                case "RAW_DAYS": rawDays = days; break;
+                case "SUMMARY_DAYS": summaryDays = days; break;
+                case "BATCH_DAYS": batchDays = days; break;
+                default: throw new IllegalArgumentException("Unknown setting: " + parts[1]);
+            }
+        }
+
+        if (notesDays > 0 && rawDays > 0 && notesDays > rawDays) {
+            throw new IllegalArgumentException("NOTES_DAYS cannot be longer than RAW_DAYS");
+        }
+        if (summaryDays > 0 && (rawDays == 0 || summaryDays < rawDays)) {
+            throw new IllegalArgumentException("SUMMARY_DAYS needs RAW_DAYS and cannot be shorter than it");
+        }
+        if (batchDays < 1) {
+            throw new IllegalArgumentException("BATCH_DAYS must be at least 1");
+        }
+        return new RetentionPolicy(notesDays, rawDays, summaryDays, batchDays);
+    }
+
+    public int getNotesDays() {
+        return notesDays;
+    }
+
+    public int getRawDays() {
+        return rawDays;
+    }
+
+    public int getSummaryDays() {
+        return summaryDays;
+    }
+
+    public int getBatchDays() {
+        return batchDays;
+    }
+
+    // Cutoffs: data dated before the returned day falls into the next tier; null when the tier is off
+    LocalDate notesCutoff(LocalDate today) {
+        return notesDays == 0 ? null : today.minusDays(notesDays);
+    }
+
+    LocalDate rawCutoff(LocalDate today) {
+        return rawDays == 0 ? null : today.minusDays(rawDays);
+    }
+
+    LocalDate summaryCutoff(LocalDate today) {
+        return summaryDays == 0 ? null : today.minusDays(summaryDays);
+    }
+}
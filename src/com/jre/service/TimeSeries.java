@@ -0,0 +1,178 @@
+package com.jre.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A time-ordered series with a pyramid of Largest-Triangle-Three-Buckets downsampled
+ * levels, each a quarter the size of the one below. A view request picks the coarsest
+ * level that still has enough points in the window and only runs LTTB over that slice,
+ * so the work per redraw depends on the output size, not on the length of the series.
+ */
+public class TimeSeries {
+    private static final int LEVEL_FACTOR = 4;
+    private static final int MIN_LEVEL_SIZE = 1024;
+
+    // levels.get(0) is the raw series
+    private final List<long[]> levelTimes = new ArrayList<>();
+    private final List<float[]> levelValues = new ArrayList<>();
+
+    /** A downsampled slice ready to draw. */
+    public static class Points {
+        public final long[] times;
+        public final float[] values;
+        public final int count;
+
+        Points(long[] times, float[] values, int count) {
+            this.times = times;
+            this.values = values;
+            this.count = count;
+        }
+    }
+
+    /** Times must be sorted ascending; the arrays are kept, not copied. */
+    public TimeSeries(long[] times, float[] values) {
+        if (times.length != values.length) {
+            throw new IllegalArgumentException("Times and values must have the same length");
+        }
+        levelTimes.add(times);
+        levelValues.add(values);
+        while (levelTimes.get(levelTimes.size() - 1).length / LEVEL_FACTOR >= MIN_LEVEL_SIZE) {
+            long[] t = levelTimes.get(levelTimes.size() - 1);
+            float[] v = levelValues.get(levelValues.size() - 1);
+            int[] picked = lttb(t, v, 0, t.length, t.length / LEVEL_FACTOR);
+            long[] nextTimes = new long[picked.length];
+            float[] nextValues = new float[picked.length];
+            for (int i = 0; i < picked.length; i++) {
+                nextTimes[i] = t[picked[i]];
+                nextValues[i] = v[picked[i]];
+            }
+            levelTimes.add(nextTimes);
+            levelValues.add(nextValues);
+        }
+    }
+
+    public int size() {
+        return levelTimes.get(0).length;
+    }
+
+    public int getLevelCount() {
+        return levelTimes.size();
+    }
+
+    public long getFirstTime() {
+        long[] t = levelTimes.get(0);
+        return t.length == 0 ? 0 : t[0];
+    }
+
+    public long getLastTime() {
+        long[] t = levelTimes.get(0);
+        return t.length == 0 ? 0 : t[t.length - 1];
+    }
+
+    /** At most maxPoints points covering [from, to], plus one neighbour on each side. */
+    public Points sample(long from, long to, int maxPoints) {
+        maxPoints = Math.max(3, maxPoints);
+        int level = 0;
+        for (int l = levelTimes.size() - 1; l > 0; l--) {
+            long[] t = levelTimes.get(l);
+            if (upperBound(t, to) - lowerBound(t, from) >= maxPoints) {
+                level = l;
+                break;
+            }
+        }
+
+        long[] t = levelTimes.get(level);
+        float[] v = levelValues.get(level);
+        int start = Math.max(0, lowerBound(t, from) - 1);
+        int end = Math.min(t.length, upperBound(t, to) + 1);
+        if (end - start <= maxPoints) {
+            return new Points(Arrays.copyOfRange(t, start, end), Arrays.copyOfRange(v, start, end), end - start);
+        }
+
+        int[] picked = lttb(t, v, start, end, maxPoints);
+        long[] times = new long[picked.length];
+        float[] values = new float[picked.length];
+        for (int i = 0; i < picked.length; i++) {
+            times[i] = t[picked[i]];
+            values[i] = v[picked[i]];
+        }
+        return new Points(times, values, picked.length);
+    }
+
+    /**
+     * Largest-Triangle-Three-Buckets over [from, to): keeps the first and last point and,
+     * from each bucket in between, the point forming the largest triangle with the previously
+     * kept point and the average of the next bucket. Returns the kept indexes.
+     */
+    public static int[] lttb(long[] times, float[] values, int from, int to, int threshold) {
+        int n = to - from;
+        if (threshold >= n || threshold < 3) {
+            int[] all = new int[n];
+            for (int i = 0; i < n; i++) all[i] = from + i;
+            return all;
+        }
+
+        int[] sampled = new int[threshold];
+        int count = 0;
+        double every = (double) (n - 2) / (threshold - 2);
+        int a = from;
+        sampled[count++] = a;
+
+        for (int i = 0; i < threshold - 2; i++) {
+            int avgStart = from + (int) Math.floor((i + 1) * every) + 1;
+            int avgEnd = Math.min(from + (int) Math.floor((i + 2) * every) + 1, to);
+            double avgX = 0;
+            double avgY = 0;
+            for (int j = avgStart; j < avgEnd; j++) {
+                avgX += times[j];
+                avgY += values[j];
+            }
+            int avgCount = Math.max(1, avgEnd - avgStart);
+            avgX /= avgCount;
+            avgY /= avgCount;
+
+            int rangeStart = from + (int) Math.floor(i * every) + 1;
+            int rangeEnd = from + (int) Math.floor((i + 1) * every) + 1;
+            double pointAX = times[a];
+            double pointAY = values[a];
+            double maxArea = -1;
+            int next = rangeStart;
+            for (int j = rangeStart; j < rangeEnd; j++) {
+                double area = Math.abs((pointAX - avgX) * (values[j] - pointAY)
+                        - (pointAX - times[j]) * (avgY - pointAY));
+                if (area > maxArea) {
+                    maxArea = area;
+                    next = j;
+                }
+            }
+            sampled[count++] = next;
+            a = next;
+        }
+        sampled[count++] = to - 1;
+        return sampled;
+    }
+
+    private static int lowerBound(long[] times, long value) {
+        int low = 0;
+        int high = times.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] < value) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    private static int upperBound(long[] times, long value) {
+        int low = 0;
+        int high = times.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] <= value) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+}
@@ -0,0 +1,215 @@
+/**
+ * MoodChartPanel.java
+ * Zoomable mood and stress line chart painted with Java2D
+ */
+package com.jre.ui;
+
+import com.jre.model.MoodLog;
+import com.jre.service.TimeSeries;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.geom.Path2D;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+public class MoodChartPanel extends JPanel {
+    private static final int LEFT = 50;
+    private static final int RIGHT = 20;
+    private static final int TOP = 30;
+    private static final int BOTTOM = 40;
+    private static final Color MOOD_COLOR = new Color(40, 110, 200);
+    private static final Color STRESS_COLOR = new Color(210, 60, 50);
+    private static final DateTimeFormatter AXIS_FORMAT = DateTimeFormatter.ofPattern("MMM dd, yyyy");
+
+    private final TimeSeries moodSeries;
+    private final TimeSeries stressSeries;
+    private long viewFrom;
+    private long viewTo;
+    private int dragStartX = -1;
+    private long dragViewFrom;
+
+    /**
+     * The mood and stress series behind a chart. Building their downsampling pyramids walks
+     * the whole history, so callers build this off the EDT and hand it to the constructor.
+     */
+    public static class Data {
+        private final TimeSeries moodSeries;
+        private final TimeSeries stressSeries;
+
+        private Data(TimeSeries moodSeries, TimeSeries stressSeries) {
+            this.moodSeries = moodSeries;
+            this.stressSeries = stressSeries;
+        }
+
+        public static Data build(List<MoodLog> sortedLogs) {
+            int n = sortedLogs.size();
+            long[] times = new long[n];
+            float[] mood = new float[n];
+            float[] stress = new float[n];
+            for (int i = 0; i < n; i++) {
+                MoodLog log = sortedLogs.get(i);
+                times[i] = log.getDate().toEpochSecond(ZoneOffset.UTC);
+                mood[i] = log.getMoodLevel();
+                stress[i] = log.getStressLevel();
+            }
+            return new Data(new TimeSeries(times, mood), new TimeSeries(times, stress));
+        }
+    }
+
+    public MoodChartPanel(Data data) {
+        moodSeries = data.moodSeries;
+        stressSeries = data.stressSeries;
+        resetView();
+
+        setBackground(Color.WHITE);
+        setPreferredSize(new Dimension(760, 420));
+
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                zoom(e.getX(), e.getWheelRotation() < 0 ? 0.8 : 1.25);
+            }
+
+            @Override
+            public void mousePressed(MouseEvent e) {
+                dragStartX = e.getX();
+                dragViewFrom = viewFrom;
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                if (dragStartX < 0) return;
+                long span = viewTo - viewFrom;
+                long shift = (long) ((double) (dragStartX - e.getX()) / plotWidth() * span);
+                setView(dragViewFrom + shift, dragViewFrom + shift + span);
+            }
+
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                dragStartX = -1;
+            }
+
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2) {
+                    resetView();
+                    repaint();
+                }
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+        addMouseWheelListener(mouse);
+    }
+
+    private void resetView() {
+        viewFrom = moodSeries.getFirstTime();
+        viewTo = Math.max(moodSeries.getLastTime(), viewFrom + 3600);
+    }
+
+    private void zoom(int mouseX, double factor) {
+        double anchor = viewFrom + (double) (mouseX - LEFT) / plotWidth() * (viewTo - viewFrom);
+        long newFrom = (long) (anchor - (anchor - viewFrom) * factor);
+        long newTo = (long) (anchor + (viewTo - anchor) * factor);
+        if (newTo - newFrom < 600) return;
+        setView(newFrom, newTo);
+    }
+
+    // Keeps the view inside the data range while preserving its width where possible
+    private void setView(long from, long to) {
+        long first = moodSeries.getFirstTime();
+        long last = Math.max(moodSeries.getLastTime(), first + 3600);
+        long span = Math.min(to - from, last - first);
+        from = Math.max(first, Math.min(from, last - span));
+        viewFrom = from;
+        viewTo = from + span;
+        repaint();
+    }
+
+    private int plotWidth() {
+        return Math.max(1, getWidth() - LEFT - RIGHT);
+    }
+
+    private int plotHeight() {
+        return Math.max(1, getHeight() - TOP - BOTTOM);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Graphics2D g2 = (Graphics2D) g.create();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        int width = plotWidth();
+        int height = plotHeight();
+
+        // Grid and y axis (levels 1-10)
+        g2.setFont(new Font("Arial", Font.PLAIN, 11));
+        for (int level = 1; level <= 10; level++) {
+            int y = yFor(level, height);
+            g2.setColor(new Color(230, 230, 230));
+            g2.drawLine(LEFT, y, LEFT + width, y);
+            g2.setColor(Color.DARK_GRAY);
+            g2.drawString(String.valueOf(level), LEFT - 20, y + 4);
+        }
+        g2.drawRect(LEFT, TOP, width, height);
+
+        if (moodSeries.size() == 0) {
+            g2.drawString("No mood entries recorded yet.", LEFT + 20, TOP + 20);
+            g2.dispose();
+            return;
+        }
+
+        // x axis labels
+        for (int i = 0; i <= 4; i++) {
+            long t = viewFrom + (viewTo - viewFrom) * i / 4;
+            String label = LocalDateTime.ofEpochSecond(t, 0, ZoneOffset.UTC).format(AXIS_FORMAT);
+            int x = LEFT + width * i / 4 - g2.getFontMetrics().stringWidth(label) / 2;
+            g2.drawString(label, Math.max(0, Math.min(x, getWidth() - 80)), TOP + height + 18);
+        }
+
+        Shape clip = g2.getClip();
+        g2.clipRect(LEFT, TOP, width + 1, height + 1);
+        g2.setStroke(new BasicStroke(1.5f));
+        drawSeries(g2, moodSeries, MOOD_COLOR, width, height);
+        drawSeries(g2, stressSeries, STRESS_COLOR, width, height);
+        g2.setClip(clip);
+
+        // Legend
+        g2.setColor(MOOD_COLOR);
+        g2.fillRect(LEFT, 10, 12, 4);
+        g2.drawString("Mood", LEFT + 16, 16);
+        g2.setColor(STRESS_COLOR);
+        g2.fillRect(LEFT + 70, 10, 12, 4);
+        g2.drawString("Stress", LEFT + 86, 16);
+        g2.setColor(Color.GRAY);
+        g2.drawString("Scroll to zoom, drag to pan, double-click to reset", LEFT + 150, 16);
+        g2.dispose();
+    }
+
+    // One point per pixel column is enough; LTTB keeps the peaks and dips
+    private void drawSeries(Graphics2D g2, TimeSeries series, Color color, int width, int height) {
+        TimeSeries.Points points = series.sample(viewFrom, viewTo, width);
+        if (points.count == 0) return;
+        double scale = (double) width / Math.max(1, viewTo - viewFrom);
+        Path2D.Float path = new Path2D.Float(Path2D.WIND_NON_ZERO, points.count);
+        for (int i = 0; i < points.count; i++) {
+            float x = (float) (LEFT + (points.times[i] - viewFrom) * scale);
+            float y = yFor(points.values[i], height);
+            if (i == 0) path.moveTo(x, y);
+            else path.lineTo(x, y);
+        }
+        g2.setColor(color);
+        g2.draw(path);
+    }
+
+    private int yFor(double level, int height) {
+        return TOP + (int) Math.round((10 - level) / 9.0 * height);
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * MoodHistoryDialog.java
+ * Browser for the full mood history with date, keyword and sort controls
+ */
+package com.jre.ui;
+
+import com.jre.service.MoodHistoryView;
+import com.jre.service.MoodTracker;
+
+import javax.swing.*;
+import java.awt.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+public class MoodHistoryDialog extends JDialog {
+    private final MoodHistoryView view;
+    private final MoodHistoryTableModel tableModel;
+    private final JLabel lblCount = new JLabel();
+
+    public MoodHistoryDialog(Frame owner, MoodTracker moodTracker) {
+        super(owner, "Mood History", true);
+        view = new MoodHistoryView(moodTracker);
+        tableModel = new MoodHistoryTableModel(view);
+
+        JPanel panel = new JPanel(new BorderLayout(10, 10));
+        panel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+
+        JTextField txtFrom = new JTextField(9);
+        JTextField txtTo = new JTextField(9);
+        JTextField txtKeyword = new JTextField(12);
+        JComboBox<MoodHistoryView.SortKey> cmbSort = new JComboBox<>(MoodHistoryView.SortKey.values());
+        JCheckBox chkAscending = new JCheckBox("Ascending");
+        JButton btnApply = new JButton("Apply");
+
+        JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        filterPanel.add(new JLabel("From (yyyy-MM-dd):"));
+        filterPanel.add(txtFrom);
+        filterPanel.add(new JLabel("To:"));
+        filterPanel.add(txtTo);
+        filterPanel.add(new JLabel("Keyword:"));
+        filterPanel.add(txtKeyword);
+        filterPanel.add(new JLabel("Sort by:"));
+        filterPanel.add(cmbSort);
+        filterPanel.add(chkAscending);
+        filterPanel.add(btnApply);
+        panel.add(filterPanel, BorderLayout.NORTH);
+
+        JTable table = new JTable(tableModel);
+        table.setFillsViewportHeight(true);
+        table.setAutoCreateRowSorter(false);
+        table.getColumnModel().getColumn(0).setPreferredWidth(140);
+        table.getColumnModel().getColumn(1).setPreferredWidth(50);
+        table.getColumnModel().getColumn(2).setPreferredWidth(50);
+        table.getColumnModel().getColumn(3).setPreferredWidth(400);
+        panel.add(new JScrollPane(table), BorderLayout.CENTER);
+
+        JButton btnClose = new JButton("Close");
+        btnClose.addActionListener(e -> dispose());
+        JPanel bottomPanel = new JPanel(new BorderLayout());
+        bottomPanel.add(lblCount, BorderLayout.WEST);
+        bottomPanel.add(btnClose, BorderLayout.EAST);
+        panel.add(bottomPanel, BorderLayout.SOUTH);
+
+        btnApply.addActionListener(e -> {
+            try {
+                LocalDateTime from = txtFrom.getText().trim().isEmpty() ? null
+                        : LocalDate.parse(txtFrom.getText().trim()).atStartOfDay();
+                LocalDateTime to = txtTo.getText().trim().isEmpty() ? null
+                        : LocalDate.parse(txtTo.getText().trim()).atTime(23, 59, 59, 999_999_999);
+                view.setFilter(from, to, txtKeyword.getText());
+                view.setSort((MoodHistoryView.SortKey) cmbSort.getSelectedItem(), chkAscending.isSelected());
+                refresh();
+            } catch (DateTimeParseException ex) {
+                JOptionPane.showMessageDialog(this, "Please enter dates as yyyy-MM-dd");
+            }
+        });
+        getRootPane().setDefaultButton(btnApply);
+
+        add(panel);
+        updateCount();
+        setSize(900, 500);
+        setLocationRelativeTo(owner);
+    }
+
+    private void refresh() {
+        tableModel.refresh();
+        updateCount();
+    }
+
+    private void updateCount() {
+        lblCount.setText(tableModel.getRowCount() + " entries");
+    }
+}
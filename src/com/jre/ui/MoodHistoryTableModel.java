@@ -0,0 +1,96 @@
+/**
+ * MoodHistoryTableModel.java
+ * Lazy table model that pages mood history rows in from a MoodHistoryView
+ */
+package com.jre.ui;
+
+import com.jre.model.MoodLog;
+import com.jre.service.MoodHistoryView;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class MoodHistoryTableModel extends AbstractTableModel {
+    private static final int PAGE_SIZE = 200;
+    private static final int MAX_CACHED_PAGES = 8;
+    private static final String[] COLUMNS = {"Date", "Mood", "Stress", "Notes"};
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm");
+
+    private final MoodHistoryView view;
+    private int rowCount;
+    private long version;
+    private boolean refreshPending;
+
+    // Only the most recently used pages are kept, so memory does not grow with history size
+    private final Map<Integer, List<MoodLog>> pages = new LinkedHashMap<Integer, List<MoodLog>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<MoodLog>> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+
+    public MoodHistoryTableModel(MoodHistoryView view) {
+        this.view = view;
+        refresh();
+    }
+
+    /** Re-reads the row count and drops cached pages, e.g. after the filter or data changed. */
+    public void refresh() {
+        pages.clear();
+        rowCount = view.size();
+        version = view.getBuiltVersion();
+        refreshPending = false;
+        fireTableDataChanged();
+    }
+
+    public MoodLog getLogAt(int row) {
+        List<MoodLog> page = pages.get(row / PAGE_SIZE);
+        if (page == null) {
+            page = view.getPage((row / PAGE_SIZE) * PAGE_SIZE, PAGE_SIZE);
+            pages.put(row / PAGE_SIZE, page);
+            // New data arrived since the last refresh; rows may have shifted
+            if (view.getBuiltVersion() != version && !refreshPending) {
+                refreshPending = true;
+                SwingUtilities.invokeLater(this::refresh);
+            }
+        }
+        int index = row % PAGE_SIZE;
+        return index < page.size() ? page.get(index) : null;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column == 1 || column == 2 ? Integer.class : String.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        MoodLog log = getLogAt(row);
+        if (log == null) return null;
+        switch (column) {
+            case 0: return log.getDate().format(DATE_FORMAT);
+            case 1: return log.getMoodLevel();
+            case 2: return log.getStressLevel();
+            default: return log.getNotes().isEmpty() ? "(No notes)" : log.getNotes().replace('\n', ' ');
+        }
+    }
+}
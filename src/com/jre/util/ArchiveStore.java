@@ -0,0 +1,145 @@
+/**
+ * ArchiveStore.java
+ * Daily summaries of mood history that the retention policy folded out of the mood log
+ */
+package com.jre.util;
+
+import com.jre.model.DailySummary;
+
+import java.io.BufferedOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code daily_archive.txt} holds one framed line per archived day,
+ * {@code DAY|yyyy-MM-dd|<10 mood counts>|<10 stress counts>} with comma separated level
+ * counts, after a {@code FOLDED_BEFORE|yyyy-MM-dd} line marking where the logs in
+ * mood_logs.txt begin. Unlike the snapshot this file is the only copy of its data, so it is
+ * replaced atomically and must be written before the logs it covers are removed.
+ */
+public class ArchiveStore {
+    private final Path archiveFile;
+
+    public ArchiveStore(FileHandler fileHandler) {
+        this.archiveFile = Paths.get(fileHandler.getDataDir(), "daily_archive.txt");
+    }
+
+    public static class Archive {
+        private final List<DailySummary> days;
+        private final LocalDate foldedBefore;
+
+        Archive(List<DailySummary> days, LocalDate foldedBefore) {
+            this.days = days;
+            this.foldedBefore = foldedBefore;
+        }
+
+        /** Archived days, oldest first. */
+        public List<DailySummary> getDays() {
+            return days;
+        }
+
+        /** First day whose logs are still in the mood log; null if nothing was folded yet. */
+        public LocalDate getFoldedBefore() {
+            return foldedBefore;
+        }
+    }
+
+    public boolean write(List<DailySummary> days, LocalDate foldedBefore) {
+        Path temp = archiveFile.resolveSibling(archiveFile.getFileName() + ".tmp");
+        try {
+            try (FileOutputStream file = new FileOutputStream(temp.toFile());
+                 BufferedOutputStream out = new BufferedOutputStream(file, 64 * 1024)) {
+                if (foldedBefore != null) {
+                    RecordFrame.write(out, "FOLDED_BEFORE|" + foldedBefore);
+                }
+                StringBuilder line = new StringBuilder(128);
+                for (DailySummary day : days) {
+                    line.setLength(0);
+                    line.append("DAY|").append(day.getDay()).append('|');
+                    appendCounts(line, day.getMoodHistogram());
+                    line.append('|');
+                    appendCounts(line, day.getStressHistogram());
+                    RecordFrame.write(out, line.toString());
+                }
+                out.flush();
+                file.getFD().sync();
+            }
+            FileHandler.replace(temp, archiveFile);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error writing daily archive: " + e.getMessage());
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // Best effort cleanup; the old archive is still in place
+            }
+            return false;
+        }
+    }
+
+    private static void appendCounts(StringBuilder line, int[] counts) {
+        for (int i = 0; i < counts.length; i++) {
+            if (i > 0) line.append(',');
+            line.append(counts[i]);
+        }
+    }
+
+    /** Loads the archive, or returns null if there is none. */
+    public Archive load() {
+        if (!Files.exists(archiveFile)) {
+            return null;
+        }
+        List<DailySummary> days = new ArrayList<>();
+        LocalDate foldedBefore = null;
+        try (FileInputStream in = new FileInputStream(archiveFile.toFile())) {
+            RecordFrame.Reader reader = new RecordFrame.Reader(in, 0);
+            while (reader.next()) {
+                if (reader.kind() != RecordFrame.Reader.FRAMED) {
+                    if (reader.end() > reader.start()) {
+                        System.err.println("Skipping damaged daily archive record at byte " + reader.lineOffset());
+                    }
+                    continue;
+                }
+                String[] parts = reader.text().split("\\|");
+                try {
+                    if (parts[0].equals("FOLDED_BEFORE") && parts.length == 2) {
+                        foldedBefore = LocalDate.parse(parts[1]);
+                    } else if (parts[0].equals("DAY") && parts.length == 4) {
+                        days.add(DailySummary.fromHistograms(LocalDate.parse(parts[1]),
+                                parseCounts(parts[2]), parseCounts(parts[3])));
+                    } else {
+                        throw new IllegalArgumentException("unknown record " + parts[0]);
+                    }
+                } catch (DateTimeException | IllegalArgumentException e) {
+                    System.err.println("Skipping invalid daily archive record: " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error loading daily archive: " + e.getMessage());
+            return null;
+        }
+        days.sort((a, b) -> a.getDay().compareTo(b.getDay()));
+        return new Archive(days, foldedBefore);
+    }
+
+    private static int[] parseCounts(String text) {
+        String[] parts = text.split(",");
+        if (parts.length != 10) {
+            throw new IllegalArgumentException("expected 10 level counts");
+        }
+        int[] counts = new int[10];
+        for (int i = 0; i < 10; i++) {
+            counts[i] = Integer.parseInt(parts[i]);
+            if (counts[i] < 0) throw new IllegalArgumentException("negative level count");
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,370 @@
+/**
+ * ChangeFeed.java
+ * Append-only feed of added and updated mood logs for downstream consumers
+ */
+package com.jre.util;
+
+import com.jre.metrics.Counter;
+import com.jre.metrics.Metrics;
+import com.jre.model.MoodLog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code mood_changes.log} holds one framed line per change, {@code <sequence>|ADDED|<log>}
+ * or {@code <sequence>|UPDATED|<log>}, with the log in the mood file format. Sequence
+ * numbers start at 1 and grow by one per record; unlike mood_logs.txt the feed is never
+ * rewritten, so a byte position stays valid for as long as the file exists.
+ *
+ * Changes are written after the mood file, by the single process that owns the data
+ * directory. Consumers read with positioned reads from a {@link Cursor}, see only complete
+ * records, and keep their cursor in a {@link FeedOffsetStore}.
+ */
+public class ChangeFeed {
+    private static final Counter RECORDS_WRITTEN = Metrics.counter("ChangeFeed.recordsWritten");
+    private static final Counter RECORDS_READ = Metrics.counter("ChangeFeed.recordsRead");
+
+    // Bytes read from the end of the feed per step while looking for the last record
+    private static final int RECOVERY_WINDOW = 64 * 1024;
+
+    public enum Operation { ADDED, UPDATED }
+
+    /** One record of the feed. */
+    public static class Change {
+        private final long sequence;
+        private final Operation operation;
+        private final MoodLog log;
+
+        Change(long sequence, Operation operation, MoodLog log) {
+            this.sequence = sequence;
+            this.operation = operation;
+            this.log = log;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public Operation getOperation() {
+            return operation;
+        }
+
+        public MoodLog getLog() {
+            return log;
+        }
+    }
+
+    /** Where a consumer resumes: the next sequence number and the byte position of its record. */
+    public static class Cursor {
+        public static final Cursor START = new Cursor(1, 0);
+
+        private final long sequence;
+        private final long position;
+
+        public Cursor(long sequence, long position) {
+            this.sequence = sequence;
+            this.position = position;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public long getPosition() {
+            return position;
+        }
+
+        @Override
+        public String toString() {
+            return sequence + "@" + position;
+        }
+    }
+
+    private final Path feedFile;
+    // Sequence of the last record written; -1 until the feed was checked by the first append
+    private long lastSequence = -1;
+
+    public ChangeFeed(FileHandler fileHandler) {
+        this.feedFile = Paths.get(fileHandler.getDataDir(), "mood_changes.log");
+    }
+
+    public Path getPath() {
+        return feedFile;
+    }
+
+    /**
+     * Writes one record per log with a single write; returns the sequence of the last one,
+     * or -1 if the write failed (it is cut back off, and the sequence numbers reused).
+     */
+    public synchronized long append(Operation operation, List<MoodLog> logs) {
+        long sequence;
+        try {
+            sequence = getLastSequence();
+        } catch (IOException e) {
+            System.err.println("Error opening change feed: " + e.getMessage());
+            return -1;
+        }
+        if (logs.isEmpty()) {
+            return sequence;
+        }
+
+        ByteArrayOutputStream records = new ByteArrayOutputStream(Math.max(256, Math.min(256 * 1024, logs.size() * 112)));
+        StringBuilder line = new StringBuilder(128);
+        long sizeBefore = -1;
+        try (FileOutputStream out = new FileOutputStream(feedFile.toFile(), true)) {
+            for (MoodLog log : logs) {
+                line.setLength(0);
+                line.append(++sequence).append('|').append(operation.name()).append('|').append(log.toFileString());
+                RecordFrame.write(records, line.toString());
+            }
+            sizeBefore = out.getChannel().size();
+            records.writeTo(out);
+        } catch (IOException e) {
+            System.err.println("Error appending to change feed: " + e.getMessage());
+            truncateTo(sizeBefore);
+            return -1;
+        }
+        lastSequence = sequence;
+        RECORDS_WRITTEN.add(logs.size());
+        return sequence;
+    }
+
+    /** Sequence number of the last record written, 0 if the feed is empty. */
+    public synchronized long getLastSequence() throws IOException {
+        if (lastSequence < 0) {
+            lastSequence = recover();
+        }
+        return lastSequence;
+    }
+
+    // Finds the last intact record by reading backwards from the end, and cuts off anything
+    // after it, left by a crash during an append. Returns that record's sequence.
+    private long recover() throws IOException {
+        if (!Files.exists(feedFile)) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(feedFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            long window = RECOVERY_WINDOW;
+            while (true) {
+                long from = Math.max(0, size - window);
+                byte[] bytes = new byte[(int) (size - from)];
+                readFully(channel, bytes, from);
+                int newline = lastNewline(bytes, bytes.length - 1);
+                while (newline >= 0) {
+                    int lineStart = lastNewline(bytes, newline - 1) + 1;
+                    if (lineStart == 0 && from > 0) {
+                        // The line may begin before the window
+                        break;
+                    }
+                    if (RecordFrame.checkedPayloadLength(bytes, lineStart, newline) >= 0) {
+                        long intactEnd = from + newline + 1;
+                        cutOff(channel, intactEnd, size);
+                        return parseSequence(bytes, lineStart + RecordFrame.HEADER_BYTES, newline);
+                    }
+                    newline = lineStart - 1;
+                }
+                if (from == 0) {
+                    cutOff(channel, 0, size);
+                    return 0;
+                }
+                window *= 2;
+            }
+        }
+    }
+
+    private static void cutOff(FileChannel channel, long intactEnd, long size) throws IOException {
+        if (intactEnd < size) {
+            channel.truncate(intactEnd);
+            channel.force(true);
+            System.err.println("Recovered change feed: removed " + (size - intactEnd) + " byte(s) after byte " + intactEnd + ".");
+        }
+    }
+
+    private static int lastNewline(byte[] bytes, int from) {
+        for (int i = from; i >= 0; i--) {
+            if (bytes[i] == '\n') return i;
+        }
+        return -1;
+    }
+
+    private static long parseSequence(byte[] bytes, int start, int end) {
+        long sequence = 0;
+        for (int i = start; i < end && bytes[i] != '|'; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IllegalArgumentException("Invalid sequence number");
+            }
+            sequence = sequence * 10 + digit;
+        }
+        return sequence;
+    }
+
+    private static void readFully(FileChannel channel, byte[] bytes, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Change feed shrank while reading");
+            }
+        }
+    }
+
+    private void truncateTo(long size) {
+        if (size < 0) return;
+        try (FileChannel channel = FileChannel.open(feedFile, StandardOpenOption.WRITE)) {
+            if (channel.size() > size) {
+                channel.truncate(size);
+            }
+        } catch (IOException e) {
+            System.err.println("Error removing a failed change feed append: " + e.getMessage());
+        }
+    }
+
+    /** Opens a reader that starts at the cursor; the feed file need not exist yet. */
+    public Tail tail(Cursor from) {
+        return new Tail(feedFile, from);
+    }
+
+    /**
+     * Reads the feed from a cursor in batches. Each poll continues where the last one
+     * stopped with positioned reads on one open channel, so polling a feed that did not grow
+     * costs one size check. A record is only delivered once its line is complete.
+     *
+     * If the record at the cursor's position does not carry the cursor's sequence (the feed
+     * was replaced, or the cursor is hand made), the feed is scanned from its start and the
+     * records before the cursor's sequence are skipped.
+     */
+    public static class Tail implements Closeable {
+        private final Path feedFile;
+        private FileChannel channel;
+        private byte[] buffer = new byte[64 * 1024];
+        private long bufferOffset;
+        private int limit;
+        private long sequence;
+        private long position;
+        private boolean verified;
+
+        Tail(Path feedFile, Cursor from) {
+            this.feedFile = feedFile;
+            this.sequence = from.getSequence();
+            this.position = from.getPosition();
+            this.bufferOffset = position;
+        }
+
+        /** Returns up to maxChanges records after the cursor, or none if the consumer is caught up. */
+        public List<Change> poll(int maxChanges) throws IOException {
+            List<Change> changes = new ArrayList<>();
+            if (channel == null) {
+                if (!Files.exists(feedFile)) {
+                    return changes;
+                }
+                channel = FileChannel.open(feedFile, StandardOpenOption.READ);
+                if (position > channel.size()) {
+                    rewind();
+                }
+            }
+
+            while (changes.size() < maxChanges) {
+                int start = (int) (position - bufferOffset);
+                int newline = indexOfNewline(start);
+                if (newline < 0) {
+                    if (!fill()) break;
+                    continue;
+                }
+                long next = bufferOffset + newline + 1;
+                if (RecordFrame.checkedPayloadLength(buffer, start, newline) < 0) {
+                    if (!verified && position > 0) {
+                        // The cursor does not point at a record boundary
+                        rewind();
+                        continue;
+                    }
+                    System.err.println("Skipping damaged change feed record at byte " + position);
+                    position = next;
+                    continue;
+                }
+                String[] parts = new String(buffer, start + RecordFrame.HEADER_BYTES,
+                        newline - start - RecordFrame.HEADER_BYTES, StandardCharsets.UTF_8).split("\\|", 3);
+                long recordSequence;
+                try {
+                    recordSequence = Long.parseLong(parts[0]);
+                    if (!verified) {
+                        verified = true;
+                        if (recordSequence != sequence && position > 0) {
+                            rewind();
+                            continue;
+                        }
+                    }
+                    if (recordSequence >= sequence) {
+                        changes.add(new Change(recordSequence, Operation.valueOf(parts[1]), MoodLog.fromFileString(parts[2])));
+                        sequence = recordSequence + 1;
+                    }
+                } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                    System.err.println("Skipping invalid change feed record at byte " + position + ": " + e.getMessage());
+                }
+                position = next;
+            }
+            RECORDS_READ.add(changes.size());
+            return changes;
+        }
+
+        /** The position after the last record returned, to be stored once the batch is handled. */
+        public Cursor getCursor() {
+            return new Cursor(sequence, position);
+        }
+
+        private void rewind() {
+            position = 0;
+            bufferOffset = 0;
+            limit = 0;
+            verified = true;
+        }
+
+        private int indexOfNewline(int from) {
+            for (int i = from; i < limit; i++) {
+                if (buffer[i] == '\n') return i;
+            }
+            return -1;
+        }
+
+        // Drops the consumed bytes and reads more at the end; false if the feed has no more
+        private boolean fill() throws IOException {
+            int consumed = (int) (position - bufferOffset);
+            if (consumed > 0) {
+                System.arraycopy(buffer, consumed, buffer, 0, limit - consumed);
+                limit -= consumed;
+                bufferOffset = position;
+            }
+            if (limit == buffer.length) {
+                byte[] grown = new byte[buffer.length * 2];
+                System.arraycopy(buffer, 0, grown, 0, limit);
+                buffer = grown;
+            }
+            int read = channel.read(ByteBuffer.wrap(buffer, limit, buffer.length - limit), bufferOffset + limit);
+            if (read <= 0) {
+                return false;
+            }
+            limit += read;
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * FeedOffsetStore.java
+ * Stored change feed cursors, one file per consumer
+ */
+package com.jre.util;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Each consumer's cursor lives in {@code feed_offsets/<consumer>.txt} as one framed line,
+ * {@code <next sequence>|<byte position>}. Consumers never share a file, so they commit
+ * independently; a commit replaces the file atomically, so a crash leaves the old or the
+ * new cursor. Committing after a batch was handled gives at-least-once delivery.
+ */
+public class FeedOffsetStore {
+    private static final Pattern CONSUMER = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final Path offsetDir;
+
+    public FeedOffsetStore(FileHandler fileHandler) {
+        this.offsetDir = Paths.get(fileHandler.getDataDir(), "feed_offsets");
+    }
+
+    /** The consumer's stored cursor, or the start of the feed for a new consumer. */
+    public ChangeFeed.Cursor load(String consumer) {
+        Path file = offsetFile(consumer);
+        if (!Files.exists(file)) {
+            return ChangeFeed.Cursor.START;
+        }
+        try {
+            List<String> lines = Files.readAllLines(file);
+            if (lines.isEmpty()) {
+                throw new IllegalArgumentException("empty offset file");
+            }
+            String[] parts = RecordFrame.unframe(lines.get(0)).split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("expected sequence and position");
+            }
+            long sequence = Long.parseLong(parts[0]);
+            long position = Long.parseLong(parts[1]);
+            if (sequence < 1 || position < 0) {
+                throw new IllegalArgumentException("negative offset");
+            }
+            return new ChangeFeed.Cursor(sequence, position);
+        } catch (IOException | IllegalArgumentException e) {
+            // Starting over re-delivers changes, which consumers must tolerate anyway
+            System.err.println("Invalid offset for consumer " + consumer + ", reading the feed from the start: " + e.getMessage());
+            return ChangeFeed.Cursor.START;
+        }
+    }
+
+    /** Stores the consumer's cursor durably; returns false if the write failed. */
+    public boolean commit(String consumer, ChangeFeed.Cursor cursor) {
+        Path file = offsetFile(consumer);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(offsetDir);
+            try (FileOutputStream out = new FileOutputStream(temp.toFile())) {
+                RecordFrame.write(out, cursor.getSequence() + "|" + cursor.getPosition());
+                out.getFD().sync();
+            }
+            FileHandler.replace(temp, file);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error storing offset for consumer " + consumer + ": " + e.getMessage());
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // Best effort cleanup; the old offset is still in place
+            }
+            return false;
+        }
+    }
+
+    private Path offsetFile(String consumer) {
+        if (!isValidConsumer(consumer)) {
+            throw new IllegalArgumentException("Invalid consumer name: " + consumer);
+        }
+        return offsetDir.resolve(consumer + ".txt");
+    }
+
+    public static boolean isValidConsumer(String consumer) {
+        return consumer != null && CONSUMER.matcher(consumer).matches();
+    }
+}
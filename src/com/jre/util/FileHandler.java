@@ -4,30 +4,88 @@
  */
 package com.jre.util;
 
+import com.jre.metrics.Counter;
+import com.jre.metrics.Metrics;
+import com.jre.metrics.Timer;
+import com.jre.model.LogEntry;
 import com.jre.model.MoodLog;
 import com.jre.model.User;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public class FileHandler {
-    private static final String DATA_DIR = "data";
-    private static final String USER_FILE = DATA_DIR + "/user_profile.txt";
-    private static final String MOOD_FILE = DATA_DIR + "/mood_logs.txt";
+    private static final String DEFAULT_DATA_DIR = "data";
+
+    private static final Timer LOAD_TIMER = Metrics.timer("FileHandler.loadMoodLogs");
+    private static final Timer SAVE_TIMER = Metrics.timer("FileHandler.saveMoodLogs");
+    private static final Timer APPEND_TIMER = Metrics.timer("FileHandler.appendMoodLogs");
+    private static final Counter LOGS_READ = Metrics.counter("FileHandler.logsRead");
+    private static final Counter LOGS_WRITTEN = Metrics.counter("FileHandler.logsWritten");
+    private static final Counter INVALID_LINES = Metrics.counter("FileHandler.invalidLines");
+    private static final Counter IO_ERRORS = Metrics.counter("FileHandler.ioErrors");
+
+    private final String dataDir;
+    private final String userFile;
+    private final String moodFile;
+    private final String rulesFile;
+    private final String retentionFile;
+    private final String entriesFile;
+    private final ChangeFeed changeFeed;
 
     public FileHandler() {
+        this(DEFAULT_DATA_DIR);
+    }
+
+    /** Creates a handler rooted at another data directory, e.g. one per student. */
+    public FileHandler(String dataDir) {
+        this.dataDir = dataDir;
+        this.userFile = dataDir + "/user_profile.txt";
+        this.moodFile = dataDir + "/mood_logs.txt";
+        this.rulesFile = dataDir + "/burnout_rules.txt";
+        this.retentionFile = dataDir + "/retention.txt";
+        this.entriesFile = dataDir + "/log_entries.txt";
+        this.changeFeed = new ChangeFeed(this);
         initializeDataDirectory();
     }
 
+    public String getDataDir() {
+        return dataDir;
+    }
+
+    /** Every log appended or updated through this handler, in order. */
+    public ChangeFeed getChangeFeed() {
+        return changeFeed;
+    }
+
+    public String getMoodFilePath() {
+        return moodFile;
+    }
+
+    public String getUserFilePath() {
+        return userFile;
+    }
+
     private void initializeDataDirectory() {
         try {
-            Path dataPath = Paths.get(DATA_DIR);
+            Path dataPath = Paths.get(dataDir);
             if (!Files.exists(dataPath)) {
                 Files.createDirectories(dataPath);
-                System.out.println("Data directory created: " + DATA_DIR);
+                System.out.println("Data directory created: " + dataDir);
             }
         } catch (IOException e) {
             System.err.println("Error creating data directory: " + e.getMessage());
@@ -37,7 +95,7 @@ public class FileHandler {
     // ==================== USER OPERATIONS ====================
 
     public void saveUser(User user) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(USER_FILE))) {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(userFile))) {
             writer.write(user.toFileString());
             writer.newLine();
             System.out.println("User profile saved successfully.");
@@ -47,12 +105,12 @@ public class FileHandler {
     }
 
     public User loadUser() {
-        File file = new File(USER_FILE);
+        File file = new File(userFile);
         if (!file.exists()) {
             return null;
         }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(USER_FILE))) {
+        try (BufferedReader reader = new BufferedReader(new FileReader(userFile))) {
             String line = reader.readLine();
             if (line != null && !line.trim().isEmpty()) {
                 return User.fromFileString(line);
@@ -67,60 +125,370 @@ public class FileHandler {
 
     // ==================== MOOD LOG OPERATIONS ====================
 
-    public void saveMoodLogs(List<MoodLog> moodLogs) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(MOOD_FILE))) {
-            for (MoodLog log : moodLogs) {
-                writer.write(log.toFileString());
-                writer.newLine();
+    /**
+     * Rewrites the whole mood file. The logs go to a temp file that is synced and then
+     * moved over the old file, so a crash leaves either the old or the new history.
+     * Returns false if the write failed and the old file was kept.
+     */
+    public boolean saveMoodLogs(List<MoodLog> moodLogs) {
+        long start = SAVE_TIMER.start();
+        Path target = Paths.get(moodFile);
+        Path temp = Paths.get(moodFile + ".tmp");
+        try {
+            try (FileOutputStream file = new FileOutputStream(temp.toFile());
+                 BufferedOutputStream out = new BufferedOutputStream(file, 64 * 1024)) {
+                for (MoodLog log : moodLogs) {
+                    RecordFrame.write(out, log.toFileString());
+                }
+                out.flush();
+                file.getFD().sync();
             }
+            replace(temp, target);
+            LOGS_WRITTEN.add(moodLogs.size());
             System.out.println(moodLogs.size() + " mood log(s) saved successfully.");
+            return true;
         } catch (IOException e) {
+            IO_ERRORS.increment();
             System.err.println("Error saving mood logs: " + e.getMessage());
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // Best effort cleanup; the old file is still in place
+            }
+            return false;
+        } finally {
+            SAVE_TIMER.stop(start);
+        }
+    }
+
+    // Moves a fully written and synced temp file over the target, then syncs the directory
+    // so the rename itself is durable (skipped where directories cannot be synced, e.g. Windows)
+    static void replace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        try (FileChannel dir = FileChannel.open(target.toAbsolutePath().getParent(), StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // Not supported on this platform
         }
     }
 
     public List<MoodLog> loadMoodLogs() {
         List<MoodLog> moodLogs = new ArrayList<>();
-        File file = new File(MOOD_FILE);
-        
+        if (forEachMoodLog(moodLogs::add) >= 0) {
+            System.out.println(moodLogs.size() + " mood log(s) loaded successfully.");
+        }
+        return moodLogs;
+    }
+
+    /**
+     * Streams every valid mood log in file order without keeping them in memory.
+     * Returns the number of logs delivered, or -1 if the file could not be read.
+     */
+    public long forEachMoodLog(Consumer<MoodLog> consumer) {
+        return forEachMoodLogFrom(0, consumer);
+    }
+
+    /**
+     * Like forEachMoodLog, but starts reading at a byte offset into the mood file. Damaged
+     * records are skipped, and so is an unfinished record at the end, which may be an
+     * append still in progress; only recoverMoodLog removes anything.
+     */
+    public long forEachMoodLogFrom(long offset, Consumer<MoodLog> consumer) {
+        File file = new File(moodFile);
         if (!file.exists()) {
-            return moodLogs;
-        }
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(MOOD_FILE))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (!line.trim().isEmpty()) {
-                    try {
-                        MoodLog log = MoodLog.fromFileString(line);
-                        moodLogs.add(log);
-                    } catch (IllegalArgumentException e) {
-                        System.err.println("Skipping invalid mood log entry: " + e.getMessage());
-                    }
+            return 0;
+        }
+
+        long start = LOAD_TIMER.start();
+        MoodLogLoadEvent event = new MoodLogLoadEvent();
+        event.begin();
+        long count = 0;
+        long invalid = 0;
+        try (FileInputStream in = new FileInputStream(file)) {
+            in.getChannel().position(offset);
+            RecordFrame.Reader reader = new RecordFrame.Reader(in, offset);
+            while (reader.next()) {
+                int kind = reader.kind();
+                if (kind == RecordFrame.Reader.DAMAGED
+                        || (kind == RecordFrame.Reader.UNTERMINATED && reader.buffer()[reader.start()] == RecordFrame.MARKER)) {
+                    invalid++;
+                    System.err.println("Skipping damaged mood log record at byte " + reader.lineOffset());
+                    continue;
+                }
+                String line = reader.text();
+                if (kind != RecordFrame.Reader.FRAMED && line.trim().isEmpty()) {
+                    continue;
+                }
+                try {
+                    consumer.accept(MoodLog.fromFileString(line));
+                    count++;
+                } catch (IllegalArgumentException e) {
+                    invalid++;
+                    System.err.println("Skipping invalid mood log entry: " + e.getMessage());
                 }
             }
-            System.out.println(moodLogs.size() + " mood log(s) loaded successfully.");
         } catch (IOException e) {
+            IO_ERRORS.increment();
             System.err.println("Error loading mood logs: " + e.getMessage());
+            return -1;
+        } finally {
+            LOAD_TIMER.stop(start);
+            INVALID_LINES.add(invalid);
+            if (event.shouldCommit()) {
+                event.path = moodFile;
+                event.offset = offset;
+                event.bytes = Math.max(0, file.length() - offset);
+                event.entries = count;
+                event.parseErrors = invalid;
+                event.commit();
+            }
+        }
+        LOGS_READ.add(count);
+        return count;
+    }
+
+    /**
+     * Checks the records after {@code verifiedBytes} (e.g. the part already covered by a
+     * snapshot) in one sequential pass over the raw bytes and cuts off a torn tail: every
+     * byte after the last intact record, left by a crash during an append. Damaged records
+     * followed by intact ones are left in place for loads to skip. Returns the number of
+     * bytes removed, or -1 on error.
+     *
+     * Must only be called by the process that appends to the file, before it does so.
+     */
+    public long recoverMoodLog(long verifiedBytes) {
+        return recoverTail(moodFile, verifiedBytes);
+    }
+
+    /** Like recoverMoodLog, for log_entries.txt; called before the entries are loaded. */
+    public long recoverEntries() {
+        return recoverTail(entriesFile, 0);
+    }
+
+    private static long recoverTail(String path, long verifiedBytes) {
+        File file = new File(path);
+        if (!file.exists() || file.length() <= verifiedBytes) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            long intactEnd = verifiedBytes;
+            int damaged = 0;
+            boolean plainTail = false;
+            RecordFrame.Reader reader = new RecordFrame.Reader(
+                    Channels.newInputStream(channel.position(verifiedBytes)), verifiedBytes);
+            while (reader.next()) {
+                int kind = reader.kind();
+                if (kind == RecordFrame.Reader.FRAMED || kind == RecordFrame.Reader.PLAIN) {
+                    intactEnd = reader.nextOffset();
+                } else if (kind == RecordFrame.Reader.DAMAGED) {
+                    damaged++;
+                } else if (reader.buffer()[reader.start()] != RecordFrame.MARKER) {
+                    // A plain last line without its separator was written by hand or an
+                    // older version; it is kept and terminated so appends start a new line
+                    plainTail = true;
+                    intactEnd = reader.nextOffset();
+                }
+            }
+
+            long removed = size - intactEnd;
+            if (removed > 0) {
+                channel.truncate(intactEnd);
+                System.err.println("Recovered " + file.getName() + ": removed " + removed + " byte(s) of a torn write at byte " + intactEnd + ".");
+            }
+            if (plainTail) {
+                channel.write(ByteBuffer.wrap(new byte[] {'\n'}), intactEnd);
+            }
+            if (removed > 0 || plainTail) {
+                channel.force(true);
+            }
+            if (damaged > 0) {
+                INVALID_LINES.add(damaged);
+                System.err.println(damaged + " damaged record(s) in " + file.getName() + " will be skipped when loading.");
+            }
+            return Math.max(0, removed);
+        } catch (IOException e) {
+            IO_ERRORS.increment();
+            System.err.println("Error recovering " + file.getName() + ": " + e.getMessage());
+            return -1;
         }
-        return moodLogs;
     }
 
     public void appendMoodLog(MoodLog log) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(MOOD_FILE, true))) {
-            writer.write(log.toFileString());
-            writer.newLine();
+        appendMoodLogs(Collections.singletonList(log));
+    }
+
+    /**
+     * Appends many logs with a single write; returns false if the write failed. A failed
+     * write is cut back off the file, so it cannot merge with the next append. Stored logs
+     * are then added to the change feed; a feed failure is reported but does not fail the append.
+     */
+    public boolean appendMoodLogs(List<MoodLog> logs) {
+        long start = APPEND_TIMER.start();
+        MoodLogAppendEvent event = new MoodLogAppendEvent();
+        event.begin();
+        ByteArrayOutputStream records = new ByteArrayOutputStream(Math.max(256, Math.min(256 * 1024, logs.size() * 96)));
+        boolean written = false;
+        long sizeBefore = -1;
+        try (FileOutputStream out = new FileOutputStream(moodFile, true)) {
+            for (MoodLog log : logs) {
+                RecordFrame.write(records, log.toFileString());
+            }
+            sizeBefore = out.getChannel().size();
+            records.writeTo(out);
+            written = true;
+        } catch (IOException e) {
+            written = false;
+            IO_ERRORS.increment();
+            System.err.println("Error appending mood logs: " + e.getMessage());
+            truncateTo(moodFile, sizeBefore);
+        } finally {
+            APPEND_TIMER.stop(start);
+            if (event.shouldCommit()) {
+                event.path = moodFile;
+                event.entries = logs.size();
+                event.bytes = written ? records.size() : 0;
+                event.succeeded = written;
+                event.commit();
+            }
+        }
+        if (written) {
+            LOGS_WRITTEN.add(logs.size());
+            changeFeed.append(ChangeFeed.Operation.ADDED, logs);
+        }
+        return written;
+    }
+
+    /** Adds logs that a rewrite of the mood file stored, instead of an append, to the change feed. */
+    public void recordRewrittenMoodLogs(List<MoodLog> added, List<MoodLog> updated) {
+        changeFeed.append(ChangeFeed.Operation.ADDED, added);
+        changeFeed.append(ChangeFeed.Operation.UPDATED, updated);
+    }
+
+    // ==================== OTHER ENTRY TYPES ====================
+
+    /**
+     * Appends entries of any type except moods (which live in mood_logs.txt) to
+     * log_entries.txt, each line tagged with its type. An entry whose ID is already stored is
+     * a new version of it, e.g. a task that was completed; loads keep the last version.
+     * Returns false if the write failed.
+     */
+    public boolean appendEntries(List<? extends LogEntry> entries) {
+        ByteArrayOutputStream records = new ByteArrayOutputStream(Math.max(256, entries.size() * 128));
+        long sizeBefore = -1;
+        try (FileOutputStream out = new FileOutputStream(entriesFile, true)) {
+            for (LogEntry entry : entries) {
+                if (entry instanceof MoodLog) {
+                    throw new IllegalArgumentException("Mood logs are stored with appendMoodLogs");
+                }
+                RecordFrame.write(records, entry.toFileString());
+            }
+            sizeBefore = out.getChannel().size();
+            records.writeTo(out);
+            return true;
+        } catch (IOException e) {
+            IO_ERRORS.increment();
+            System.err.println("Error appending log entries: " + e.getMessage());
+            truncateTo(entriesFile, sizeBefore);
+            return false;
+        }
+    }
+
+    /**
+     * Loads the current version of every entry in log_entries.txt, in the order the entries
+     * were first stored. Lines of unknown types, e.g. written by a newer version, are skipped.
+     */
+    public List<LogEntry> loadEntries() {
+        Map<String, LogEntry> entries = new LinkedHashMap<>();
+        File file = new File(entriesFile);
+        if (!file.exists()) {
+            return new ArrayList<>();
+        }
+        try (FileInputStream in = new FileInputStream(file)) {
+            RecordFrame.Reader reader = new RecordFrame.Reader(in, 0);
+            while (reader.next()) {
+                if (reader.kind() == RecordFrame.Reader.DAMAGED || reader.kind() == RecordFrame.Reader.UNTERMINATED) {
+                    System.err.println("Skipping damaged log entry record at byte " + reader.lineOffset());
+                    continue;
+                }
+                String line = reader.text();
+                if (line.trim().isEmpty()) continue;
+                try {
+                    LogEntry entry = LogEntry.fromFileString(line);
+                    entries.put(entry.getEntryId(), entry);
+                } catch (DateTimeException | IllegalArgumentException e) {
+                    INVALID_LINES.increment();
+                    System.err.println("Skipping invalid log entry: " + e.getMessage());
+                }
+            }
         } catch (IOException e) {
-            System.err.println("Error appending mood log: " + e.getMessage());
+            IO_ERRORS.increment();
+            System.err.println("Error loading log entries: " + e.getMessage());
+        }
+        return new ArrayList<>(entries.values());
+    }
+
+    private static void truncateTo(String path, long size) {
+        if (size < 0) return;
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.WRITE)) {
+            if (channel.size() > size) {
+                channel.truncate(size);
+            }
+        } catch (IOException e) {
+            System.err.println("Error removing a failed append: " + e.getMessage());
+        }
+    }
+
+    // ==================== RULE OPERATIONS ====================
+
+    public List<String> loadBurnoutRules() {
+        List<String> lines = new ArrayList<>();
+        File file = new File(rulesFile);
+
+        if (!file.exists()) {
+            return lines;
+        }
+
+        try {
+            lines.addAll(Files.readAllLines(file.toPath()));
+        } catch (IOException e) {
+            System.err.println("Error loading burnout rules: " + e.getMessage());
+        }
+        return lines;
+    }
+
+    /**
+     * Returns the lines of retention.txt, an empty list if there is none, or null if it
+     * exists but cannot be read; callers then must not condense anything.
+     */
+    public List<String> loadRetentionSettings() {
+        List<String> lines = new ArrayList<>();
+        File file = new File(retentionFile);
+
+        if (!file.exists()) {
+            return lines;
+        }
+
+        try {
+            lines.addAll(Files.readAllLines(file.toPath()));
+        } catch (IOException e) {
+            IO_ERRORS.increment();
+            System.err.println("Error loading retention settings: " + e.getMessage());
+            return null;
         }
+        return lines;
     }
 
     // ==================== BACKUP OPERATIONS ====================
 
     public void createBackup() {
         try {
-            backupFile(USER_FILE);
-            backupFile(MOOD_FILE);
+            backupFile(userFile);
+            backupFile(moodFile);
             System.out.println("Backup created successfully.");
         } catch (IOException e) {
             System.err.println("Error creating backup: " + e.getMessage());
@@ -132,20 +500,20 @@ public class FileHandler {
         if (file.exists()) {
             Path source = file.toPath();
             Path backup = Paths.get(filePath + ".backup");
-            Files.copy(source, backup, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+            Files.copy(source, backup, StandardCopyOption.REPLACE_EXISTING);
         }
     }
 
     // ==================== UTILITY METHODS ====================
 
     public boolean userProfileExists() {
-        return new File(USER_FILE).exists();
+        return new File(userFile).exists();
     }
 
     public void deleteAllData() {
         try {
-            Files.deleteIfExists(Paths.get(USER_FILE));
-            Files.deleteIfExists(Paths.get(MOOD_FILE));
+            Files.deleteIfExists(Paths.get(userFile));
+            Files.deleteIfExists(Paths.get(moodFile));
             System.out.println("All data deleted successfully.");
         } catch (IOException e) {
             System.err.println("Error deleting data: " + e.getMessage());
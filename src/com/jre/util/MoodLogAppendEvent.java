@@ -0,0 +1,30 @@
+/**
+ * MoodLogAppendEvent.java
+ * Flight Recorder event for one append to the mood log file
+ */
+package com.jre.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.jre.MoodLogAppend")
+@Label("Mood Log Append")
+@Category({"JRE", "Persistence"})
+@Description("Mood logs appended to the text file in one write")
+class MoodLogAppendEvent extends jdk.jfr.Event {
+    @Label("File")
+    String path;
+
+    @Label("Entries")
+    int entries;
+
+    @Label("Bytes Written")
+    @DataAmount
+    long bytes;
+
+    @Label("Succeeded")
+    boolean succeeded;
+}
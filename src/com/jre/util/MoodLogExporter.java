@@ -0,0 +1,214 @@
+/**
+ * MoodLogExporter.java
+ * Streaming CSV / JSON Lines writer for mood logs, daily rollups and burnout scores
+ */
+package com.jre.util;
+
+import com.jre.model.DailySummary;
+import com.jre.model.MoodLog;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+public class MoodLogExporter implements Closeable {
+    public enum Format { CSV, JSONL }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private static final String[] LOG_COLUMNS = {"student_id", "entry_id", "date", "mood", "stress", "notes"};
+    private static final String[] DAILY_COLUMNS = {"student_id", "date", "entries", "avg_mood", "min_mood",
+            "max_mood", "avg_stress", "min_stress", "max_stress"};
+    private static final String[] BURNOUT_COLUMNS = {"student_id", "as_of", "entries", "avg_mood",
+            "avg_stress", "high_stress_streak", "score", "risk"};
+
+    private final Writer out;
+    private final Format format;
+    // Reused for every row so steady-state export does not allocate per field
+    private final StringBuilder row = new StringBuilder(256);
+    private String[] columns;
+    private int column;
+    private long rows;
+
+    private MoodLogExporter(OutputStream target, Format format, boolean gzip) throws IOException {
+        OutputStream stream = gzip ? new FastGzipOutputStream(target) : target;
+        this.out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.format = format;
+    }
+
+    public static MoodLogExporter toFile(String path, Format format, boolean gzip) throws IOException {
+        return new MoodLogExporter(new FileOutputStream(path), format, gzip);
+    }
+
+    /** Exports to standard output; closing the exporter finishes the stream but leaves stdout open. */
+    public static MoodLogExporter toStdout(Format format, boolean gzip) throws IOException {
+        OutputStream stdout = new FilterOutputStream(System.out) {
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+        return new MoodLogExporter(stdout, format, gzip);
+    }
+
+    // ==================== ROW TYPES ====================
+
+    public void writeLog(String studentId, MoodLog log) throws IOException {
+        begin(LOG_COLUMNS);
+        text(studentId);
+        text(log.getEntryId());
+        text(DATE_FORMAT.format(log.getDate()));
+        number(log.getMoodLevel());
+        number(log.getStressLevel());
+        text(log.getNotes());
+        end();
+    }
+
+    public void writeDaily(String studentId, DailySummary day) throws IOException {
+        begin(DAILY_COLUMNS);
+        text(studentId);
+        text(day.getDay().toString());
+        number(day.getCount());
+        number(day.getAverageMood());
+        number(day.getMinMood());
+        number(day.getMaxMood());
+        number(day.getAverageStress());
+        number(day.getMinStress());
+        number(day.getMaxStress());
+        end();
+    }
+
+    public void writeBurnout(String studentId, LocalDateTime asOf, int entries, double avgMood,
+                             double avgStress, int streak, int score, String risk) throws IOException {
+        begin(BURNOUT_COLUMNS);
+        text(studentId);
+        text(DATE_FORMAT.format(asOf));
+        number(entries);
+        number(avgMood);
+        number(avgStress);
+        number(streak);
+        number(score);
+        text(risk);
+        end();
+    }
+
+    public long getRowCount() {
+        return rows;
+    }
+
+    // ==================== ENCODING ====================
+
+    private void begin(String[] rowColumns) throws IOException {
+        if (columns != rowColumns) {
+            if (columns != null) {
+                throw new IllegalStateException("An export stream holds a single row type");
+            }
+            columns = rowColumns;
+            if (format == Format.CSV) {
+                out.write(String.join(",", columns));
+                out.write('\n');
+            }
+        }
+        row.setLength(0);
+        column = 0;
+        if (format == Format.JSONL) row.append('{');
+    }
+
+    private void key() {
+        if (format == Format.CSV) {
+            if (column > 0) row.append(',');
+        } else {
+            if (column > 0) row.append(',');
+            row.append('"').append(columns[column]).append("\":");
+        }
+        column++;
+    }
+
+    private void text(String value) {
+        key();
+        if (format == Format.CSV) appendCsv(value);
+        else appendJson(value);
+    }
+
+    private void number(long value) {
+        key();
+        row.append(value);
+    }
+
+    private void number(double value) {
+        key();
+        row.append(Math.round(value * 1000) / 1000.0);
+    }
+
+    private void end() throws IOException {
+        if (format == Format.JSONL) row.append('}');
+        row.append('\n');
+        out.append(row);
+        rows++;
+    }
+
+    private void appendCsv(String value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            row.append(value);
+            return;
+        }
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') row.append('"');
+            row.append(c);
+        }
+        row.append('"');
+    }
+
+    private void appendJson(String value) {
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': row.append("\\\""); break;
+                case '\\': row.append("\\\\"); break;
+                case '\n': row.append("\\n"); break;
+                case '\r': row.append("\\r"); break;
+                case '\t': row.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        row.append("\\u00");
+                        row.append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        row.append(c);
+                    }
+            }
+        }
+        row.append('"');
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    // Favors throughput over ratio; exports are usually recompressed downstream anyway
+    private static class FastGzipOutputStream extends GZIPOutputStream {
+        FastGzipOutputStream(OutputStream target) throws IOException {
+            super(target, BUFFER_SIZE);
+            def.setLevel(Deflater.BEST_SPEED);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * MoodLogLoadEvent.java
+ * Flight Recorder event for one read of the mood log file
+ */
+package com.jre.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.jre.MoodLogLoad")
+@Label("Mood Log Load")
+@Category({"JRE", "Persistence"})
+@Description("Mood logs read and parsed from the text file")
+class MoodLogLoadEvent extends jdk.jfr.Event {
+    @Label("File")
+    String path;
+
+    @Label("Start Offset")
+    @DataAmount
+    long offset;
+
+    @Label("Bytes Read")
+    @DataAmount
+    long bytes;
+
+    @Label("Entries")
+    long entries;
+
+    @Label("Parse Errors")
+    long parseErrors;
+}
@@ -0,0 +1,233 @@
+/**
+ * RecordFrame.java
+ * Length and CRC32C framing for the lines of the text logs
+ */
+package com.jre.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32C;
+
+/**
+ * A framed record is one line: {@code ~LLLLLLCCCCCCCC|payload}, where L is the payload
+ * length in UTF-8 bytes and C its CRC32C, both in hex. A record is valid only if its line
+ * ends exactly where the length says and the checksum matches, so a write torn by a
+ * crash (cut short, or padded with garbage) is recognised without parsing the payload.
+ *
+ * Lines without the leading '~' are plain records written before framing was added, or
+ * edited by hand; they are still read, but cannot be checked.
+ */
+public final class RecordFrame {
+    public static final char MARKER = '~';
+    static final int HEADER_BYTES = 16;
+    static final int MAX_PAYLOAD = 0xFFFFFF;
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private RecordFrame() {
+    }
+
+    /** The framed line for a payload, without the line separator. */
+    public static String frame(String payload) {
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_PAYLOAD) {
+            throw new IllegalArgumentException("Record longer than " + MAX_PAYLOAD + " bytes");
+        }
+        byte[] header = new byte[HEADER_BYTES];
+        writeHeader(header, 0, bytes, 0, bytes.length);
+        return new String(header, StandardCharsets.US_ASCII) + payload;
+    }
+
+    /**
+     * The payload of a line read as text: the checked payload of a framed line, or the line
+     * itself if it is not framed.
+     */
+    public static String unframe(String line) {
+        if (line.isEmpty() || line.charAt(0) != MARKER) {
+            return line;
+        }
+        if (line.length() < HEADER_BYTES) {
+            throw new IllegalArgumentException("Damaged record: header cut short");
+        }
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        if (checkedPayloadLength(bytes, 0, bytes.length) < 0) {
+            throw new IllegalArgumentException("Damaged record: length or checksum mismatch");
+        }
+        return line.substring(HEADER_BYTES);
+    }
+
+    /** Writes a framed record and its '\n'. */
+    static void write(OutputStream out, String payload) throws IOException {
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_PAYLOAD) {
+            throw new IllegalArgumentException("Record longer than " + MAX_PAYLOAD + " bytes");
+        }
+        byte[] header = new byte[HEADER_BYTES];
+        writeHeader(header, 0, bytes, 0, bytes.length);
+        out.write(header, 0, HEADER_BYTES);
+        out.write(bytes, 0, bytes.length);
+        out.write('\n');
+    }
+
+    private static void writeHeader(byte[] out, int at, byte[] payload, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload, offset, length);
+        out[at] = MARKER;
+        writeHex(out, at + 1, length, 6);
+        writeHex(out, at + 7, crc.getValue(), 8);
+        out[at + 15] = '|';
+    }
+
+    private static void writeHex(byte[] out, int at, long value, int digits) {
+        for (int i = digits - 1; i >= 0; i--) {
+            out[at + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+
+    // Payload length of the framed line in [start, end) (no separator), or -1 if it is damaged
+    static int checkedPayloadLength(byte[] line, int start, int end) {
+        if (end - start < HEADER_BYTES || line[start] != MARKER || line[start + 15] != '|') {
+            return -1;
+        }
+        long length = readHex(line, start + 1, 6);
+        long checksum = readHex(line, start + 7, 8);
+        if (length < 0 || checksum < 0 || length != end - start - HEADER_BYTES) {
+            return -1;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(line, start + HEADER_BYTES, (int) length);
+        return crc.getValue() == checksum ? (int) length : -1;
+    }
+
+    private static long readHex(byte[] in, int at, int digits) {
+        long value = 0;
+        for (int i = 0; i < digits; i++) {
+            int c = in[at + i];
+            int digit = c >= '0' && c <= '9' ? c - '0' : c >= 'a' && c <= 'f' ? c - 'a' + 10 : -1;
+            if (digit < 0) return -1;
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+
+    /**
+     * Reads a log one line at a time as raw bytes. After next() returns true, the current
+     * line is {@code buffer()[start()..end())}, without its separator, and kind() tells
+     * whether it is a valid framed record, a plain line, a damaged record, or an
+     * unterminated last line.
+     */
+    static final class Reader {
+        static final int FRAMED = 0;
+        static final int PLAIN = 1;
+        static final int DAMAGED = 2;
+        static final int UNTERMINATED = 3;
+
+        private final InputStream in;
+        private byte[] buffer = new byte[64 * 1024];
+        private int position;
+        private int limit;
+        private boolean eof;
+        private long bufferOffset;
+
+        private int kind;
+        private int start;
+        private int end;
+        private long lineOffset;
+
+        Reader(InputStream in, long offset) {
+            this.in = in;
+            this.bufferOffset = offset;
+        }
+
+        boolean next() throws IOException {
+            int newline = indexOfNewline(position);
+            while (newline < 0 && !eof) {
+                fill();
+                newline = indexOfNewline(position);
+            }
+            if (newline < 0 && position == limit) {
+                return false;
+            }
+            start = position;
+            lineOffset = bufferOffset + position;
+            if (newline < 0) {
+                end = limit;
+                position = limit;
+                kind = UNTERMINATED;
+                return true;
+            }
+            end = newline;
+            position = newline + 1;
+            if (buffer[start] == MARKER && end > start) {
+                int length = checkedPayloadLength(buffer, start, end);
+                kind = length < 0 ? DAMAGED : FRAMED;
+                if (kind == FRAMED) start += HEADER_BYTES;
+            } else {
+                kind = PLAIN;
+                if (end > start && buffer[end - 1] == '\r') end--;
+            }
+            return true;
+        }
+
+        private int indexOfNewline(int from) {
+            for (int i = from; i < limit; i++) {
+                if (buffer[i] == '\n') return i;
+            }
+            return -1;
+        }
+
+        // Moves the unread bytes to the front, growing the buffer for very long lines
+        private void fill() throws IOException {
+            if (position > 0) {
+                System.arraycopy(buffer, position, buffer, 0, limit - position);
+                limit -= position;
+                bufferOffset += position;
+                position = 0;
+            }
+            if (limit == buffer.length) {
+                byte[] grown = new byte[buffer.length * 2];
+                System.arraycopy(buffer, 0, grown, 0, limit);
+                buffer = grown;
+            }
+            int read = in.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                eof = true;
+            } else {
+                limit += read;
+            }
+        }
+
+        int kind() {
+            return kind;
+        }
+
+        byte[] buffer() {
+            return buffer;
+        }
+
+        int start() {
+            return start;
+        }
+
+        int end() {
+            return end;
+        }
+
+        /** File offset of the first byte of the current line, header included. */
+        long lineOffset() {
+            return lineOffset;
+        }
+
+        /** File offset just past the current line and its separator. */
+        long nextOffset() {
+            return bufferOffset + position;
+        }
+
+        String text() {
+            return new String(buffer, start, end - start, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+/**
+ * SnapshotStore.java
+ * Binary snapshot of the loaded mood history for fast startup
+ */
+package com.jre.util;
+
+import com.jre.model.DailySummary;
+import com.jre.model.MoodLog;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * The snapshot holds every log in date order plus the daily summaries, and remembers how
+ * many bytes of mood_logs.txt it covers. At startup the snapshot is read and decoded in
+ * one sequential pass, then only the text appended after that offset is parsed. If the
+ * text file was rewritten since (checked with a fingerprint of the bytes just before the
+ * offset), the snapshot is ignored and the caller falls back to a full load.
+ */
+public class SnapshotStore {
+    private static final int MAGIC = 0x4A52534E; // "JRSN"
+    private static final int FORMAT_VERSION = 1;
+    private static final int FINGERPRINT_BYTES = 4096;
+
+    private final FileHandler fileHandler;
+    private final Path snapshotFile;
+
+    public SnapshotStore(FileHandler fileHandler) {
+        this.fileHandler = fileHandler;
+        this.snapshotFile = Paths.get(fileHandler.getDataDir(), "mood_snapshot.bin");
+    }
+
+    public static class Snapshot {
+        private final List<MoodLog> logs;
+        private final List<DailySummary> dailySummaries;
+        private final List<MoodLog> tailLogs;
+        private final long coveredBytes;
+
+        Snapshot(List<MoodLog> logs, List<DailySummary> dailySummaries, List<MoodLog> tailLogs, long coveredBytes) {
+            this.logs = logs;
+            this.dailySummaries = dailySummaries;
+            this.tailLogs = tailLogs;
+            this.coveredBytes = coveredBytes;
+        }
+
+        /** Logs covered by the snapshot, sorted by date. */
+        public List<MoodLog> getLogs() {
+            return logs;
+        }
+
+        public List<DailySummary> getDailySummaries() {
+            return dailySummaries;
+        }
+
+        /** Logs appended to the text file after the snapshot was written, in file order. */
+        public List<MoodLog> getTailLogs() {
+            return tailLogs;
+        }
+
+        /** Length of the mood file prefix the snapshot was written from, known to be intact. */
+        public long getCoveredBytes() {
+            return coveredBytes;
+        }
+    }
+
+    // ==================== WRITE ====================
+
+    /**
+     * Writes a snapshot of the given state, which must match the current mood file contents.
+     * The file is written to a temp file and moved into place, so a crash keeps the old snapshot.
+     */
+    public boolean write(List<MoodLog> sortedLogs, List<DailySummary> dailySummaries) {
+        Path moodPath = Paths.get(fileHandler.getMoodFilePath());
+        Path temp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try {
+            long coveredBytes = Files.exists(moodPath) ? Files.size(moodPath) : 0;
+            long fingerprint = fingerprint(moodPath, coveredBytes);
+
+            CRC32 crc = new CRC32();
+            try (BufferedOutputStream file = new BufferedOutputStream(Files.newOutputStream(temp), 256 * 1024)) {
+                DataOutputStream out = new DataOutputStream(new CheckedOutputStream(file, crc));
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(coveredBytes);
+                out.writeLong(fingerprint);
+
+                out.writeInt(sortedLogs.size());
+                for (MoodLog log : sortedLogs) {
+                    writeString(out, log.getEntryId());
+                    out.writeLong(log.getDate().toEpochSecond(ZoneOffset.UTC));
+                    out.writeInt(log.getDate().getNano());
+                    out.writeByte(log.getMoodLevel());
+                    out.writeByte(log.getStressLevel());
+                    writeString(out, log.getNotes());
+                }
+
+                out.writeInt(dailySummaries.size());
+                for (DailySummary day : dailySummaries) {
+                    out.writeLong(day.getDay().toEpochDay());
+                    for (int count : day.getMoodHistogram()) out.writeInt(count);
+                    for (int count : day.getStressHistogram()) out.writeInt(count);
+                }
+
+                // Trailing checksum over everything written above
+                out.flush();
+                new DataOutputStream(file).writeLong(crc.getValue());
+            }
+
+            Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            System.out.println("Snapshot written: " + sortedLogs.size() + " mood log(s).");
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error writing snapshot: " + e.getMessage());
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // Best effort cleanup
+            }
+            return false;
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    // ==================== LOAD ====================
+
+    /** Loads the snapshot plus the text log tail, or returns null if there is no usable snapshot. */
+    public Snapshot load() {
+        if (!Files.exists(snapshotFile)) {
+            return null;
+        }
+        Path moodPath = Paths.get(fileHandler.getMoodFilePath());
+
+        try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 32 || size > Integer.MAX_VALUE) {
+                return null;
+            }
+            // One sequential read into memory; a mapping would pin the file on some platforms
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // keep reading until the whole file is buffered
+            }
+            buffer.flip();
+
+            CRC32 crc = new CRC32();
+            ByteBuffer body = buffer.duplicate();
+            body.limit((int) size - 8);
+            crc.update(body);
+            if (buffer.getLong((int) size - 8) != crc.getValue()) {
+                System.err.println("Snapshot checksum mismatch, ignoring snapshot.");
+                return null;
+            }
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                return null;
+            }
+            long coveredBytes = buffer.getLong();
+            long fingerprint = buffer.getLong();
+            long moodSize = Files.exists(moodPath) ? Files.size(moodPath) : 0;
+            if (moodSize < coveredBytes || fingerprint(moodPath, coveredBytes) != fingerprint) {
+                System.out.println("Mood log changed since the snapshot, doing a full load.");
+                return null;
+            }
+
+            byte[] scratch = new byte[256];
+            int logCount = buffer.getInt();
+            List<MoodLog> logs = new ArrayList<>(logCount);
+            for (int i = 0; i < logCount; i++) {
+                String entryId = readString(buffer, scratch);
+                LocalDateTime date = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+                int mood = buffer.get();
+                int stress = buffer.get();
+                String notes = readString(buffer, scratch);
+                logs.add(new MoodLog(entryId, date, mood, stress, notes));
+            }
+
+            int dayCount = buffer.getInt();
+            List<DailySummary> days = new ArrayList<>(dayCount);
+            int[] moodHistogram = new int[10];
+            int[] stressHistogram = new int[10];
+            for (int i = 0; i < dayCount; i++) {
+                LocalDate day = LocalDate.ofEpochDay(buffer.getLong());
+                for (int l = 0; l < 10; l++) moodHistogram[l] = buffer.getInt();
+                for (int l = 0; l < 10; l++) stressHistogram[l] = buffer.getInt();
+                days.add(DailySummary.fromHistograms(day, moodHistogram, stressHistogram));
+            }
+
+            List<MoodLog> tail = new ArrayList<>();
+            if (moodSize > coveredBytes) {
+                fileHandler.forEachMoodLogFrom(coveredBytes, tail::add);
+            }
+            System.out.println("Snapshot loaded: " + logs.size() + " mood log(s) + " + tail.size() + " appended.");
+            return new Snapshot(logs, days, tail, coveredBytes);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error loading snapshot, doing a full load: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static String readString(ByteBuffer buffer, byte[] scratch) {
+        int length = buffer.getInt();
+        byte[] bytes = length <= scratch.length ? scratch : new byte[length];
+        buffer.get(bytes, 0, length);
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    // CRC of the bytes just before 'end', identifying the covered prefix of the mood file
+    private static long fingerprint(Path file, long end) throws IOException {
+        if (end == 0) return 0;
+        int length = (int) Math.min(FINGERPRINT_BYTES, end);
+        byte[] bytes = new byte[length];
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "r")) {
+            raf.seek(end - length);
+            raf.readFully(bytes);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+
+    public void delete() {
+        try {
+            Files.deleteIfExists(snapshotFile);
+        } catch (IOException e) {
+            System.err.println("Error deleting snapshot: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * TenantCacheTest.java
+ * Checks the weight bound, admission and single-flight loading of TenantCache
+ */
+package com.jre.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Plain checks without a test framework, since the project builds with javac alone.
+ * Run: java -cp bin:test-bin com.jre.server.TenantCacheTest
+ */
+public class TenantCacheTest {
+    public static void main(String[] args) throws Exception {
+        scanOfNewKeysStaysWithinMaximum();
+        concurrentScanStaysWithinMaximum();
+        frequentKeysSurviveScan();
+        concurrentMissesLoadOnce();
+        evictedKeyReloadsAfterListener();
+        System.out.println("TenantCacheTest passed");
+    }
+
+    private static TenantCache<String> cache(long maximum, Map<String, Integer> loads,
+                                             TenantCache.RemovalListener<String> listener) {
+        return new TenantCache<>("TenantCacheTest", maximum, key -> {
+            loads.merge(key, 1, Integer::sum);
+            return "value-" + key;
+        }, value -> 100, listener);
+    }
+
+    private static void scanOfNewKeysStaysWithinMaximum() {
+        TenantCache<String> cache = cache(1000, new ConcurrentHashMap<>(), (key, value) -> { });
+        for (int i = 0; i < 200; i++) {
+            check(cache.get("key-" + i).equals("value-key-" + i), "value returned for key-" + i);
+            check(cache.getWeight() <= cache.getMaximumWeight(),
+                    "weight " + cache.getWeight() + " over maximum after key-" + i);
+        }
+        check(cache.size() <= 10, "size " + cache.size() + " after a scan of 200 keys");
+        check(cache.getEvictions() >= 190, "evictions " + cache.getEvictions());
+    }
+
+    private static void concurrentScanStaysWithinMaximum() throws InterruptedException {
+        TenantCache<String> cache = cache(1000, new ConcurrentHashMap<>(), (key, value) -> { });
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int offset = t * 10_000;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    cache.get("key-" + (offset + i));
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        check(cache.getWeight() <= cache.getMaximumWeight(),
+                "weight " + cache.getWeight() + " over maximum after a concurrent scan");
+        check(cache.size() * 100L == cache.getWeight(), "size and weight disagree");
+    }
+
+    private static void frequentKeysSurviveScan() {
+        TenantCache<String> cache = cache(1000, new ConcurrentHashMap<>(), (key, value) -> { });
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 5; i++) {
+                cache.get("hot-" + i);
+            }
+        }
+        for (int i = 0; i < 500; i++) {
+            cache.get("scan-" + i);
+        }
+        for (int i = 0; i < 5; i++) {
+            check(cache.getIfPresent("hot-" + i) != null, "hot-" + i + " evicted by a scan");
+        }
+    }
+
+    private static void concurrentMissesLoadOnce() throws InterruptedException {
+        Map<String, Integer> loads = new ConcurrentHashMap<>();
+        CountDownLatch release = new CountDownLatch(1);
+        TenantCache<String> cache = new TenantCache<>("TenantCacheTest", 1000, key -> {
+            loads.merge(key, 1, Integer::sum);
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "value-" + key;
+        }, value -> 100, (key, value) -> { });
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(new Thread(() -> cache.get("shared")));
+        }
+        threads.forEach(Thread::start);
+        Thread.sleep(100);
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        check(loads.get("shared") == 1, "shared loaded " + loads.get("shared") + " times");
+    }
+
+    private static void evictedKeyReloadsAfterListener() {
+        Map<String, Integer> loads = new ConcurrentHashMap<>();
+        AtomicInteger removals = new AtomicInteger();
+        TenantCache<String> cache = cache(200, loads, (key, value) -> removals.incrementAndGet());
+        cache.get("a");
+        cache.get("b");
+        cache.get("c");
+        check(cache.getWeight() <= 200, "weight " + cache.getWeight() + " over maximum");
+        check(removals.get() == 1, "removal listener ran " + removals.get() + " times");
+        for (String key : new String[] {"a", "b", "c"}) {
+            check(cache.get(key).equals("value-" + key), "reloaded value for " + key);
+        }
+        check(cache.getWeight() <= 200, "weight " + cache.getWeight() + " over maximum after reloads");
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}